@@ -0,0 +1,48 @@
+package org.example.skillwheel;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application started against a throwaway PostgreSQL container, for benchmarks that need the
+ * real schema, queries and mapping. Flyway migrates the empty database on startup. Needs Docker.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> database = new PostgreSQLContainer<>("postgres:16-alpine");
+    private final ConfigurableApplicationContext context;
+
+    BenchmarkApplication() {
+        this(Map.of());
+    }
+
+    /**
+     * @param properties application properties to override, e.g. feature switches being compared
+     */
+    BenchmarkApplication(Map<String, Object> properties) {
+        database.start();
+        Map<String, Object> all = new HashMap<>(Map.of(
+                "spring.datasource.url", database.getJdbcUrl(),
+                "spring.datasource.username", database.getUsername(),
+                "spring.datasource.password", database.getPassword(),
+                "spring.jpa.show-sql", "false",
+                "server.port", "0",
+                "logging.level.root", "WARN"));
+        all.putAll(properties);
+        context = new SpringApplicationBuilder(SkillWheelApplication.class).properties(all).run();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        database.stop();
+    }
+}
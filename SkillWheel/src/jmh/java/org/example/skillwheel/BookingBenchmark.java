@@ -0,0 +1,90 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Bookings through {@link ReservationService#addReservation} with the slot occupancy index on and
+ * off ({@code skillwheel.occupancy-index.enabled}), from several threads at once: free slots, which
+ * are checked and inserted, and taken slots, which are rejected by the conflict check alone.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+public class BookingBenchmark {
+
+    private static final int INSTRUCTORS = 1000;
+    private static final LocalTime TAKEN_TIME = LocalTime.of(6, 0);
+
+    @Param({"true", "false"})
+    public boolean occupancyIndex;
+
+    private final AtomicLong bookings = new AtomicLong();
+    private BenchmarkApplication application;
+    private ReservationService reservationService;
+    private LocalDate firstDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new BenchmarkApplication(Map.of("skillwheel.occupancy-index.enabled", occupancyIndex));
+        application.bean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO instructors (name, surname, email, password, name_of_school) VALUES (?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, INSTRUCTORS)
+                        .mapToObj(i -> new Object[]{"Jan", "Kowalski" + i, "instruktor" + i + "@example.com",
+                                "password", "Szkoła Jazdy AutoMaster"})
+                        .toList());
+        reservationService = application.bean(ReservationService.class);
+        firstDay = LocalDate.now().plusDays(1);
+        for (long instructor = 1; instructor <= INSTRUCTORS; instructor++) {
+            reservationService.addReservation(reservation(instructor, instructor, firstDay, TAKEN_TIME));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    /**
+     * Each call books a slot nobody holds: instructors rotate within a slot, slots within a day.
+     */
+    @Benchmark
+    public Reservation bookFreeSlot() {
+        long n = bookings.getAndIncrement();
+        long instructor = n % INSTRUCTORS + 1;
+        long slot = n / INSTRUCTORS;
+        LocalDate day = firstDay.plusDays(1 + slot / 48);
+        LocalTime time = LocalTime.MIDNIGHT.plusMinutes(30 * (slot % 48));
+        return reservationService.addReservation(reservation(instructor, instructor, day, time));
+    }
+
+    @Benchmark
+    public boolean bookTakenSlot() {
+        long instructor = bookings.getAndIncrement() % INSTRUCTORS + 1;
+        try {
+            reservationService.addReservation(reservation(instructor, instructor + INSTRUCTORS, firstDay, TAKEN_TIME));
+            throw new IllegalStateException("Taken slot of instructor " + instructor + " was booked again");
+        } catch (ReservationConflictException e) {
+            return true;
+        }
+    }
+
+    private static Reservation reservation(Long instructorId, Long studentId, LocalDate date, LocalTime time) {
+        return new Reservation(null, true, studentId, instructorId, date, time, "Plac Manewrowy");
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Inserting a list of reservations through {@link ReservationService#addReservations}, as a chunk of
+ * the batch import does, against inserting the same number one {@link ReservationService#addReservation}
+ * at a time. Times are per reservation, so the inverse is the import throughput of each path.
+ */
+@State(Scope.Benchmark)
+public class ReservationBatchBenchmark {
+
+    private static final int INSTRUCTORS = 1000;
+    private static final int CHUNK = 500;
+
+    private BenchmarkApplication application;
+    private ReservationService reservationService;
+    private LocalDate firstDay;
+    private long bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new BenchmarkApplication();
+        application.bean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO instructors (name, surname, email, password, name_of_school) VALUES (?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, INSTRUCTORS)
+                        .mapToObj(i -> new Object[]{"Jan", "Kowalski" + i, "instruktor" + i + "@example.com",
+                                "password", "Szkoła Jazdy AutoMaster"})
+                        .toList());
+        reservationService = application.bean(ReservationService.class);
+        firstDay = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public List<Reservation> insertAsBatch() {
+        return reservationService.addReservations(nextChunk());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public List<Reservation> insertOneAtATime() {
+        List<Reservation> saved = new ArrayList<>(CHUNK);
+        for (Reservation reservation : nextChunk()) {
+            saved.add(reservationService.addReservation(reservation));
+        }
+        return saved;
+    }
+
+    /**
+     * Free slots never used before: instructors rotate within a slot, slots within a day.
+     */
+    private List<Reservation> nextChunk() {
+        List<Reservation> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < CHUNK; i++) {
+            long n = bookings++;
+            long instructor = n % INSTRUCTORS + 1;
+            long slot = n / INSTRUCTORS;
+            LocalDate day = firstDay.plusDays(slot / 48);
+            LocalTime time = LocalTime.MIDNIGHT.plusMinutes(30 * (slot % 48));
+            chunk.add(new Reservation(null, true, instructor, instructor, day, time, "Plac Manewrowy"));
+        }
+        return chunk;
+    }
+}
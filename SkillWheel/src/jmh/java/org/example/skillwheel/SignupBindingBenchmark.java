@@ -0,0 +1,73 @@
+package org.example.skillwheel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.example.skillwheel.config.JacksonConfig;
+import org.example.skillwheel.controller.JsonRequestBinder;
+import org.example.skillwheel.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Binding and validating a student signup body the way the create endpoints used to (a new
+ * {@link ObjectMapper} and {@link ValidatorFactory} per request, body read into a String) against
+ * {@link JsonRequestBinder}, for a valid body and one that fails validation.
+ */
+@State(Scope.Benchmark)
+public class SignupBindingBenchmark {
+
+    private static final String VALID = """
+            {"name":"Jan","surname":"Kowalski","email":"jan.kowalski@example.com","password":"password123",\
+            "nameOfSchool":"Szkoła Jazdy AutoMaster"}""";
+
+    private static final String INVALID = """
+            {"name":"J","surname":"","email":"not-an-email","password":"short"}""";
+
+    @Param({"valid", "invalid"})
+    public String body;
+
+    private byte[] bytes;
+    private ValidatorFactory validatorFactory;
+    private JsonRequestBinder binder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bytes = ("valid".equals(body) ? VALID : INVALID).getBytes(StandardCharsets.UTF_8);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        binder = new JsonRequestBinder(new JacksonConfig().objectMapper(), validatorFactory.getValidator());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Object perRequestMapperAndValidator() throws JsonProcessingException {
+        String json = new String(bytes, StandardCharsets.UTF_8);
+        ObjectMapper objectMapper = new ObjectMapper();
+        Student student = objectMapper.readValue(json, Student.class);
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        Validator validator = factory.getValidator();
+        Set<ConstraintViolation<Student>> violations = validator.validate(student);
+        return violations.isEmpty() ? student : violations;
+    }
+
+    @Benchmark
+    public Object jsonRequestBinder() {
+        return binder.bind(new ByteArrayInputStream(bytes), Student.class);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.skillwheel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.skillwheel.controller.StudentController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.IntStream;
+
+/**
+ * Student list with full entities ({@code GET /api/students}) against the summary projection
+ * ({@code GET /api/students/summary}): query, mapping and JSON body of one request each.
+ */
+@State(Scope.Benchmark)
+public class StudentListBenchmark {
+
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7ZJ8dC1bLhK3RcyWQZl3l9e";
+
+    @Param({"100", "1000", "10000"})
+    public int students;
+
+    private BenchmarkApplication application;
+    private StudentController controller;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new BenchmarkApplication();
+        application.bean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO students (name, surname, email, password, name_of_school) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, students)
+                        .mapToObj(i -> new Object[]{"Jan", "Kowalski" + i, "jan.kowalski" + i + "@example.com",
+                                PASSWORD_HASH, "Szkoła Jazdy AutoMaster"})
+                        .toList());
+        controller = application.bean(StudentController.class);
+        objectMapper = application.bean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(controller.getAllStudents().getBody());
+    }
+
+    @Benchmark
+    public byte[] summaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(controller.getStudentSummaries().getBody());
+    }
+}
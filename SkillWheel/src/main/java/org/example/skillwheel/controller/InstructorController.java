@@ -1,10 +1,19 @@
 package org.example.skillwheel.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.*;
+import org.example.skillwheel.dto.DayAvailability;
+import org.example.skillwheel.dto.InstructorSummary;
+import org.example.skillwheel.dto.TimeRange;
+import org.example.skillwheel.exception.ResourceNotFoundException;
+import org.example.skillwheel.exception.ServiceBusyException;
 import org.example.skillwheel.model.Instructor;
+import org.example.skillwheel.service.AvailabilityService;
+import org.example.skillwheel.service.CalendarService;
+import org.example.skillwheel.service.EntityTags;
+import org.example.skillwheel.service.IdempotencyService;
 import org.example.skillwheel.service.InstructorService;
+import org.example.skillwheel.service.TimeSlots;
+import org.example.skillwheel.service.WorkingHoursService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +21,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -24,24 +44,40 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/instructors")
 public class InstructorController {
 
+    private static final MediaType CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
     private final InstructorService instructorService;
+    private final AvailabilityService availabilityService;
+    private final WorkingHoursService workingHoursService;
+    private final CalendarService calendarService;
+    private final IdempotencyService idempotencyService;
+    private final JsonRequestBinder requestBinder;
 
     @Autowired
-    public InstructorController(InstructorService instructorService) {
+    public InstructorController(InstructorService instructorService, AvailabilityService availabilityService,
+                                WorkingHoursService workingHoursService, CalendarService calendarService,
+                                IdempotencyService idempotencyService, JsonRequestBinder requestBinder) {
         this.instructorService = instructorService;
+        this.availabilityService = availabilityService;
+        this.workingHoursService = workingHoursService;
+        this.calendarService = calendarService;
+        this.idempotencyService = idempotencyService;
+        this.requestBinder = requestBinder;
     }
 
     @Operation(summary = "Pobierz instruktora po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Instruktor znaleziony",
                     content = @Content(schema = @Schema(implementation = Instructor.class))),
+            @ApiResponse(responseCode = "304", description = "Instruktor nie zmienił się od podanego ETag"),
             @ApiResponse(responseCode = "404", description = "Instruktor nie znaleziony",
                     content = @Content(schema = @Schema(example = "{\"status\":404,\"error\":\"Instructor not found\"}")))
     })
     @GetMapping("/{id}")
     public ResponseEntity<?> getInstructorById(
             @Parameter(description = "ID instruktora", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         Optional<Instructor> instructor = instructorService.getInstructorById(id);
         if (instructor.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -50,12 +86,52 @@ public class InstructorController {
                             "error", "Instructor not found"
                     ));
         }
-        return ResponseEntity.ok(Map.of(
+        String etag = EntityTags.of(instructor.get());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(Map.of(
                 "status", HttpStatus.OK.value(),
                 "instructor", instructor.get()
         ));
     }
 
+    @Operation(summary = "Pobierz skróconą listę instruktorów (bez haseł)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista instruktorów",
+                    content = @Content(schema = @Schema(
+                            example = "{\"status\":200,\"instructors\":[{\"id\":1,\"name\":\"Jan\",\"surname\":\"Kowalski\",\"email\":\"jan.kowalski@example.com\",\"nameOfSchool\":\"AutoSzkoła ABC\"}]}")))
+    })
+    @GetMapping("/summary")
+    public ResponseEntity<?> getInstructorSummaries() {
+        List<InstructorSummary> instructors = instructorService.getInstructorSummaries();
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "instructors", instructors
+        ));
+    }
+
+    @Operation(summary = "Wyszukaj instruktorów po imieniu, nazwisku, emailu lub szkole")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Najlepiej dopasowani instruktorzy, od najtrafniejszego",
+                    content = @Content(schema = @Schema(
+                            example = "{\"status\":200,\"instructors\":[{\"id\":1,\"name\":\"Jan\",\"surname\":\"Kowalski\",\"email\":\"jan.kowalski@example.com\",\"nameOfSchool\":\"AutoSzkoła ABC\"}]}"))),
+            @ApiResponse(responseCode = "400", description = "Pusta fraza lub nieprawidłowy limit",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Search query cannot be empty\"}")))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchInstructors(
+            @Parameter(description = "Szukana fraza; dopasowuje początki słów i toleruje literówki", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "Maksymalna liczba wyników (1-100)")
+            @RequestParam(defaultValue = "20") int limit) {
+        List<InstructorSummary> instructors = instructorService.searchInstructors(query, limit);
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "instructors", instructors
+        ));
+    }
+
     @Operation(summary = "Pobierz wszystkich instruktorów")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista instruktorów",
@@ -83,49 +159,33 @@ public class InstructorController {
     })
     @PostMapping
     public ResponseEntity<?> addInstructor(
-            @Parameter(description = "Dane instruktora w formacie JSON", required = true)
-            @RequestBody String instructorJson) {
-        if (instructorJson == null || instructorJson.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(
-                    Map.of("status", HttpStatus.BAD_REQUEST.value(),
-                            "error", "Request body cannot be empty"));
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Dane instruktora w formacie JSON", required = true,
+                    content = @Content(schema = @Schema(implementation = Instructor.class)))
+            InputStream body,
+            @Parameter(description = "Klucz idempotencji; ponowienie z tym samym kluczem zwraca zapisaną odpowiedź")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        JsonRequestBinder.Result<Instructor> bound = requestBinder.bind(body, Instructor.class);
+        if (bound.error() != null) {
+            return bound.error();
         }
+        Instructor instructor = bound.value();
+        return idempotencyService.execute("instructors", idempotencyKey, instructor, () -> createInstructor(instructor));
+    }
 
+    private ResponseEntity<?> createInstructor(Instructor instructor) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            Instructor instructor = objectMapper.readValue(instructorJson, Instructor.class);
-
-            ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-            Validator validator = factory.getValidator();
-            Set<ConstraintViolation<Instructor>> violations = validator.validate(instructor);
-
-            if (!violations.isEmpty()) {
-                Map<String, String> errors = new HashMap<>();
-                for (ConstraintViolation<Instructor> violation : violations) {
-                    errors.put(violation.getPropertyPath().toString(), violation.getMessage());
-                }
-                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
-                        .body(Map.of(
-                                "status", HttpStatus.UNPROCESSABLE_ENTITY.value(),
-                                "errors", errors
-                        ));
-            }
-
-            if (instructorService.existsByEmail(instructor.getEmail())) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(
-                        Map.of("status", HttpStatus.CONFLICT.value(),
-                                "error", "Instructor with this email already exists"));
-            }
-
-            Instructor savedInstructor = instructorService.addInstructor(instructor);
-            return ResponseEntity.status(HttpStatus.CREATED).body(
-                    Map.of("status", HttpStatus.CREATED.value(),
-                            "instructor", savedInstructor));
-
-        } catch (JsonProcessingException e) {
-            return ResponseEntity.badRequest().body(
-                    Map.of("status", HttpStatus.BAD_REQUEST.value(),
-                            "error", "Invalid JSON format"));
+            return instructorService.addInstructor(instructor)
+                    .<ResponseEntity<?>>map(savedInstructor -> ResponseEntity.status(HttpStatus.CREATED).body(
+                            Map.of("status", HttpStatus.CREATED.value(),
+                                    "instructor", savedInstructor)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(
+                            Map.of("status", HttpStatus.CONFLICT.value(),
+                                    "error", "Instructor with this email already exists")));
+
+        } catch (ServiceBusyException e) {
+            // Answered with 503 by GlobalExceptionHandler rather than as an unexpected error.
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(
                     Map.of("status", HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -139,6 +199,8 @@ public class InstructorController {
                     content = @Content(schema = @Schema(implementation = Instructor.class))),
             @ApiResponse(responseCode = "404", description = "Instruktor nie znaleziony",
                     content = @Content(schema = @Schema(example = "{\"status\":404,\"error\":\"Instructor not found\"}"))),
+            @ApiResponse(responseCode = "412", description = "Instruktor został zmieniony od wersji podanej w If-Match",
+                    content = @Content(schema = @Schema(example = "{\"status\":412,\"error\":\"Instructor 1 has been modified since version 3\"}"))),
             @ApiResponse(responseCode = "422", description = "Błąd walidacji danych",
                     content = @Content(schema = @Schema(example = "{\"status\":422,\"errors\":{\"firstName\":\"must not be blank\"}}")))
     })
@@ -149,12 +211,15 @@ public class InstructorController {
             @Parameter(description = "Nowe dane instruktora", required = true,
                     content = @Content(schema = @Schema(implementation = Instructor.class)))
             @Valid @RequestBody Instructor updatedInstructor,
-            BindingResult bindingResult) {
+            BindingResult bindingResult,
+            @Parameter(description = "ETag ostatnio pobranej wersji instruktora; zapis tylko, jeśli nadal jest aktualna")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (bindingResult.hasErrors()) {
             return buildValidationErrorResponse(bindingResult);
         }
 
-        Optional<Instructor> instructor = instructorService.updateInstructor(id, updatedInstructor);
+        Long expectedVersion = EntityTags.expectedInstructorVersion(ifMatch, id);
+        Optional<Instructor> instructor = instructorService.updateInstructor(id, updatedInstructor, expectedVersion);
         if (instructor.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of(
@@ -162,7 +227,7 @@ public class InstructorController {
                             "error", "Instructor not found"
                     ));
         }
-        return ResponseEntity.ok(Map.of(
+        return ResponseEntity.ok().eTag(EntityTags.of(instructor.get())).body(Map.of(
                 "status", HttpStatus.OK.value(),
                 "instructor", instructor.get()
         ));
@@ -193,6 +258,118 @@ public class InstructorController {
         ));
     }
 
+    @Operation(summary = "Pobierz wolne terminy instruktora")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Wolne przedziały w kolejnych dniach",
+                    content = @Content(schema = @Schema(example = "{\"status\":200,\"instructorId\":5,\"slotMinutes\":30,\"days\":[{\"date\":\"2025-05-10\",\"free\":[{\"from\":\"08:00\",\"to\":\"14:30\"}]}]}"))),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy zakres dat",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Availability window cannot exceed 92 days\"}"))),
+            @ApiResponse(responseCode = "404", description = "Instruktor nie znaleziony",
+                    content = @Content(schema = @Schema(example = "{\"status\":404,\"error\":\"Instructor not found\"}")))
+    })
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getAvailability(
+            @Parameter(description = "ID instruktora", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Pierwszy dzień (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ostatni dzień włącznie (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (instructorService.getInstructorById(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of(
+                            "status", HttpStatus.NOT_FOUND.value(),
+                            "error", "Instructor not found"
+                    ));
+        }
+        List<DayAvailability> days = availabilityService.getAvailability(id, from, to);
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "instructorId", id,
+                "slotMinutes", TimeSlots.SLOT_MINUTES,
+                "days", days
+        ));
+    }
+
+    @Operation(summary = "Pobierz kalendarz instruktora (iCalendar)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rezerwacje jako zdarzenia VEVENT, zapisywane w miarę odczytu z bazy",
+                    content = @Content(mediaType = "text/calendar")),
+            @ApiResponse(responseCode = "304", description = "Kalendarz nie zmienił się od podanego ETag"),
+            @ApiResponse(responseCode = "404", description = "Instruktor nie znaleziony",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Instructor not found with ID: 1\",\"status\":404}")))
+    })
+    @GetMapping("/{id}/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getInstructorCalendar(
+            @Parameter(description = "ID instruktora", required = true)
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        if (instructorService.getInstructorById(id).isEmpty()) {
+            throw new ResourceNotFoundException("Instructor not found with ID: " + id);
+        }
+        String etag = calendarService.instructorCalendarTag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(CALENDAR)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(outputStream -> calendarService.writeInstructorCalendar(id, outputStream));
+    }
+
+    @Operation(summary = "Pobierz godziny pracy instruktora")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Godziny pracy w kolejnych dniach tygodnia",
+                    content = @Content(schema = @Schema(example = "{\"status\":200,\"workingHours\":{\"MONDAY\":[{\"from\":\"08:00\",\"to\":\"16:00\"}]}}"))),
+            @ApiResponse(responseCode = "404", description = "Instruktor nie znaleziony",
+                    content = @Content(schema = @Schema(example = "{\"status\":404,\"error\":\"Instructor not found\"}")))
+    })
+    @GetMapping("/{id}/working-hours")
+    public ResponseEntity<?> getWorkingHours(
+            @Parameter(description = "ID instruktora", required = true)
+            @PathVariable Long id) {
+        if (instructorService.getInstructorById(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of(
+                            "status", HttpStatus.NOT_FOUND.value(),
+                            "error", "Instructor not found"
+                    ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "workingHours", workingHoursService.getWorkingHours(id)
+        ));
+    }
+
+    @Operation(summary = "Ustaw godziny pracy instruktora")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Godziny pracy zapisane",
+                    content = @Content(schema = @Schema(example = "{\"status\":200,\"workingHours\":{\"MONDAY\":[{\"from\":\"08:00\",\"to\":\"16:00\"}]}}"))),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy przedział godzin",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Working hours on MONDAY must start before they end\"}"))),
+            @ApiResponse(responseCode = "404", description = "Instruktor nie znaleziony",
+                    content = @Content(schema = @Schema(example = "{\"status\":404,\"error\":\"Instructor not found\"}")))
+    })
+    @PutMapping("/{id}/working-hours")
+    public ResponseEntity<?> setWorkingHours(
+            @Parameter(description = "ID instruktora", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Przedziały pracy dla dni tygodnia", required = true)
+            @RequestBody Map<DayOfWeek, List<TimeRange>> workingHours) {
+        if (instructorService.getInstructorById(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of(
+                            "status", HttpStatus.NOT_FOUND.value(),
+                            "error", "Instructor not found"
+                    ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "workingHours", workingHoursService.setWorkingHours(id, workingHours)
+        ));
+    }
+
     private ResponseEntity<Map<String, Object>> buildValidationErrorResponse(BindingResult bindingResult) {
         Map<String, String> errors = bindingResult.getFieldErrors()
                 .stream()
@@ -0,0 +1,96 @@
+package org.example.skillwheel.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.skillwheel.model.Instructor;
+import org.example.skillwheel.model.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds and validates the raw JSON bodies of the student and instructor create endpoints.
+ * <p>
+ * Uses the application's {@link ObjectMapper} and {@link Validator} instead of building new ones per
+ * request, reads straight from the request stream, and keeps one {@link ObjectReader} per type.
+ * Readers and validator metadata for the known types are built at startup so the first request
+ * does not pay for them. Error bodies are the ones those endpoints have always returned.
+ */
+@Component
+public class JsonRequestBinder {
+
+    private static final List<Class<?>> PREWARMED_TYPES = List.of(Student.class, Instructor.class);
+
+    /**
+     * Either the bound value or the error response to return instead.
+     */
+    public record Result<T>(T value, ResponseEntity<?> error) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JsonRequestBinder(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        for (Class<?> type : PREWARMED_TYPES) {
+            readers.put(type, objectMapper.readerFor(type));
+            validator.getConstraintsForClass(type);
+        }
+    }
+
+    public <T> Result<T> bind(InputStream body, Class<T> type) {
+        T value;
+        try (JsonParser parser = reader(type).createParser(body)) {
+            if (parser.nextToken() == null) {
+                return error(HttpStatus.BAD_REQUEST, "Request body cannot be empty");
+            }
+            value = reader(type).readValue(parser);
+        } catch (JsonProcessingException e) {
+            return error(HttpStatus.BAD_REQUEST, "Invalid JSON format");
+        } catch (IOException e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+        }
+        if (value == null) {
+            return error(HttpStatus.BAD_REQUEST, "Request body cannot be empty");
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new HashMap<>();
+            for (ConstraintViolation<T> violation : violations) {
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            return new Result<>(null, ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of(
+                            "status", HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                            "errors", errors
+                    )));
+        }
+        return new Result<>(value, null);
+    }
+
+    private ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    private static <T> Result<T> error(HttpStatus status, String message) {
+        return new Result<>(null, ResponseEntity.status(status)
+                .body(Map.of("status", status.value(), "error", message)));
+    }
+}
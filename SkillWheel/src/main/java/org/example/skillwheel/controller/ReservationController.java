@@ -1,5 +1,8 @@
 package org.example.skillwheel.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -7,173 +10,425 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.example.skillwheel.dto.BatchJobStatus;
+import org.example.skillwheel.dto.BulkReassignRequest;
+import org.example.skillwheel.dto.BulkShiftRequest;
+import org.example.skillwheel.dto.ReservationStreamEvent;
 import org.example.skillwheel.exception.ResourceNotFoundException;
 import org.example.skillwheel.model.Instructor;
 import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.EntityTags;
+import org.example.skillwheel.service.FreeInstructorIndex;
+import org.example.skillwheel.service.IdempotencyService;
+import org.example.skillwheel.service.ReservationBatchService;
+import org.example.skillwheel.service.ReservationMergePatch;
 import org.example.skillwheel.service.ReservationService;
+import org.example.skillwheel.service.ReservationStreamService;
+import org.example.skillwheel.service.WaitlistService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/reservations")
 public class ReservationController {
 
+        private static final int MAX_PAGE_SIZE = 1000;
+
         private final ReservationService reservationService;
+        private final ReservationBatchService reservationBatchService;
+        private final ReservationMergePatch reservationMergePatch;
+        private final ReservationStreamService reservationStreamService;
+        private final FreeInstructorIndex freeInstructorIndex;
+        private final WaitlistService waitlistService;
+        private final IdempotencyService idempotencyService;
+        private final ObjectMapper objectMapper;
 
         @Autowired
-        public ReservationController(ReservationService reservationService) {
+        public ReservationController(ReservationService reservationService,
+                        ReservationBatchService reservationBatchService, ReservationMergePatch reservationMergePatch,
+                        ReservationStreamService reservationStreamService, FreeInstructorIndex freeInstructorIndex,
+                        WaitlistService waitlistService, IdempotencyService idempotencyService,
+                        ObjectMapper objectMapper) {
                 this.reservationService = reservationService;
+                this.reservationBatchService = reservationBatchService;
+                this.reservationMergePatch = reservationMergePatch;
+                this.reservationStreamService = reservationStreamService;
+                this.freeInstructorIndex = freeInstructorIndex;
+                this.waitlistService = waitlistService;
+                this.idempotencyService = idempotencyService;
+                this.objectMapper = objectMapper;
         }
 
-        @Operation(summary = "Pobierz wszystkie rezerwacje")
+        @Operation(summary = "Pobierz stronę rezerwacji (paginacja po kursorze)")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved list of reservations", content = @Content(schema = @Schema(implementation = Reservation.class, type = "array")))
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved page of reservations; a Link header with rel=\"next\" points to the following page", content = @Content(schema = @Schema(implementation = Reservation.class, type = "array"))),
+                        @ApiResponse(responseCode = "400", description = "Invalid page size", content = @Content(schema = @Schema(example = "{\"error\":\"Limit must be a positive number\"}")))
         })
         @GetMapping
-        public ResponseEntity<?> getAllReservations() {
-                List<Reservation> reservations = reservationService.getAllReservations();
-                return ResponseEntity.ok(reservations);
+        public ResponseEntity<?> getAllReservations(
+                        @Parameter(description = "Kursor: ID ostatniej rezerwacji z poprzedniej strony") @RequestParam(required = false) Long after,
+                        @Parameter(description = "Maksymalna liczba rezerwacji na stronie (max 1000)") @RequestParam(defaultValue = "100") int limit) {
+                if (limit < 1) {
+                        throw new IllegalArgumentException("Limit must be a positive number");
+                }
+                int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+                List<Reservation> reservations = reservationService.getReservationsPage(after, pageSize);
+
+                // The body stays the bare array existing clients read; the cursor travels in the Link header.
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (reservations.size() == pageSize) {
+                        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                                        .replaceQueryParam("after", reservations.get(pageSize - 1).getId())
+                                        .replaceQueryParam("limit", pageSize)
+                                        .toUriString();
+                        response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                }
+                return response.body(reservations);
+        }
+
+        @Operation(summary = "Strumieniuj wszystkie rezerwacje jako NDJSON")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "One reservation per line, written as rows are read from the database", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Reservation.class)))
+        })
+        @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> streamAllReservations() {
+                ObjectWriter writer = objectMapper.writerFor(Reservation.class);
+                StreamingResponseBody body = outputStream -> reservationService.streamAllReservations(reservation -> {
+                        try {
+                                outputStream.write(writer.writeValueAsBytes(reservation));
+                                outputStream.write('\n');
+                        } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                        }
+                });
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .body(body);
+        }
+
+        @Operation(summary = "Subskrybuj zmiany rezerwacji instruktora (Server-Sent Events)")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Stream of created, updated and deleted events; evicted or resync tell the client to reload", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = ReservationStreamEvent.class))),
+                        @ApiResponse(responseCode = "503", description = "This node already serves the maximum number of subscribers")
+        })
+        @GetMapping("/stream")
+        public ResponseEntity<SseEmitter> streamReservationChanges(
+                        @Parameter(description = "ID instruktora", required = true) @RequestParam Long instructorId,
+                        @Parameter(description = "Numer ostatniego odebranego zdarzenia") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+                return reservationStreamService.subscribe(instructorId, lastEventId)
+                                .map(ResponseEntity::ok)
+                                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                                .header(HttpHeaders.RETRY_AFTER, "5")
+                                                .build());
+        }
+
+        @Operation(summary = "Znajdź instruktorów wolnych w danym terminie")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "IDs of instructors working and not booked at the given time", content = @Content(schema = @Schema(example = "{\"status\":200,\"date\":\"2025-05-10\",\"time\":\"14:30\",\"instructorIds\":[1,5,8]}"))),
+                        @ApiResponse(responseCode = "400", description = "Invalid date or time format", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid parameter\",\"message\":\"Failed to convert value of type 'String' to required type 'LocalDate'\"}")))
+        })
+        @GetMapping("/free-instructors")
+        public ResponseEntity<?> getFreeInstructors(
+                        @Parameter(description = "Data (yyyy-MM-dd)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                        @Parameter(description = "Godzina (HH:mm)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time,
+                        @Parameter(description = "Opcjonalna nazwa szkoły jazdy") @RequestParam(required = false) String nameOfSchool) {
+                List<Long> instructorIds = freeInstructorIndex.findFreeInstructors(date, time, nameOfSchool);
+                return ResponseEntity.ok(Map.of(
+                                "status", HttpStatus.OK.value(),
+                                "date", date.toString(),
+                                "time", time.toString(),
+                                "instructorIds", instructorIds));
         }
 
         @Operation(summary = "Pobierz rezerwację po ID")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Reservation found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Reservation.class))),
+                        @ApiResponse(responseCode = "304", description = "Reservation not modified since the given ETag"),
                         @ApiResponse(responseCode = "404", description = "Reservation not found", content = @Content(mediaType = "application/json", schema = @Schema(example = "{\"error\":\"Reservation not found with ID: 1\",\"status\":404}")))
         })
         @GetMapping("/{id}")
         public ResponseEntity<?> getReservationById(
-                        @Parameter(description = "ID rezerwacji", required = true) @PathVariable Long id) {
-                return reservationService.getReservationById(id)
-                                .map(ResponseEntity::ok)
+                        @Parameter(description = "ID rezerwacji", required = true) @PathVariable Long id,
+                        WebRequest webRequest) {
+                Reservation reservation = reservationService.getReservationById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Reservation not found with ID: " + id));
+                String etag = EntityTags.of(reservation);
+                if (webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+                return ResponseEntity.ok().eTag(etag).body(reservation);
         }
 
         @Operation(summary = "Pobierz rezerwacje dla studenta")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Successfully retrieved student's reservations", content = @Content(schema = @Schema(implementation = Reservation.class, type = "array"))),
+                        @ApiResponse(responseCode = "304", description = "No changes to the student's reservations since the given ETag"),
                         @ApiResponse(responseCode = "400", description = "Invalid student ID format", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid parameter\",\"message\":\"Failed to convert value of type 'String' to required type 'Long'\"}")))
         })
         @GetMapping("/student/{studentId}")
         public ResponseEntity<?> getReservationsByStudentId(
-                        @Parameter(description = "ID studenta", required = true) @PathVariable Long studentId) {
-                List<Reservation> studentReservations = reservationService.getReservationsByStudentId(studentId);
+                        @Parameter(description = "ID studenta", required = true) @PathVariable Long studentId,
+                        @Parameter(description = "Czy dołączyć zarchiwizowane rezerwacje") @RequestParam(defaultValue = "false") boolean includeArchived,
+                        WebRequest webRequest) {
+                String etag = reservationService.studentReservationsTag(studentId, includeArchived);
+                if (webRequest.checkNotModified(etag)) {
+                        return null;
+                }
+                List<Reservation> studentReservations = reservationService.getReservationsByStudentId(studentId,
+                                includeArchived);
                 Map<String, Object> response = Map.of(
                                 "status", 200,
                                 "reservations", studentReservations);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(etag).body(response);
         }
 
         @Operation(summary = "Pobierz rezerwacje dla instruktora")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Successfully retrieved instructor's reservations", content = @Content(schema = @Schema(implementation = Reservation.class, type = "array"))),
+                        @ApiResponse(responseCode = "304", description = "No changes to the instructor's reservations since the given ETag"),
                         @ApiResponse(responseCode = "400", description = "Invalid instructor ID format", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid parameter\",\"message\":\"Failed to convert value of type 'String' to required type 'Long'\"}")))
         })
         @GetMapping("/instructor/{instructorId}")
         public ResponseEntity<?> getReservationsByInstructorId(
-                        @Parameter(description = "ID instruktora", required = true) @PathVariable Long instructorId) {
+                        @Parameter(description = "ID instruktora", required = true) @PathVariable Long instructorId,
+                        @Parameter(description = "Czy dołączyć zarchiwizowane rezerwacje") @RequestParam(defaultValue = "false") boolean includeArchived,
+                        WebRequest webRequest) {
+                String etag = reservationService.instructorReservationsTag(instructorId, includeArchived);
+                if (webRequest.checkNotModified(etag)) {
+                        return null;
+                }
                 List<Reservation> instructorReservations = reservationService
-                                .getReservationsByInstructorId(instructorId);
+                                .getReservationsByInstructorId(instructorId, includeArchived);
                 Map<String, Object> response = Map.of(
                                 "status", 200,
                                 "reservations", instructorReservations);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(etag).body(response);
         }
 
         @Operation(summary = "Dodaj nową rezerwację")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "201", description = "Reservation created successfully", content = @Content(schema = @Schema(implementation = Reservation.class))),
                         @ApiResponse(responseCode = "400", description = "Invalid input (e.g., reservation with ID provided)", content = @Content(schema = @Schema(example = "{\"error\":\"New reservation should not have an ID\"}"))),
+                        @ApiResponse(responseCode = "409", description = "Slot already booked, or a request with the same Idempotency-Key is still in progress", content = @Content(schema = @Schema(example = "{\"status\":409,\"error\":\"A request with this Idempotency-Key is still in progress\"}"))),
+                        @ApiResponse(responseCode = "503", description = "The instructor's booking lock was not available in time; retry after the Retry-After delay", content = @Content(schema = @Schema(example = "{\"status\":503,\"error\":\"The instructor's schedule is being changed by other requests, try again shortly\"}"))),
                         @ApiResponse(responseCode = "422", description = "Validation error", content = @Content(schema = @Schema(example = "{\"date\":\"Date must be in the future\",\"time\":\"Time must be during working hours\"}"))),
                         @ApiResponse(responseCode = "400", description = "Invalid JSON input", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid JSON\",\"message\":\"JSON parse error: Unexpected character ('X' (code 88)): was expecting double-quote to start field name\"}")))
         })
         @PostMapping
         public ResponseEntity<?> addReservation(
-                        @Parameter(description = "Nowa rezerwacja", required = true, content = @Content(schema = @Schema(implementation = Reservation.class))) @Valid @RequestBody Reservation reservation) {
+                        @Parameter(description = "Nowa rezerwacja", required = true, content = @Content(schema = @Schema(implementation = Reservation.class))) @Valid @RequestBody Reservation reservation,
+                        @Parameter(description = "Klucz idempotencji; ponowienie z tym samym kluczem zwraca zapisaną odpowiedź") @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
                 if (reservation.getId() != null) {
                         throw new IllegalArgumentException("New reservation should not have an ID");
                 }
 
-                Reservation savedReservation = reservationService.addReservation(reservation);
-                return ResponseEntity.status(HttpStatus.CREATED).body(savedReservation);
+                return idempotencyService.execute("reservations", idempotencyKey, reservation, () -> {
+                        Reservation savedReservation = reservationService.addReservation(reservation);
+                        return ResponseEntity.status(HttpStatus.CREATED).body(savedReservation);
+                });
+        }
+
+        @Operation(summary = "Zarezerwuj termin lub zapisz się na listę oczekujących")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Slot was free and has been booked", content = @Content(schema = @Schema(implementation = Reservation.class))),
+                        @ApiResponse(responseCode = "202", description = "Instructor is taken; the student was queued and will be booked when the slot frees up", content = @Content(schema = @Schema(example = "{\"status\":202,\"position\":3}"))),
+                        @ApiResponse(responseCode = "409", description = "Student is busy at that time or the waitlist is full", content = @Content(schema = @Schema(example = "{\"status\":409,\"error\":\"The waitlist for this slot is full\"}"))),
+                        @ApiResponse(responseCode = "422", description = "Validation error", content = @Content(schema = @Schema(example = "{\"reservationPlace\":\"Reservation place is required\"}")))
+        })
+        @PostMapping("/waitlist")
+        public ResponseEntity<?> bookOrJoinWaitlist(
+                        @Parameter(description = "Rezerwacja, na którą kursant chce czekać", required = true, content = @Content(schema = @Schema(implementation = Reservation.class))) @Valid @RequestBody Reservation reservation) {
+                if (reservation.getId() != null) {
+                        throw new IllegalArgumentException("New reservation should not have an ID");
+                }
+
+                WaitlistService.Outcome outcome = waitlistService.bookOrEnqueue(reservation);
+                if (outcome.booked() != null) {
+                        return ResponseEntity.status(HttpStatus.CREATED).body(outcome.booked());
+                }
+                return ResponseEntity.accepted().body(Map.of(
+                                "status", HttpStatus.ACCEPTED.value(),
+                                "position", outcome.position()));
+        }
+
+        @Operation(summary = "Wypisz się z listy oczekujących")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Student removed from the waitlist", content = @Content(schema = @Schema(example = "{\"message\":\"Left the waitlist\"}"))),
+                        @ApiResponse(responseCode = "404", description = "Student is not waiting for this slot", content = @Content(schema = @Schema(example = "{\"error\":\"Student 10 is not on the waitlist for this slot\",\"status\":404}")))
+        })
+        @DeleteMapping("/waitlist")
+        public ResponseEntity<?> leaveWaitlist(
+                        @Parameter(description = "ID kursanta", required = true) @RequestParam Long studentId,
+                        @Parameter(description = "ID instruktora", required = true) @RequestParam Long instructorId,
+                        @Parameter(description = "Data (yyyy-MM-dd)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                        @Parameter(description = "Godzina (HH:mm)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time) {
+                if (!waitlistService.leave(studentId, instructorId, date, time)) {
+                        throw new ResourceNotFoundException("Student " + studentId + " is not on the waitlist for this slot");
+                }
+                return ResponseEntity.ok(Map.of("message", "Left the waitlist"));
+        }
+
+        @Operation(summary = "Dodaj wiele rezerwacji naraz")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Small batch inserted in one transaction", content = @Content(schema = @Schema(example = "{\"status\":201,\"count\":2,\"reservations\":[]}"))),
+                        @ApiResponse(responseCode = "202", description = "Large batch accepted for background processing", content = @Content(schema = @Schema(implementation = BatchJobStatus.class))),
+                        @ApiResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content(schema = @Schema(example = "{\"error\":\"Batch cannot contain more than 10000 reservations\"}"))),
+                        @ApiResponse(responseCode = "409", description = "Slot conflict inside the batch or with existing bookings", content = @Content(schema = @Schema(example = "{\"status\":409,\"error\":\"Reservation [3]: Instructor 5 is already booked on 2025-05-10 at 14:30\"}"))),
+                        @ApiResponse(responseCode = "422", description = "Validation errors keyed by position in the batch", content = @Content(schema = @Schema(example = "{\"status\":422,\"errors\":{\"[3].reservationDate\":\"Reservation date is required\"}}"))),
+                        @ApiResponse(responseCode = "503", description = "Too many large batches already waiting; retry after Retry-After", content = @Content(schema = @Schema(example = "{\"status\":503,\"error\":\"Too many reservation batches are being imported, try again shortly\"}")))
+        })
+        @PostMapping("/batch")
+        public ResponseEntity<?> addReservationsBatch(
+                        @Parameter(description = "Lista nowych rezerwacji", required = true) @RequestBody List<Reservation> reservations) {
+                Map<String, String> errors = reservationBatchService.validate(reservations);
+                if (!errors.isEmpty()) {
+                        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(Map.of(
+                                        "status", HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                                        "errors", errors));
+                }
+
+                if (reservationBatchService.runsAsynchronously(reservations)) {
+                        BatchJobStatus job = reservationBatchService.submit(reservations);
+                        return ResponseEntity.accepted()
+                                        .location(URI.create("/api/reservations/batch/" + job.id()))
+                                        .body(Map.of(
+                                                        "status", HttpStatus.ACCEPTED.value(),
+                                                        "job", job));
+                }
+
+                List<Reservation> savedReservations = reservationBatchService.insert(reservations);
+                return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                                "status", HttpStatus.CREATED.value(),
+                                "count", savedReservations.size(),
+                                "reservations", savedReservations));
+        }
+
+        @Operation(summary = "Pobierz stan importu rezerwacji")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Batch job found", content = @Content(schema = @Schema(implementation = BatchJobStatus.class))),
+                        @ApiResponse(responseCode = "404", description = "Batch job not found or already evicted", content = @Content(schema = @Schema(example = "{\"error\":\"Batch job not found with ID: 3f1c...\",\"status\":404}")))
+        })
+        @GetMapping("/batch/{jobId}")
+        public ResponseEntity<?> getBatchJob(@PathVariable UUID jobId) {
+                return reservationBatchService.getJob(jobId)
+                                .map(job -> ResponseEntity.ok(Map.of(
+                                                "status", HttpStatus.OK.value(),
+                                                "job", job)))
+                                .orElseThrow(() -> new ResourceNotFoundException("Batch job not found with ID: " + jobId));
+        }
+
+        @Operation(summary = "Zmień wybrane pola rezerwacji (JSON Merge Patch)")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reservation updated successfully", content = @Content(schema = @Schema(implementation = Reservation.class))),
+                        @ApiResponse(responseCode = "404", description = "Reservation not found", content = @Content(schema = @Schema(example = "{\"error\":\"Reservation not found with ID: 1\",\"status\":404}"))),
+                        @ApiResponse(responseCode = "412", description = "Reservation was modified since the version given in If-Match", content = @Content(schema = @Schema(example = "{\"status\":412,\"error\":\"Reservation 1 has been modified since version 3\"}"))),
+                        @ApiResponse(responseCode = "400", description = "Patch is not an object or touches an unknown, read-only or required field", content = @Content(schema = @Schema(example = "{\"error\":\"Unknown reservation field: place\"}"))),
+                        @ApiResponse(responseCode = "409", description = "New slot is already taken", content = @Content(schema = @Schema(example = "{\"status\":409,\"error\":\"Instructor 5 is already booked on 2025-05-10 at 14:30\"}"))),
+                        @ApiResponse(responseCode = "503", description = "The instructor's booking lock was not available in time; retry after the Retry-After delay", content = @Content(schema = @Schema(example = "{\"status\":503,\"error\":\"The instructor's schedule is being changed by other requests, try again shortly\"}"))),
+                        @ApiResponse(responseCode = "422", description = "Validation errors", content = @Content(schema = @Schema(example = "{\"reservationDate\":\"Reservation date must be in the present or future\"}")))
+        })
+        @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+        public ResponseEntity<?> patchReservation(@PathVariable Long id,
+                        @Parameter(description = "Zmieniane pola rezerwacji", required = true) @RequestBody JsonNode patch,
+                        @Parameter(description = "ETag ostatnio pobranej wersji rezerwacji; zapis tylko, jeśli nadal jest aktualna") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                Map<String, Object> changes = reservationMergePatch.read(patch);
+                Map<String, String> errors = reservationMergePatch.validate(changes);
+                if (!errors.isEmpty()) {
+                        return ResponseEntity.unprocessableEntity().body(errors);
+                }
+                return updated(id, reservationService.patchReservation(id, changes,
+                                EntityTags.expectedReservationVersion(ifMatch, id)));
         }
 
         @Operation(summary = "Zaktualizuj godzinę rezerwacji")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Reservation date updated successfully", content = @Content(schema = @Schema(implementation = Reservation.class))),
                         @ApiResponse(responseCode = "404", description = "Reservation not found", content = @Content(schema = @Schema(example = "{\"error\":\"Reservation not found with ID: 1\",\"status\":404}"))),
+                        @ApiResponse(responseCode = "412", description = "Reservation was modified since the version given in If-Match", content = @Content(schema = @Schema(example = "{\"status\":412,\"error\":\"Reservation 1 has been modified since version 3\"}"))),
                         @ApiResponse(responseCode = "400", description = "Invalid date format", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid JSON\",\"message\":\"JSON parse error: Cannot deserialize value of type `java.time.LocalDate` from String \\\"2023-02-30\\\": Text '2023-02-30' could not be parsed: Invalid date 'FEBRUARY 30'\"}")))
         })
         @PutMapping("/{id}/time")
-        public ResponseEntity<?> updateReservationTime(@PathVariable Long id, @RequestBody LocalTime newTime) {
-                return reservationService.updateReservationTime(id, newTime)
-                                .map(ResponseEntity::ok)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Reservation not found with ID: " + id));
+        public ResponseEntity<?> updateReservationTime(@PathVariable Long id, @RequestBody LocalTime newTime,
+                        @Parameter(description = "ETag ostatnio pobranej wersji rezerwacji; zapis tylko, jeśli nadal jest aktualna") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                return updated(id, reservationService.updateReservationTime(id, newTime,
+                                EntityTags.expectedReservationVersion(ifMatch, id)));
         }
 
         @Operation(summary = "Zaktualizuj datę rezerwacji")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Reservation date updated successfully", content = @Content(schema = @Schema(implementation = Reservation.class))),
                         @ApiResponse(responseCode = "404", description = "Reservation not found", content = @Content(schema = @Schema(example = "{\"error\":\"Reservation not found with ID: 1\",\"status\":404}"))),
+                        @ApiResponse(responseCode = "412", description = "Reservation was modified since the version given in If-Match", content = @Content(schema = @Schema(example = "{\"status\":412,\"error\":\"Reservation 1 has been modified since version 3\"}"))),
                         @ApiResponse(responseCode = "400", description = "Invalid date format", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid JSON\",\"message\":\"JSON parse error: Cannot deserialize value of type `java.time.LocalDate` from String \\\"2023-02-30\\\": Text '2023-02-30' could not be parsed: Invalid date 'FEBRUARY 30'\"}")))
         })
         @PutMapping("/{id}/date")
-        public ResponseEntity<?> updateReservationDate(@PathVariable Long id, @RequestBody LocalDate newDate) {
-                return reservationService.updateReservationDate(id, newDate)
-                                .map(ResponseEntity::ok)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Reservation not found with ID: " + id));
+        public ResponseEntity<?> updateReservationDate(@PathVariable Long id, @RequestBody LocalDate newDate,
+                        @Parameter(description = "ETag ostatnio pobranej wersji rezerwacji; zapis tylko, jeśli nadal jest aktualna") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                return updated(id, reservationService.updateReservationDate(id, newDate,
+                                EntityTags.expectedReservationVersion(ifMatch, id)));
         }
 
         @Operation(summary = "Zaktualizuj instruktora w rezerwacji")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Instructor updated successfully", content = @Content(schema = @Schema(implementation = Reservation.class))),
                         @ApiResponse(responseCode = "404", description = "Reservation not found", content = @Content(schema = @Schema(example = "{\"error\":\"Reservation not found with ID: 1\",\"status\":404}"))),
+                        @ApiResponse(responseCode = "412", description = "Reservation was modified since the version given in If-Match", content = @Content(schema = @Schema(example = "{\"status\":412,\"error\":\"Reservation 1 has been modified since version 3\"}"))),
                         @ApiResponse(responseCode = "400", description = "Invalid instructor ID format", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid JSON\",\"message\":\"JSON parse error: Cannot deserialize value of type `java.lang.Long` from String \\\"abc\\\": not a valid Long value\"}")))
         })
         @PutMapping("/{id}/instructor")
-        public ResponseEntity<?> updateInstructor(@PathVariable Long id, @RequestBody Long newInstructorId) {
-                return reservationService.updateInstructor(id, newInstructorId)
-                                .map(ResponseEntity::ok)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Reservation not found with ID: " + id));
+        public ResponseEntity<?> updateInstructor(@PathVariable Long id, @RequestBody Long newInstructorId,
+                        @Parameter(description = "ETag ostatnio pobranej wersji rezerwacji; zapis tylko, jeśli nadal jest aktualna") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                return updated(id, reservationService.updateInstructor(id, newInstructorId,
+                                EntityTags.expectedReservationVersion(ifMatch, id)));
         }
 
         @Operation(summary = "Zaktualizuj studenta w rezerwacji")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Student updated successfully", content = @Content(schema = @Schema(implementation = Reservation.class))),
                         @ApiResponse(responseCode = "404", description = "Reservation not found", content = @Content(schema = @Schema(example = "{\"error\":\"Reservation not found with ID: 1\",\"status\":404}"))),
+                        @ApiResponse(responseCode = "412", description = "Reservation was modified since the version given in If-Match", content = @Content(schema = @Schema(example = "{\"status\":412,\"error\":\"Reservation 1 has been modified since version 3\"}"))),
                         @ApiResponse(responseCode = "400", description = "Invalid student ID format", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid JSON\",\"message\":\"JSON parse error: Cannot deserialize value of type `java.lang.Long` from String \\\"abc\\\": not a valid Long value\"}")))
         })
         @PutMapping("/{id}/student")
-        public ResponseEntity<?> updateStudent(@PathVariable Long id, @RequestBody Long newStudentId) {
-                return reservationService.updateStudent(id, newStudentId)
-                                .map(ResponseEntity::ok)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Reservation not found with ID: " + id));
+        public ResponseEntity<?> updateStudent(@PathVariable Long id, @RequestBody Long newStudentId,
+                        @Parameter(description = "ETag ostatnio pobranej wersji rezerwacji; zapis tylko, jeśli nadal jest aktualna") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                return updated(id, reservationService.updateStudent(id, newStudentId,
+                                EntityTags.expectedReservationVersion(ifMatch, id)));
         }
 
         @Operation(summary = "Zaktualizuj miejsce rezerwacji")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Place updated successfully", content = @Content(schema = @Schema(implementation = Reservation.class))),
                         @ApiResponse(responseCode = "404", description = "Reservation not found", content = @Content(schema = @Schema(example = "{\"error\":\"Reservation not found with ID: 1\",\"status\":404}"))),
+                        @ApiResponse(responseCode = "412", description = "Reservation was modified since the version given in If-Match", content = @Content(schema = @Schema(example = "{\"status\":412,\"error\":\"Reservation 1 has been modified since version 3\"}"))),
                         @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(schema = @Schema(example = "{\"status\":400,\"error\":\"Invalid JSON\",\"message\":\"Required request body is missing\"}")))
         })
         @PutMapping("/{id}/place")
-        public ResponseEntity<?> updateReservationPlace(@PathVariable Long id, @RequestBody String newPlace) {
-                return reservationService.updateReservationPlace(id, newPlace)
-                                .map(ResponseEntity::ok)
-                                .orElseThrow(() -> new ResourceNotFoundException(
-                                                "Reservation not found with ID: " + id));
+        public ResponseEntity<?> updateReservationPlace(@PathVariable Long id, @RequestBody String newPlace,
+                        @Parameter(description = "ETag ostatnio pobranej wersji rezerwacji; zapis tylko, jeśli nadal jest aktualna") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                return updated(id, reservationService.updateReservationPlace(id, newPlace,
+                                EntityTags.expectedReservationVersion(ifMatch, id)));
         }
 
         @Operation(summary = "Usuń rezerwację")
@@ -188,4 +443,62 @@ public class ReservationController {
                 }
                 return ResponseEntity.ok(Map.of("message", "Reservation deleted successfully"));
         }
+
+        @Operation(summary = "Usuń wszystkie rezerwacje instruktora z zakresu dat")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reservations deleted in one statement", content = @Content(schema = @Schema(example = "{\"status\":200,\"deleted\":12}"))),
+                        @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content(schema = @Schema(example = "{\"error\":\"Start date must not be after end date\"}")))
+        })
+        @DeleteMapping("/bulk")
+        public ResponseEntity<?> deleteReservations(
+                        @Parameter(description = "ID instruktora", required = true) @RequestParam Long instructorId,
+                        @Parameter(description = "Data początkowa (yyyy-MM-dd)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                        @Parameter(description = "Data końcowa włącznie (yyyy-MM-dd)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+                int deleted = reservationService.deleteReservations(instructorId, from, to);
+                return ResponseEntity.ok(Map.of(
+                                "status", HttpStatus.OK.value(),
+                                "deleted", deleted));
+        }
+
+        @Operation(summary = "Przepisz rezerwacje z zakresu dat na innego instruktora")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reservations reassigned in one statement", content = @Content(schema = @Schema(example = "{\"status\":200,\"updated\":12}"))),
+                        @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content(schema = @Schema(example = "{\"error\":\"Start date must not be after end date\"}"))),
+                        @ApiResponse(responseCode = "409", description = "New instructor is already booked in one of the slots; nothing was changed", content = @Content(schema = @Schema(example = "{\"status\":409,\"error\":\"The instructor is already booked in this slot\"}"))),
+                        @ApiResponse(responseCode = "422", description = "Validation error", content = @Content(schema = @Schema(example = "{\"newInstructorId\":\"must not be null\"}")))
+        })
+        @PostMapping("/bulk/reassign")
+        public ResponseEntity<?> reassignReservations(@Valid @RequestBody BulkReassignRequest request) {
+                int updated = reservationService.reassignReservations(
+                                request.instructorId(), request.newInstructorId(), request.from(), request.to());
+                return ResponseEntity.ok(Map.of(
+                                "status", HttpStatus.OK.value(),
+                                "updated", updated));
+        }
+
+        @Operation(summary = "Przesuń rezerwacje z zakresu dat o dni i minuty")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reservations shifted in one statement", content = @Content(schema = @Schema(example = "{\"status\":200,\"updated\":12}"))),
+                        @ApiResponse(responseCode = "400", description = "Missing filter, empty shift or a lesson moved past midnight; nothing was changed", content = @Content(schema = @Schema(example = "{\"error\":\"Either instructorId or studentId must be given\"}"))),
+                        @ApiResponse(responseCode = "409", description = "A shifted lesson lands on a taken slot; nothing was changed", content = @Content(schema = @Schema(example = "{\"status\":409,\"error\":\"The student is already booked in this slot\"}"))),
+                        @ApiResponse(responseCode = "422", description = "Validation error", content = @Content(schema = @Schema(example = "{\"from\":\"must not be null\"}")))
+        })
+        @PostMapping("/bulk/shift")
+        public ResponseEntity<?> shiftReservations(@Valid @RequestBody BulkShiftRequest request) {
+                int updated = reservationService.shiftReservations(request.instructorId(), request.studentId(),
+                                request.from(), request.to(), request.days(), request.minutes());
+                return ResponseEntity.ok(Map.of(
+                                "status", HttpStatus.OK.value(),
+                                "updated", updated));
+        }
+
+        /**
+         * Response of a single-reservation update, tagged with the new version for the next If-Match.
+         */
+        private static ResponseEntity<Reservation> updated(Long id, Optional<Reservation> reservation) {
+                return reservation
+                                .map(current -> ResponseEntity.ok().eTag(EntityTags.of(current)).body(current))
+                                .orElseThrow(() -> new ResourceNotFoundException(
+                                                "Reservation not found with ID: " + id));
+        }
 }
@@ -0,0 +1,140 @@
+package org.example.skillwheel.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.example.skillwheel.dto.StatsBucket;
+import org.example.skillwheel.service.BookingStatistics;
+import org.example.skillwheel.service.BookingStatistics.Dimension;
+import org.example.skillwheel.service.BookingStatistics.Granularity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final BookingStatistics bookingStatistics;
+
+    @Autowired
+    public StatsController(BookingStatistics bookingStatistics) {
+        this.bookingStatistics = bookingStatistics;
+    }
+
+    @Operation(summary = "Pobierz liczbę jazd instruktora w dniach lub tygodniach")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Niepuste przedziały w podanym zakresie",
+                    content = @Content(schema = @Schema(example = "{\"status\":200,\"dimension\":\"instructor\",\"key\":\"5\",\"granularity\":\"week\",\"total\":14,\"buckets\":[{\"start\":\"2025-05-05\",\"lessons\":14}]}"))),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy zakres dat lub ziarnistość",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Granularity must be day or week\"}")))
+    })
+    @GetMapping("/instructors/{id}/lessons")
+    public ResponseEntity<?> getInstructorLessons(
+            @Parameter(description = "ID instruktora", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Pierwszy dzień (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ostatni dzień włącznie (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "day albo week")
+            @RequestParam(defaultValue = "day") String granularity) {
+        return lessons(Dimension.INSTRUCTOR, id.toString(), from, to, granularity);
+    }
+
+    @Operation(summary = "Pobierz liczbę jazd szkoły w dniach lub tygodniach")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Niepuste przedziały w podanym zakresie",
+                    content = @Content(schema = @Schema(example = "{\"status\":200,\"dimension\":\"school\",\"key\":\"AutoSzkoła ABC\",\"granularity\":\"day\",\"total\":3,\"buckets\":[{\"start\":\"2025-05-10\",\"lessons\":3}]}"))),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy zakres dat lub ziarnistość",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Start date must not be after end date\"}")))
+    })
+    @GetMapping("/schools/lessons")
+    public ResponseEntity<?> getSchoolLessons(
+            @Parameter(description = "Nazwa szkoły jazdy", required = true)
+            @RequestParam String name,
+            @Parameter(description = "Pierwszy dzień (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ostatni dzień włącznie (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "day albo week")
+            @RequestParam(defaultValue = "day") String granularity) {
+        return lessons(Dimension.SCHOOL, name, from, to, granularity);
+    }
+
+    @Operation(summary = "Pobierz liczbę jazd w danym miejscu w dniach lub tygodniach")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Niepuste przedziały w podanym zakresie",
+                    content = @Content(schema = @Schema(example = "{\"status\":200,\"dimension\":\"place\",\"key\":\"Plac Manewrowy\",\"granularity\":\"day\",\"total\":3,\"buckets\":[{\"start\":\"2025-05-10\",\"lessons\":3}]}"))),
+            @ApiResponse(responseCode = "400", description = "Nieprawidłowy zakres dat lub ziarnistość",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Start date must not be after end date\"}")))
+    })
+    @GetMapping("/places/lessons")
+    public ResponseEntity<?> getPlaceLessons(
+            @Parameter(description = "Miejsce spotkania", required = true)
+            @RequestParam String name,
+            @Parameter(description = "Pierwszy dzień (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Ostatni dzień włącznie (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "day albo week")
+            @RequestParam(defaultValue = "day") String granularity) {
+        return lessons(Dimension.PLACE, name, from, to, granularity);
+    }
+
+    @Operation(summary = "Przelicz statystyki od zera")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statystyki przeliczone",
+                    content = @Content(schema = @Schema(example = "{\"status\":200,\"lessons\":125000}"))),
+            @ApiResponse(responseCode = "409", description = "Przeliczanie już trwa",
+                    content = @Content(schema = @Schema(example = "{\"status\":409,\"error\":\"Statistics rebuild already in progress\"}")))
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        OptionalLong lessons = bookingStatistics.rebuild();
+        if (lessons.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                            "status", HttpStatus.CONFLICT.value(),
+                            "error", "Statistics rebuild already in progress"
+                    ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "lessons", lessons.getAsLong()
+        ));
+    }
+
+    private ResponseEntity<?> lessons(Dimension dimension, String key, LocalDate from, LocalDate to,
+                                      String granularity) {
+        Granularity parsed = parseGranularity(granularity);
+        List<StatsBucket> buckets = bookingStatistics.getLessonCounts(dimension, key, from, to, parsed);
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "dimension", dimension.name().toLowerCase(Locale.ROOT),
+                "key", key,
+                "granularity", parsed.name().toLowerCase(Locale.ROOT),
+                "total", buckets.stream().mapToLong(StatsBucket::lessons).sum(),
+                "buckets", buckets
+        ));
+    }
+
+    private static Granularity parseGranularity(String granularity) {
+        try {
+            return Granularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularity must be day or week");
+        }
+    }
+}
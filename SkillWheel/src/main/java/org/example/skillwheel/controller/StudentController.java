@@ -1,13 +1,13 @@
 package org.example.skillwheel.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validation;
-import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
+import org.example.skillwheel.dto.StudentSummary;
+import org.example.skillwheel.exception.ResourceNotFoundException;
+import org.example.skillwheel.exception.ServiceBusyException;
 import org.example.skillwheel.model.Student;
+import org.example.skillwheel.service.CalendarService;
+import org.example.skillwheel.service.EntityTags;
+import org.example.skillwheel.service.IdempotencyService;
 import org.example.skillwheel.service.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,15 +16,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -32,17 +39,27 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/students")
 public class StudentController {
 
+    private static final MediaType CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
     private final StudentService studentService;
+    private final CalendarService calendarService;
+    private final IdempotencyService idempotencyService;
+    private final JsonRequestBinder requestBinder;
 
     @Autowired
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, CalendarService calendarService,
+                             IdempotencyService idempotencyService, JsonRequestBinder requestBinder) {
         this.studentService = studentService;
+        this.calendarService = calendarService;
+        this.idempotencyService = idempotencyService;
+        this.requestBinder = requestBinder;
     }
 
     @Operation(summary = "Pobierz studenta po ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Student znaleziony",
                     content = @Content(schema = @Schema(implementation = Student.class))),
+            @ApiResponse(responseCode = "304", description = "Student nie zmienił się od podanego ETag"),
             @ApiResponse(responseCode = "404", description = "Student nie znaleziony",
                     content = @Content(schema = @Schema(
                             example = "{\"status\":404,\"error\":\"Student not found\"}"))),
@@ -53,12 +70,19 @@ public class StudentController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getStudentById(
             @Parameter(description = "ID studenta", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         return studentService.getStudentById(id)
-                .map(student -> ResponseEntity.ok(Map.of(
-                        "status", HttpStatus.OK.value(),
-                        "student", student
-                )))
+                .<ResponseEntity<?>>map(student -> {
+                    String etag = EntityTags.of(student);
+                    if (webRequest.checkNotModified(etag)) {
+                        return null;
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(Map.of(
+                            "status", HttpStatus.OK.value(),
+                            "student", student
+                    ));
+                })
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of(
                                 "status", HttpStatus.NOT_FOUND.value(),
@@ -66,6 +90,69 @@ public class StudentController {
                         )));
     }
 
+    @Operation(summary = "Pobierz kalendarz studenta (iCalendar)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rezerwacje jako zdarzenia VEVENT, zapisywane w miarę odczytu z bazy",
+                    content = @Content(mediaType = "text/calendar")),
+            @ApiResponse(responseCode = "304", description = "Kalendarz nie zmienił się od podanego ETag"),
+            @ApiResponse(responseCode = "404", description = "Student nie znaleziony",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Student not found with ID: 1\",\"status\":404}")))
+    })
+    @GetMapping("/{id}/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getStudentCalendar(
+            @Parameter(description = "ID studenta", required = true)
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        if (studentService.getStudentById(id).isEmpty()) {
+            throw new ResourceNotFoundException("Student not found with ID: " + id);
+        }
+        String etag = calendarService.studentCalendarTag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(CALENDAR)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(outputStream -> calendarService.writeStudentCalendar(id, outputStream));
+    }
+
+    @Operation(summary = "Pobierz skróconą listę studentów (bez haseł)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista studentów",
+                    content = @Content(schema = @Schema(
+                            example = "{\"status\":200,\"students\":[{\"id\":1,\"name\":\"Jan\",\"surname\":\"Kowalski\",\"email\":\"jan.kowalski@example.com\",\"nameOfSchool\":\"Szkoła Jazdy AutoMaster\"}]}")))
+    })
+    @GetMapping("/summary")
+    public ResponseEntity<?> getStudentSummaries() {
+        List<StudentSummary> students = studentService.getStudentSummaries();
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "students", students
+        ));
+    }
+
+    @Operation(summary = "Wyszukaj studentów po imieniu, nazwisku, emailu lub szkole")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Najlepiej dopasowani studenci, od najtrafniejszego",
+                    content = @Content(schema = @Schema(
+                            example = "{\"status\":200,\"students\":[{\"id\":1,\"name\":\"Jan\",\"surname\":\"Kowalski\",\"email\":\"jan.kowalski@example.com\",\"nameOfSchool\":\"Szkoła Jazdy AutoMaster\"}]}"))),
+            @ApiResponse(responseCode = "400", description = "Pusta fraza lub nieprawidłowy limit",
+                    content = @Content(schema = @Schema(example = "{\"error\":\"Search query cannot be empty\"}")))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchStudents(
+            @Parameter(description = "Szukana fraza; dopasowuje początki słów i toleruje literówki", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "Maksymalna liczba wyników (1-100)")
+            @RequestParam(defaultValue = "20") int limit) {
+        List<StudentSummary> students = studentService.searchStudents(query, limit);
+        return ResponseEntity.ok(Map.of(
+                "status", HttpStatus.OK.value(),
+                "students", students
+        ));
+    }
+
     @Operation(summary = "Pobierz wszystkich studentów")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista studentów",
@@ -92,6 +179,9 @@ public class StudentController {
             @ApiResponse(responseCode = "400", description = "Błąd parsowania JSON",
                     content = @Content(schema = @Schema(
                             example = "{\"status\":400,\"error\":\"Invalid JSON format\"}"))),
+            @ApiResponse(responseCode = "409", description = "Student z tym emailem już istnieje",
+                    content = @Content(schema = @Schema(
+                            example = "{\"status\":409,\"error\":\"Student with this email already exists\"}"))),
             @ApiResponse(responseCode = "422", description = "Błąd walidacji danych",
                     content = @Content(schema = @Schema(
                             example = "{\"status\":422,\"errors\":{\"name\":\"Name cannot be empty\",\"email\":\"Invalid email format\"}}"))),
@@ -101,43 +191,32 @@ public class StudentController {
     })
     @PostMapping
     public ResponseEntity<?> addStudent(
-            @Parameter(description = "Dane studenta w formacie JSON", required = true)
-            @RequestBody String studentJson) {
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Dane studenta w formacie JSON", required = true,
+                    content = @Content(schema = @Schema(implementation = Student.class)))
+            InputStream body,
+            @Parameter(description = "Klucz idempotencji; ponowienie z tym samym kluczem zwraca zapisaną odpowiedź")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
-        if (studentJson == null || studentJson.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(
-                    Map.of("status", HttpStatus.BAD_REQUEST.value(),
-                            "error", "Request body cannot be empty"));
+        JsonRequestBinder.Result<Student> bound = requestBinder.bind(body, Student.class);
+        if (bound.error() != null) {
+            return bound.error();
         }
+        Student student = bound.value();
+        return idempotencyService.execute("students", idempotencyKey, student, () -> createStudent(student));
+    }
 
+    private ResponseEntity<?> createStudent(Student student) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            Student student = objectMapper.readValue(studentJson, Student.class);
-
-            ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-            Validator validator = factory.getValidator();
-            Set<ConstraintViolation<Student>> violations = validator.validate(student);
-
-            if (!violations.isEmpty()) {
-                Map<String, String> errors = new HashMap<>();
-                for (ConstraintViolation<Student> violation : violations) {
-                    errors.put(violation.getPropertyPath().toString(), violation.getMessage());
-                }
-                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
-                        .body(Map.of(
-                                "status", HttpStatus.UNPROCESSABLE_ENTITY.value(),
-                                "errors", errors
-                        ));
-            }
-
-            Student savedStudent = studentService.addStudent(student);
-            return ResponseEntity.status(HttpStatus.CREATED).body(
-                    Map.of("status", HttpStatus.CREATED.value(),
-                            "student", savedStudent));
-        } catch (JsonProcessingException e) {
-            return ResponseEntity.badRequest().body(
-                    Map.of("status", HttpStatus.BAD_REQUEST.value(),
-                            "error", "Invalid JSON format"));
+            return studentService.addStudent(student)
+                    .<ResponseEntity<?>>map(savedStudent -> ResponseEntity.status(HttpStatus.CREATED).body(
+                            Map.of("status", HttpStatus.CREATED.value(),
+                                    "student", savedStudent)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(
+                            Map.of("status", HttpStatus.CONFLICT.value(),
+                                    "error", "Student with this email already exists")));
+        } catch (ServiceBusyException e) {
+            // Answered with 503 by GlobalExceptionHandler rather than as an unexpected error.
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(
                     Map.of("status", HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -153,6 +232,9 @@ public class StudentController {
             @ApiResponse(responseCode = "404", description = "Student nie znaleziony",
                     content = @Content(schema = @Schema(
                             example = "{\"status\":404,\"error\":\"Student not found\"}"))),
+            @ApiResponse(responseCode = "412", description = "Student został zmieniony od wersji podanej w If-Match",
+                    content = @Content(schema = @Schema(
+                            example = "{\"status\":412,\"error\":\"Student 1 has been modified since version 3\"}"))),
             @ApiResponse(responseCode = "422", description = "Błąd walidacji danych",
                     content = @Content(schema = @Schema(
                             example = "{\"status\":422,\"errors\":{\"name\":\"Name cannot be empty\",\"email\":\"Invalid email format\"}}"))),
@@ -167,14 +249,17 @@ public class StudentController {
             @Parameter(description = "Nowe dane studenta", required = true,
                     content = @Content(schema = @Schema(implementation = Student.class)))
             @Valid @RequestBody Student updatedStudent,
-            BindingResult bindingResult) {
+            BindingResult bindingResult,
+            @Parameter(description = "ETag ostatnio pobranej wersji studenta; zapis tylko, jeśli nadal jest aktualna")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         if (bindingResult.hasErrors()) {
             return buildValidationErrorResponse(bindingResult);
         }
 
-        return studentService.updateStudent(id, updatedStudent)
-                .map(student -> ResponseEntity.ok(Map.of(
+        Long expectedVersion = EntityTags.expectedStudentVersion(ifMatch, id);
+        return studentService.updateStudent(id, updatedStudent, expectedVersion)
+                .map(student -> ResponseEntity.ok().eTag(EntityTags.of(student)).body(Map.of(
                         "status", HttpStatus.OK.value(),
                         "student", student
                 )))
@@ -0,0 +1,20 @@
+package org.example.skillwheel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Stan asynchronicznego importu rezerwacji")
+public record BatchJobStatus(
+        @Schema(description = "ID zadania") UUID id,
+        @Schema(description = "PENDING, RUNNING, COMPLETED albo FAILED", example = "RUNNING") String state,
+        @Schema(description = "Liczba rezerwacji w paczce", example = "5000") int total,
+        @Schema(description = "Liczba już zapisanych rezerwacji", example = "1500") int created,
+        @Schema(description = "Powód niepowodzenia, jeśli zadanie się nie powiodło") String error,
+        @Schema(description = "Czas przyjęcia zadania") String submittedAt) {
+
+    public static BatchJobStatus of(UUID id, String state, int total, int created, String error, Instant submittedAt) {
+        return new BatchJobStatus(id, state, total, created, error, submittedAt.toString());
+    }
+}
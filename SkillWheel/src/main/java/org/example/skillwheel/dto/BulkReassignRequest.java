@@ -0,0 +1,17 @@
+package org.example.skillwheel.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+@Schema(description = "Przepisanie wszystkich rezerwacji instruktora z podanego zakresu dat na innego instruktora")
+public record BulkReassignRequest(
+        @NotNull @Schema(example = "1") Long instructorId,
+        @NotNull @Schema(example = "2") Long newInstructorId,
+        @NotNull @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+        @Schema(example = "2030-05-10") LocalDate from,
+        @NotNull @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+        @Schema(example = "2030-05-12") LocalDate to) {
+}
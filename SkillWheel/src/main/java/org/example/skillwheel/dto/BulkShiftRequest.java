@@ -0,0 +1,19 @@
+package org.example.skillwheel.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+@Schema(description = "Przesunięcie rezerwacji z podanego zakresu dat o dni i minuty, dla instruktora i/lub kursanta")
+public record BulkShiftRequest(
+        @Schema(example = "1") Long instructorId,
+        @Schema(example = "3") Long studentId,
+        @NotNull @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+        @Schema(example = "2030-05-10") LocalDate from,
+        @NotNull @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+        @Schema(example = "2030-05-12") LocalDate to,
+        @Schema(description = "Liczba dni przesunięcia, może być ujemna", example = "7") int days,
+        @Schema(description = "Liczba minut przesunięcia, może być ujemna", example = "0") int minutes) {
+}
@@ -0,0 +1,13 @@
+package org.example.skillwheel.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Wolne przedziały instruktora w danym dniu")
+public record DayAvailability(
+        @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING) LocalDate date,
+        List<TimeRange> free) {
+}
@@ -0,0 +1,12 @@
+package org.example.skillwheel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Skrócone dane instruktora do list, bez hasła")
+public record InstructorSummary(
+        @Schema(description = "ID instruktora", example = "1") Long id,
+        @Schema(description = "Imię instruktora", example = "Jan") String name,
+        @Schema(description = "Nazwisko instruktora", example = "Kowalski") String surname,
+        @Schema(description = "Adres e-mail instruktora", example = "jan.kowalski@example.com") String email,
+        @Schema(description = "Nazwa szkoły jazdy", example = "AutoSzkoła ABC") String nameOfSchool) {
+}
@@ -0,0 +1,24 @@
+package org.example.skillwheel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+
+@Schema(description = "Zmiana rezerwacji wysyłana subskrybentom strumienia SSE")
+public record ReservationStreamEvent(
+        @Schema(description = "Numer kolejny zdarzenia, używany jako Last-Event-ID", example = "1024") long sequence,
+        @Schema(description = "CREATED, UPDATED albo DELETED", example = "UPDATED") String type,
+        @Schema(description = "ID rezerwacji", example = "42") Long reservationId,
+        @Schema(description = "Rezerwacja przed zmianą, brak dla CREATED") Reservation previous,
+        @Schema(description = "Rezerwacja po zmianie, brak dla DELETED") Reservation current) {
+
+    public static ReservationStreamEvent of(long sequence, ReservationChangedEvent event) {
+        return new ReservationStreamEvent(sequence, event.type().name(), event.reservationId(),
+                event.previous(), event.current());
+    }
+
+    public boolean concernsInstructor(Long instructorId) {
+        return (previous != null && instructorId.equals(previous.getInstructorID()))
+                || (current != null && instructorId.equals(current.getInstructorID()));
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.skillwheel.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Liczba jazd w jednym dniu lub tygodniu")
+public record StatsBucket(
+        @JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+        @Schema(description = "Pierwszy dzień przedziału (poniedziałek dla tygodni)", example = "2025-05-05") LocalDate start,
+        @Schema(example = "12") long lessons) {
+}
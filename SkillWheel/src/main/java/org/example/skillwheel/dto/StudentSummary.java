@@ -0,0 +1,12 @@
+package org.example.skillwheel.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Skrócone dane studenta do list, bez hasła")
+public record StudentSummary(
+        @Schema(description = "ID studenta", example = "1") Long id,
+        @Schema(description = "Imię studenta", example = "Jan") String name,
+        @Schema(description = "Nazwisko studenta", example = "Kowalski") String surname,
+        @Schema(description = "Adres e-mail studenta", example = "jan.kowalski@example.com") String email,
+        @Schema(description = "Nazwa szkoły", example = "Szkoła Jazdy AutoMaster") String nameOfSchool) {
+}
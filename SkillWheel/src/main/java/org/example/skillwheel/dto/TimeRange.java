@@ -0,0 +1,14 @@
+package org.example.skillwheel.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalTime;
+
+@Schema(description = "Przedział czasu w ciągu dnia, koniec wyłącznie")
+public record TimeRange(
+        @JsonFormat(pattern = "HH:mm", shape = JsonFormat.Shape.STRING)
+        @Schema(example = "08:00") LocalTime from,
+        @JsonFormat(pattern = "HH:mm", shape = JsonFormat.Shape.STRING)
+        @Schema(example = "16:00") LocalTime to) {
+}
@@ -0,0 +1,34 @@
+package org.example.skillwheel.event;
+
+import org.example.skillwheel.model.Reservation;
+
+/**
+ * Published by {@code ReservationService} after every reservation write. Listeners that keep
+ * derived state should use {@code @TransactionalEventListener(fallbackExecution = true)} so they
+ * only see committed changes.
+ *
+ * @param previous snapshot before the change, {@code null} for {@link ChangeType#CREATED}
+ * @param current  snapshot after the change, {@code null} for {@link ChangeType#DELETED}
+ */
+public record ReservationChangedEvent(ChangeType type, Reservation previous, Reservation current) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ReservationChangedEvent created(Reservation current) {
+        return new ReservationChangedEvent(ChangeType.CREATED, null, new Reservation(current));
+    }
+
+    public static ReservationChangedEvent updated(Reservation previous, Reservation current) {
+        return new ReservationChangedEvent(ChangeType.UPDATED, previous, new Reservation(current));
+    }
+
+    public static ReservationChangedEvent deleted(Reservation previous) {
+        return new ReservationChangedEvent(ChangeType.DELETED, previous, null);
+    }
+
+    public Long reservationId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.skillwheel.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.skillwheel.exception;
+
+public class ReservationConflictException extends RuntimeException {
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
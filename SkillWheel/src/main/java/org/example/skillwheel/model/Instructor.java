@@ -1,5 +1,6 @@
 package org.example.skillwheel.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -16,6 +17,11 @@ public class Instructor {
     @Schema(description = "Unikalny identyfikator instruktora", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Wersja instruktora, zwiększana przy każdej zmianie", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Name is mandatory")
     @Size(min = 2, max = 50, message = "Name must be between {min} and {max} characters")
     @Schema(description = "Imię instruktora", example = "Jan", required = true)
@@ -67,6 +73,14 @@ public class Instructor {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -1,8 +1,10 @@
 package org.example.skillwheel.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.example.skillwheel.repository.PlaceConverter;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,10 +18,16 @@ import java.time.LocalTime;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
     @Schema(description = "Unikalny identyfikator rezerwacji", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Wersja rezerwacji, zwiększana przy każdej zmianie", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     @Column(name = "is_reserved", nullable = false)
     @Schema(description = "Czy termin został zarezerwowany", example = "true", required = true)
     @NotNull(message = "Reservation status is required")
@@ -47,7 +55,8 @@ public class Reservation {
     @NotNull(message = "Reservation time is required")
     private LocalTime reservationTime;
 
-    @Column(name = "reservation_place", nullable = false)
+    @Column(name = "place_id", nullable = false)
+    @Convert(converter = PlaceConverter.class)
     @Schema(description = "Miejsce spotkania", example = "Plac Manewrowy", required = true)
     @NotBlank(message = "Reservation place is required")
     private String reservationPlace;
@@ -66,6 +75,12 @@ public class Reservation {
         this.reservationPlace = reservationPlace;
     }
 
+    public Reservation(Reservation other) {
+        this(other.id, other.isReserved, other.studentID, other.instructorID, other.reservationDate,
+                other.reservationTime, other.reservationPlace);
+        this.version = other.version;
+    }
+
     // Getters and Setters
 
     public String getReservationPlace() {
@@ -84,6 +99,14 @@ public class Reservation {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Boolean getIsReserved() {
         return isReserved;
     }
@@ -1,5 +1,6 @@
 package org.example.skillwheel.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -16,6 +17,11 @@ public class Student {
     @Schema(description = "Unikalny identyfikator studenta", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Wersja studenta, zwiększana przy każdej zmianie", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Name is mandatory")
     @Size(min = 2, max = 50, message = "Name must be between 2 and 50 characters")
     @Schema(description = "Imię studenta", example = "Jan", required = true)
@@ -66,6 +72,14 @@ public class Student {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
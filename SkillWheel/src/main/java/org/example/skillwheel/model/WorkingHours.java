@@ -0,0 +1,47 @@
+package org.example.skillwheel.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Entity
+@Table(name = "instructor_working_hours")
+@Schema(description = "Tygodniowe godziny pracy instruktora zapisane jako maski bitowe slotów")
+public class WorkingHours {
+
+    @Id
+    @Column(name = "instructor_id")
+    private Long instructorId;
+
+    /**
+     * Seven masks, Monday first; bit {@code n} set means the n-th 30-minute slot of the day is worked.
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "day_masks", nullable = false)
+    private long[] dayMasks;
+
+    public WorkingHours() {
+    }
+
+    public WorkingHours(Long instructorId, long[] dayMasks) {
+        this.instructorId = instructorId;
+        this.dayMasks = dayMasks;
+    }
+
+    public Long getInstructorId() {
+        return instructorId;
+    }
+
+    public void setInstructorId(Long instructorId) {
+        this.instructorId = instructorId;
+    }
+
+    public long[] getDayMasks() {
+        return dayMasks;
+    }
+
+    public void setDayMasks(long[] dayMasks) {
+        this.dayMasks = dayMasks;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.service.PlaceDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates over live and archived reservations used to rebuild the booking statistics.
+ */
+@Repository
+public class BookingStatisticsRepository {
+
+    /**
+     * Only the archive partition of the given year is read; the live table is filtered by date.
+     */
+    private static final String LESSON_COUNTS = """
+            SELECT instructor_id, reservation_date, place_id, count(*) AS lessons
+            FROM (
+                SELECT instructor_id, reservation_date, place_id FROM reservations
+                WHERE reservation_date >= ? AND reservation_date < ?
+                UNION ALL
+                SELECT instructor_id, reservation_date, place_id FROM reservations_archive
+                WHERE reservation_date >= ? AND reservation_date < ?
+            ) lessons
+            GROUP BY instructor_id, reservation_date, place_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlaceDictionary placeDictionary;
+
+    @Autowired
+    public BookingStatisticsRepository(JdbcTemplate jdbcTemplate, PlaceDictionary placeDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.placeDictionary = placeDictionary;
+    }
+
+    /**
+     * Years that have at least one live or archived reservation, ascending.
+     */
+    public List<Integer> findYears() {
+        return jdbcTemplate.queryForList("""
+                SELECT DISTINCT EXTRACT(YEAR FROM reservation_date)::INT AS year FROM reservations
+                UNION
+                SELECT DISTINCT EXTRACT(YEAR FROM reservation_date)::INT FROM reservations_archive
+                ORDER BY year""", Integer.class);
+    }
+
+    /**
+     * Streams the lesson counts of one calendar year, grouped by instructor, day and place.
+     */
+    public void forEachLessonCount(int year, Consumer<LessonCount> consumer) {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = from.plusYears(1);
+        jdbcTemplate.query(LESSON_COUNTS, rs -> {
+            consumer.accept(new LessonCount(rs.getLong("instructor_id"),
+                    rs.getObject("reservation_date", LocalDate.class),
+                    placeDictionary.nameOf(rs.getInt("place_id")),
+                    rs.getLong("lessons")));
+        }, from, to, from, to);
+    }
+}
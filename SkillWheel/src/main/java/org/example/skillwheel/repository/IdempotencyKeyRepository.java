@@ -0,0 +1,76 @@
+package org.example.skillwheel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Access to {@code idempotency_keys}, the stored responses of requests sent with an
+ * {@code Idempotency-Key} header.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    /**
+     * A claimed key; {@code status} and {@code body} are {@code null} while the request is still running,
+     * or if it never stored its response.
+     *
+     * @param age time since the key was claimed, by the database clock
+     */
+    public record StoredKey(String requestHash, Integer status, String body, Duration age) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claims a key for a request about to run.
+     *
+     * @return {@code false} if the key has already been claimed
+     */
+    public boolean claim(String scope, String key, String requestHash) {
+        return jdbcTemplate.update("""
+                INSERT INTO idempotency_keys (scope, idempotency_key, request_hash) VALUES (?, ?, ?)
+                ON CONFLICT (scope, idempotency_key) DO NOTHING""", scope, key, requestHash) == 1;
+    }
+
+    public Optional<StoredKey> find(String scope, String key) {
+        return jdbcTemplate.query("""
+                        SELECT request_hash, status, body, EXTRACT(EPOCH FROM now() - created_at)::BIGINT AS age
+                        FROM idempotency_keys
+                        WHERE scope = ? AND idempotency_key = ?""",
+                (rs, rowNum) -> new StoredKey(rs.getString("request_hash"),
+                        (Integer) rs.getObject("status"), rs.getString("body"), Duration.ofSeconds(rs.getLong("age"))),
+                scope, key).stream().findFirst();
+    }
+
+    public void complete(String scope, String key, int status, String body) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, body = ? WHERE scope = ? AND idempotency_key = ?",
+                status, body, scope, key);
+    }
+
+    /**
+     * Releases a claim whose request failed without writing anything, so the key can be used again.
+     */
+    public void release(String scope, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE scope = ? AND idempotency_key = ? AND status IS NULL",
+                scope, key);
+    }
+
+    /**
+     * Ages are compared with the database clock, which set {@code created_at}.
+     *
+     * @return number of keys removed
+     */
+    public int deleteOlderThan(Duration age) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < now() - make_interval(secs => ?)",
+                age.toSeconds());
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.dto.InstructorSummary;
+import org.example.skillwheel.model.Instructor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC operations on instructors that do not fit the JPA repository model.
+ */
+public interface InstructorJdbcRepository {
+
+    /**
+     * Inserts the instructor in a single {@code INSERT ... ON CONFLICT DO NOTHING} against the unique
+     * email index, so concurrent signups with the same email cannot both succeed.
+     *
+     * @return the new ID, or empty if a instructor with this email already exists
+     */
+    Optional<Long> insertIfEmailFree(Instructor instructor);
+
+    /**
+     * Streams every instructor email off a forward-only cursor. Must be called inside a transaction so
+     * the driver fetches rows in chunks.
+     */
+    void forEachEmail(Consumer<String> consumer);
+
+    /**
+     * Ranked prefix and typo-tolerant search over name, surname, email and school. Must be called
+     * inside a transaction.
+     *
+     * @throws IllegalArgumentException if the query is blank or the limit is not between 1 and 100
+     */
+    List<InstructorSummary> searchSummaries(String query, int limit, double similarityThreshold);
+}
@@ -1,10 +1,18 @@
 package org.example.skillwheel.repository;
 
+import org.example.skillwheel.dto.InstructorSummary;
 import org.example.skillwheel.model.Instructor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface InstructorRepository extends JpaRepository<Instructor, Long> {
+public interface InstructorRepository extends JpaRepository<Instructor, Long>, InstructorJdbcRepository {
     boolean existsByEmail(String email);
+
+    @Query("select new org.example.skillwheel.dto.InstructorSummary(i.id, i.name, i.surname, i.email, i.nameOfSchool) "
+            + "from Instructor i order by i.id")
+    List<InstructorSummary> findAllSummaries();
 }
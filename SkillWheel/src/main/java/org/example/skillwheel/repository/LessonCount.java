@@ -0,0 +1,9 @@
+package org.example.skillwheel.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Number of lessons an instructor gives at one place on one day.
+ */
+public record LessonCount(Long instructorId, LocalDate date, String place, long lessons) {
+}
@@ -0,0 +1,55 @@
+package org.example.skillwheel.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ranked search over the {@code person_search_text} trigram index shared by the students and
+ * instructors tables (see V9 migration).
+ * <p>
+ * A person matches when the query occurs anywhere in their name, surname, email or school, or when it
+ * is similar enough to a part of it to survive a typo. Matches where the query starts a word come
+ * first, then the closest ones by word similarity. Queries shorter than three characters contain no
+ * whole trigram and are answered without the index.
+ */
+final class PersonSearch {
+
+    static final int MAX_LIMIT = 100;
+
+    private PersonSearch() {
+    }
+
+    /**
+     * Must be called inside a transaction; the similarity threshold is set for that transaction only.
+     *
+     * @param table               {@code students} or {@code instructors}
+     * @param similarityThreshold minimum word similarity (0-1) of a typo-tolerant match
+     * @throws IllegalArgumentException if the query is blank or the limit is out of range
+     */
+    static <T> List<T> search(JdbcTemplate jdbcTemplate, String table, String query, int limit,
+                              double similarityThreshold, RowMapper<T> rowMapper) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        String escaped = normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, String.valueOf(similarityThreshold));
+        return jdbcTemplate.query("""
+                        SELECT id, name, surname, email, name_of_school
+                        FROM (SELECT id, name, surname, email, name_of_school,
+                                     person_search_text(name, surname, email, name_of_school) AS search_text
+                              FROM %s) people
+                        WHERE ? <%% search_text OR search_text LIKE ?
+                        ORDER BY ' ' || search_text LIKE ? DESC, word_similarity(?, search_text) DESC, surname, name, id
+                        LIMIT ?""".formatted(table), rowMapper,
+                normalized, "%" + escaped + "%", "% " + escaped + "%", normalized, limit);
+    }
+}
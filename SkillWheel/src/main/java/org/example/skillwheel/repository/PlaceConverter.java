@@ -0,0 +1,33 @@
+package org.example.skillwheel.repository;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores a reservation's place name as the ID of its {@code places} row. Instantiated by Hibernate
+ * through the Spring bean container, so the dictionary is injected.
+ */
+@Component
+@Converter
+public class PlaceConverter implements AttributeConverter<String, Integer> {
+
+    private final PlaceDictionary placeDictionary;
+
+    @Autowired
+    public PlaceConverter(PlaceDictionary placeDictionary) {
+        this.placeDictionary = placeDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        return name == null ? null : placeDictionary.idOf(name);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : placeDictionary.nameOf(id);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.skillwheel.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Access to {@code places}, the dictionary of meeting place names referenced by reservations.
+ */
+@Repository
+public class PlaceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PlaceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * All places keyed by ID.
+     */
+    public Map<Integer, String> findAll() {
+        Map<Integer, String> places = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM places", rs -> {
+            places.put(rs.getInt("id"), rs.getString("name"));
+        });
+        return places;
+    }
+
+    /**
+     * Returns the ID of the place with this name, inserting it first if it does not exist yet.
+     */
+    public int findOrCreate(String name) {
+        List<Integer> inserted = jdbcTemplate.queryForList(
+                "INSERT INTO places (name) VALUES (?) ON CONFLICT (name) DO NOTHING RETURNING id", Integer.class, name);
+        if (!inserted.isEmpty()) {
+            return inserted.get(0);
+        }
+        // Inserted concurrently; the statement's snapshot may predate that commit, so look it up anew.
+        return jdbcTemplate.queryForObject("SELECT id FROM places WHERE name = ?", Integer.class, name);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Access to {@code reservations_archive}, the year-partitioned table holding past reservations.
+ */
+@Repository
+public class ReservationArchiveRepository {
+
+    private static final String ARCHIVE_BATCH = """
+            WITH moved AS (
+                DELETE FROM reservations
+                WHERE id IN (
+                    SELECT id FROM reservations
+                    WHERE reservation_date < ?
+                    ORDER BY reservation_date, id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, is_reserved, student_id, instructor_id, reservation_date, reservation_time,
+                    place_id, version
+            )
+            INSERT INTO reservations_archive
+                (id, is_reserved, student_id, instructor_id, reservation_date, reservation_time, place_id, version)
+            SELECT id, is_reserved, student_id, instructor_id, reservation_date, reservation_time, place_id, version
+            FROM moved
+            RETURNING id, is_reserved, student_id, instructor_id, reservation_date, reservation_time, place_id,
+                version""";
+
+    private static final String SELECT_ARCHIVED = """
+            SELECT id, is_reserved, student_id, instructor_id, reservation_date, reservation_time, place_id,
+                version
+            FROM reservations_archive""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationRowMapper rowMapper;
+
+    @Autowired
+    public ReservationArchiveRepository(JdbcTemplate jdbcTemplate, PlaceDictionary placeDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowMapper = new ReservationRowMapper(placeDictionary);
+    }
+
+    /**
+     * Years of live reservations dated before {@code before}, i.e. the partitions the next run needs.
+     */
+    public List<Integer> findArchivableYears(LocalDate before) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT EXTRACT(YEAR FROM reservation_date)::INT FROM reservations WHERE reservation_date < ?",
+                Integer.class, before);
+    }
+
+    public void createPartition(int year) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS reservations_archive_" + year
+                + " PARTITION OF reservations_archive FOR VALUES FROM ('" + LocalDate.of(year, 1, 1)
+                + "') TO ('" + LocalDate.of(year + 1, 1, 1) + "')");
+    }
+
+    /**
+     * Moves up to {@code limit} reservations dated before {@code before} from the live table into the
+     * archive in one statement. Rows locked by concurrent writers are skipped until the next batch.
+     *
+     * @return the moved reservations
+     */
+    public List<Reservation> archiveBatch(LocalDate before, int limit) {
+        return jdbcTemplate.query(ARCHIVE_BATCH, rowMapper, before, limit);
+    }
+
+    public List<Reservation> findByStudentId(Long studentId) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + " WHERE student_id = ? ORDER BY reservation_date, reservation_time",
+                rowMapper, studentId);
+    }
+
+    public List<Reservation> findByInstructorId(Long instructorId) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + " WHERE instructor_id = ? ORDER BY reservation_date, reservation_time",
+                rowMapper, instructorId);
+    }
+}
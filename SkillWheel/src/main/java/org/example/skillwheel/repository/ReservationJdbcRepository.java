@@ -0,0 +1,125 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.model.Reservation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC operations on reservations that do not fit the JPA repository model.
+ */
+public interface ReservationJdbcRepository {
+
+    /**
+     * Streams every reservation in ID order straight off a forward-only cursor.
+     * Must be called inside a transaction so the driver fetches rows in chunks.
+     */
+    void forEachReservation(Consumer<Reservation> consumer);
+
+    /**
+     * Streams reservations dated on or after {@code from}, with the same cursor semantics
+     * as {@link #forEachReservation(Consumer)}.
+     */
+    void forEachReservationFrom(LocalDate from, Consumer<Reservation> consumer);
+
+    /**
+     * Streams reservations starting within {@code [from, to)} in chronological order, with the same
+     * cursor semantics as {@link #forEachReservation(Consumer)}.
+     */
+    void forEachReservationStartingBetween(LocalDateTime from, LocalDateTime to, Consumer<Reservation> consumer);
+
+    /**
+     * Streams an instructor's live reservations in chronological order, with the same cursor
+     * semantics as {@link #forEachReservation(Consumer)}.
+     */
+    void forEachInstructorReservation(Long instructorId, Consumer<Reservation> consumer);
+
+    /**
+     * Streams a student's live reservations in chronological order, with the same cursor
+     * semantics as {@link #forEachReservation(Consumer)}.
+     */
+    void forEachStudentReservation(Long studentId, Consumer<Reservation> consumer);
+
+    /**
+     * Number of changes to an instructor's reservations, bumped by every transaction that changes any
+     * of them as it commits (see {@code ReservationOwnerVersions}). Zero before the first change.
+     */
+    long instructorReservationsVersion(Long instructorId);
+
+    /**
+     * Student counterpart of {@link #instructorReservationsVersion(Long)}.
+     */
+    long studentReservationsVersion(Long studentId);
+
+    /**
+     * Adds one to the change counters of the given instructors and students, creating missing ones.
+     * Counters are locked in key order.
+     */
+    void bumpOwnerVersions(Collection<Long> instructorIds, Collection<Long> studentIds);
+
+    /**
+     * Instructor of one reservation, read without loading the entity.
+     */
+    Optional<Long> findInstructorId(Long id);
+
+    /**
+     * Overwrites the given columns of one reservation in a single {@code UPDATE ... RETURNING}
+     * statement, without loading the entity first. The row is locked by the statement itself, so
+     * the returned previous state is the one actually replaced.
+     *
+     * With an expected version the row is only updated while it still has that version, also when
+     * it was changed by a transaction this statement waited for.
+     *
+     * @param columns new values keyed by column name, in the order they should appear in the statement
+     * @param expectedVersion version the row must have, or {@code null} to update it unconditionally
+     * @return the row before and after the update, or empty if no reservation has this ID and version
+     */
+    Optional<ReservationUpdate> updateColumns(Long id, Map<String, Object> columns, Long expectedVersion);
+
+    /**
+     * Deletes one reservation with {@code DELETE ... RETURNING}.
+     *
+     * @return the deleted row, or empty if no reservation has this ID
+     */
+    Optional<Reservation> deleteReturning(Long id);
+
+    /**
+     * Deletes all reservations of an instructor dated within {@code [from, to]} in one statement.
+     *
+     * @return the deleted rows
+     */
+    List<Reservation> deleteByInstructorBetween(Long instructorId, LocalDate from, LocalDate to);
+
+    /**
+     * Moves all reservations of an instructor dated within {@code [from, to]} to another instructor
+     * in one statement.
+     */
+    List<ReservationUpdate> reassignInstructor(Long instructorId, Long newInstructorId, LocalDate from, LocalDate to);
+
+    /**
+     * Shifts reservations dated within {@code [from, to]}, optionally narrowed to one instructor and/or
+     * student, by whole days and minutes in one statement. Times wrap around midnight; callers must
+     * reject such results.
+     */
+    List<ReservationUpdate> shift(Long instructorId, Long studentId, LocalDate from, LocalDate to, int days, int minutes);
+
+    /**
+     * Postpones the slot exclusion checks of the current transaction until
+     * {@link #checkSlotConstraints()} or commit, so a bulk move is checked against its end result
+     * instead of row by row. Must be called inside a transaction.
+     */
+    void deferSlotConstraints();
+
+    /**
+     * Runs the slot exclusion checks postponed by {@link #deferSlotConstraints()} now and checks every
+     * later statement of the transaction immediately again.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if a deferred check fails
+     */
+    void checkSlotConstraints();
+}
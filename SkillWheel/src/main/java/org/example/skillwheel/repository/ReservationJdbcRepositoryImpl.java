@@ -0,0 +1,223 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class ReservationJdbcRepositoryImpl implements ReservationJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String SELECT_COLUMNS = """
+            SELECT id, is_reserved, student_id, instructor_id, reservation_date, reservation_time, place_id, version
+            FROM reservations""";
+
+    private static final String SCHEDULE_ORDER = " ORDER BY reservation_date, reservation_time, id";
+
+    private static final String OWNER_VERSION = """
+            SELECT coalesce((SELECT version FROM reservation_owner_versions WHERE owner_type = ? AND owner_id = ?), 0)""";
+
+    private static final String SLOT_CONSTRAINTS = "reservations_instructor_no_overlap, reservations_student_no_overlap";
+
+    private static final Set<String> UPDATABLE_COLUMNS = Set.of(
+            "is_reserved", "student_id", "instructor_id", "reservation_date", "reservation_time", "reservation_place");
+
+    /**
+     * Callers address the place by name as {@code reservation_place}; the table stores its ID.
+     */
+    private static final String PLACE_NAME_COLUMN = "reservation_place";
+
+    private static final String RETURNING_COLUMNS = """
+            RETURNING id, is_reserved, student_id, instructor_id, reservation_date, reservation_time, place_id, version""";
+
+    /**
+     * The CTE locks the matching rows and captures their current values; the UPDATE joins against
+     * it so both versions come back from one round trip. Placeholders: filter, then assignments.
+     */
+    private static final String UPDATE_RETURNING = """
+            WITH old AS (
+                SELECT id, is_reserved, student_id, instructor_id, reservation_date, reservation_time, place_id, version
+                FROM reservations WHERE %s FOR UPDATE
+            )
+            UPDATE reservations r SET %s
+            FROM old
+            WHERE r.id = old.id
+            RETURNING old.id AS old_id, old.is_reserved AS old_is_reserved, old.student_id AS old_student_id,
+                old.instructor_id AS old_instructor_id, old.reservation_date AS old_reservation_date,
+                old.reservation_time AS old_reservation_time, old.place_id AS old_place_id,
+                old.version AS old_version, r.id, r.is_reserved, r.student_id, r.instructor_id, r.reservation_date,
+                r.reservation_time, r.place_id, r.version""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlaceDictionary placeDictionary;
+    private final ReservationRowMapper rowMapper;
+    private final ReservationRowMapper previousRowMapper;
+
+    public ReservationJdbcRepositoryImpl(JdbcTemplate jdbcTemplate, PlaceDictionary placeDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.placeDictionary = placeDictionary;
+        this.rowMapper = new ReservationRowMapper(placeDictionary);
+        this.previousRowMapper = new ReservationRowMapper("old_", placeDictionary);
+    }
+
+    @Override
+    public void forEachReservation(Consumer<Reservation> consumer) {
+        stream(SELECT_COLUMNS + " ORDER BY id", consumer);
+    }
+
+    @Override
+    public void forEachReservationFrom(LocalDate from, Consumer<Reservation> consumer) {
+        stream(SELECT_COLUMNS + " WHERE reservation_date >= ? ORDER BY id", consumer, from);
+    }
+
+    @Override
+    public void forEachReservationStartingBetween(LocalDateTime from, LocalDateTime to, Consumer<Reservation> consumer) {
+        // The date bounds let the planner use idx_reservations_date before the exact timestamp filter.
+        stream(SELECT_COLUMNS + " WHERE reservation_date BETWEEN ? AND ?"
+                        + " AND reservation_date + reservation_time >= ? AND reservation_date + reservation_time < ?"
+                        + SCHEDULE_ORDER,
+                consumer, from.toLocalDate(), to.toLocalDate(), from, to);
+    }
+
+    @Override
+    public void forEachInstructorReservation(Long instructorId, Consumer<Reservation> consumer) {
+        stream(SELECT_COLUMNS + " WHERE instructor_id = ?" + SCHEDULE_ORDER, consumer, instructorId);
+    }
+
+    @Override
+    public void forEachStudentReservation(Long studentId, Consumer<Reservation> consumer) {
+        stream(SELECT_COLUMNS + " WHERE student_id = ?" + SCHEDULE_ORDER, consumer, studentId);
+    }
+
+    @Override
+    public long instructorReservationsVersion(Long instructorId) {
+        return jdbcTemplate.queryForObject(OWNER_VERSION, Long.class, "i", instructorId);
+    }
+
+    @Override
+    public long studentReservationsVersion(Long studentId) {
+        return jdbcTemplate.queryForObject(OWNER_VERSION, Long.class, "s", studentId);
+    }
+
+    @Override
+    public void bumpOwnerVersions(Collection<Long> instructorIds, Collection<Long> studentIds) {
+        // The function returns void; its single row carries nothing to read.
+        jdbcTemplate.query("SELECT bump_reservation_owner_versions(?, ?)", (RowCallbackHandler) rs -> { },
+                instructorIds.toArray(Long[]::new), studentIds.toArray(Long[]::new));
+    }
+
+    @Override
+    public Optional<Long> findInstructorId(Long id) {
+        return jdbcTemplate.query("SELECT instructor_id FROM reservations WHERE id = ?",
+                (rs, rowNum) -> rs.getLong(1), id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<ReservationUpdate> updateColumns(Long id, Map<String, Object> columns, Long expectedVersion) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column must be updated");
+        }
+        List<Object> args = new ArrayList<>(columns.size() + 2);
+        args.add(id);
+        if (expectedVersion != null) {
+            args.add(expectedVersion);
+        }
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            if (!UPDATABLE_COLUMNS.contains(column.getKey())) {
+                throw new IllegalArgumentException("Column cannot be updated: " + column.getKey());
+            }
+            args.add(PLACE_NAME_COLUMN.equals(column.getKey())
+                    ? placeDictionary.idOf((String) column.getValue())
+                    : column.getValue());
+        }
+        String assignments = columns.keySet().stream()
+                .map(column -> (PLACE_NAME_COLUMN.equals(column) ? "place_id" : column) + " = ?")
+                .collect(Collectors.joining(", "));
+        String filter = expectedVersion != null ? "id = ? AND version = ?" : "id = ?";
+        return updateReturning(filter, assignments, args.toArray()).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Reservation> deleteReturning(Long id) {
+        return jdbcTemplate.query("DELETE FROM reservations WHERE id = ? " + RETURNING_COLUMNS,
+                rowMapper, id).stream().findFirst();
+    }
+
+    @Override
+    public List<Reservation> deleteByInstructorBetween(Long instructorId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("DELETE FROM reservations WHERE instructor_id = ? AND reservation_date BETWEEN ? AND ? "
+                + RETURNING_COLUMNS, rowMapper, instructorId, from, to);
+    }
+
+    @Override
+    public List<ReservationUpdate> reassignInstructor(Long instructorId, Long newInstructorId, LocalDate from, LocalDate to) {
+        return updateReturning("instructor_id = ? AND reservation_date BETWEEN ? AND ?", "instructor_id = ?",
+                instructorId, from, to, newInstructorId);
+    }
+
+    @Override
+    public List<ReservationUpdate> shift(Long instructorId, Long studentId, LocalDate from, LocalDate to,
+                                         int days, int minutes) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder filter = new StringBuilder("reservation_date BETWEEN ? AND ?");
+        args.add(from);
+        args.add(to);
+        if (instructorId != null) {
+            filter.append(" AND instructor_id = ?");
+            args.add(instructorId);
+        }
+        if (studentId != null) {
+            filter.append(" AND student_id = ?");
+            args.add(studentId);
+        }
+        args.add(days);
+        args.add(minutes);
+        return updateReturning(filter.toString(),
+                "reservation_date = r.reservation_date + ?, reservation_time = r.reservation_time + make_interval(mins => ?)",
+                args.toArray());
+    }
+
+    @Override
+    public void deferSlotConstraints() {
+        jdbcTemplate.execute("SET CONSTRAINTS " + SLOT_CONSTRAINTS + " DEFERRED");
+    }
+
+    @Override
+    public void checkSlotConstraints() {
+        jdbcTemplate.execute("SET CONSTRAINTS " + SLOT_CONSTRAINTS + " IMMEDIATE");
+    }
+
+    private List<ReservationUpdate> updateReturning(String filter, String assignments, Object... args) {
+        return jdbcTemplate.query(UPDATE_RETURNING.formatted(filter, assignments + ", version = r.version + 1"),
+                (rs, rowNum) -> new ReservationUpdate(
+                        previousRowMapper.mapRow(rs, rowNum),
+                        rowMapper.mapRow(rs, rowNum)),
+                args);
+    }
+
+    private void stream(String sql, Consumer<Reservation> consumer, Object... args) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(rowMapper.mapRow(rs, 0)));
+    }
+}
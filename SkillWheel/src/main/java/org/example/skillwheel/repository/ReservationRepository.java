@@ -1,13 +1,32 @@
 package org.example.skillwheel.repository;
 
 import org.example.skillwheel.model.Reservation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationJdbcRepository {
     List<Reservation> findByStudentID(Long studentID);
     List<Reservation> findByInstructorID(Long instructorID);
+    List<Reservation> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    List<Reservation> findByInstructorIDAndReservationDateBetween(Long instructorID, LocalDate from, LocalDate to);
+
+    @Query("select count(r) > 0 from Reservation r where r.instructorID = :instructorId and r.reservationDate = :date "
+            + "and r.reservationTime >= :from and r.reservationTime < :to and r.id <> :excludedId")
+    boolean existsInstructorBooking(@Param("instructorId") Long instructorId, @Param("date") LocalDate date,
+                                    @Param("from") LocalTime from, @Param("to") LocalTime to,
+                                    @Param("excludedId") Long excludedId);
+
+    @Query("select count(r) > 0 from Reservation r where r.studentID = :studentId and r.reservationDate = :date "
+            + "and r.reservationTime >= :from and r.reservationTime < :to and r.id <> :excludedId")
+    boolean existsStudentBooking(@Param("studentId") Long studentId, @Param("date") LocalDate date,
+                                 @Param("from") LocalTime from, @Param("to") LocalTime to,
+                                 @Param("excludedId") Long excludedId);
 }
@@ -0,0 +1,47 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Maps a raw row of the {@code reservations} table to a detached {@link Reservation}.
+ * Used by the JDBC-level queries that bypass the persistence context; the place ID is
+ * resolved to its name through the place dictionary.
+ */
+public class ReservationRowMapper implements RowMapper<Reservation> {
+
+    private final String prefix;
+    private final PlaceDictionary placeDictionary;
+
+    public ReservationRowMapper(PlaceDictionary placeDictionary) {
+        this("", placeDictionary);
+    }
+
+    /**
+     * @param prefix prefix of every column label, for queries returning more than one reservation per row
+     */
+    public ReservationRowMapper(String prefix, PlaceDictionary placeDictionary) {
+        this.prefix = prefix;
+        this.placeDictionary = placeDictionary;
+    }
+
+    @Override
+    public Reservation mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Reservation reservation = new Reservation(
+                rs.getLong(prefix + "id"),
+                rs.getBoolean(prefix + "is_reserved"),
+                rs.getLong(prefix + "student_id"),
+                rs.getLong(prefix + "instructor_id"),
+                rs.getObject(prefix + "reservation_date", LocalDate.class),
+                rs.getObject(prefix + "reservation_time", LocalTime.class),
+                placeDictionary.nameOf(rs.getInt(prefix + "place_id")));
+        reservation.setVersion(rs.getLong(prefix + "version"));
+        return reservation;
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.model.Reservation;
+
+/**
+ * Row of a reservation before and after an in-place update, both detached.
+ */
+public record ReservationUpdate(Reservation previous, Reservation current) {
+}
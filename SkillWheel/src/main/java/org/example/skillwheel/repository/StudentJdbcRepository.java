@@ -0,0 +1,36 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.dto.StudentSummary;
+import org.example.skillwheel.model.Student;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC operations on students that do not fit the JPA repository model.
+ */
+public interface StudentJdbcRepository {
+
+    /**
+     * Inserts the student in a single {@code INSERT ... ON CONFLICT DO NOTHING} against the unique
+     * email index, so concurrent signups with the same email cannot both succeed.
+     *
+     * @return the new ID, or empty if a student with this email already exists
+     */
+    Optional<Long> insertIfEmailFree(Student student);
+
+    /**
+     * Streams every student email off a forward-only cursor. Must be called inside a transaction so
+     * the driver fetches rows in chunks.
+     */
+    void forEachEmail(Consumer<String> consumer);
+
+    /**
+     * Ranked prefix and typo-tolerant search over name, surname, email and school. Must be called
+     * inside a transaction.
+     *
+     * @throws IllegalArgumentException if the query is blank or the limit is not between 1 and 100
+     */
+    List<StudentSummary> searchSummaries(String query, int limit, double similarityThreshold);
+}
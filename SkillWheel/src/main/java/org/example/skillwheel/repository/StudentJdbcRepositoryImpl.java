@@ -0,0 +1,48 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.dto.StudentSummary;
+import org.example.skillwheel.model.Student;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public class StudentJdbcRepositoryImpl implements StudentJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StudentJdbcRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Long> insertIfEmailFree(Student student) {
+        return jdbcTemplate.queryForList("""
+                        INSERT INTO students (name, surname, email, password, name_of_school) VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (email) DO NOTHING RETURNING id""", Long.class,
+                student.getName(), student.getSurname(), student.getEmail(), student.getPassword(),
+                student.getNameOfSchool()).stream().findFirst();
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT email FROM students WHERE email IS NOT NULL",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(rs.getString(1)));
+    }
+
+    @Override
+    public List<StudentSummary> searchSummaries(String query, int limit, double similarityThreshold) {
+        return PersonSearch.search(jdbcTemplate, "students", query, limit, similarityThreshold,
+                (rs, rowNum) -> new StudentSummary(rs.getLong("id"), rs.getString("name"), rs.getString("surname"),
+                        rs.getString("email"), rs.getString("name_of_school")));
+    }
+}
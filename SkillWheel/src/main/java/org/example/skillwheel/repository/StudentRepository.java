@@ -1,9 +1,18 @@
 package org.example.skillwheel.repository;
 
+import org.example.skillwheel.dto.StudentSummary;
 import org.example.skillwheel.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentJdbcRepository {
+    boolean existsByEmail(String email);
+
+    @Query("select new org.example.skillwheel.dto.StudentSummary(s.id, s.name, s.surname, s.email, s.nameOfSchool) "
+            + "from Student s order by s.id")
+    List<StudentSummary> findAllSummaries();
 }
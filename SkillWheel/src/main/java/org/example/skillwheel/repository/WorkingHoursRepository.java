@@ -0,0 +1,9 @@
+package org.example.skillwheel.repository;
+
+import org.example.skillwheel.model.WorkingHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WorkingHoursRepository extends JpaRepository<WorkingHours, Long> {
+}
@@ -0,0 +1,75 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.dto.DayAvailability;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes free slots of an instructor as {@code workingHours & ~booked} per day.
+ */
+@Service
+public class AvailabilityService {
+
+    public static final int MAX_WINDOW_DAYS = 92;
+
+    private final WorkingHoursService workingHoursService;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final ReservationRepository reservationRepository;
+
+    @Autowired
+    public AvailabilityService(WorkingHoursService workingHoursService, SlotOccupancyIndex occupancyIndex,
+                               ReservationRepository reservationRepository) {
+        this.workingHoursService = workingHoursService;
+        this.occupancyIndex = occupancyIndex;
+        this.reservationRepository = reservationRepository;
+    }
+
+    public List<DayAvailability> getAvailability(Long instructorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Availability window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+
+        Map<LocalDate, Long> bookedFromDatabase = occupancyIndex.isEnabled()
+                ? Map.of()
+                : loadBookedSlots(instructorId, from, to);
+        LocalDate today = LocalDate.now();
+        long elapsedToday = TimeSlots.elapsedMask(LocalTime.now());
+
+        List<DayAvailability> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            long free = 0L;
+            if (!date.isBefore(today)) {
+                long booked = occupancyIndex.isEnabled()
+                        ? occupancyIndex.instructorDay(instructorId, date)
+                        : bookedFromDatabase.getOrDefault(date, 0L);
+                free = workingHoursService.dayMask(instructorId, date.getDayOfWeek()) & ~booked;
+                if (date.equals(today)) {
+                    free &= ~elapsedToday;
+                }
+            }
+            days.add(new DayAvailability(date, TimeSlots.toRanges(free)));
+        }
+        return days;
+    }
+
+    private Map<LocalDate, Long> loadBookedSlots(Long instructorId, LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> booked = new HashMap<>();
+        for (Reservation reservation : reservationRepository.findByInstructorIDAndReservationDateBetween(instructorId, from, to)) {
+            booked.merge(reservation.getReservationDate(), TimeSlots.bitOf(reservation.getReservationTime()), (a, b) -> a | b);
+        }
+        return booked;
+    }
+}
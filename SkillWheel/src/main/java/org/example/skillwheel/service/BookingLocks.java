@@ -0,0 +1,97 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-instructor locks that serialize bookings of the same instructor inside this process.
+ * <p>
+ * Every instructor being booked has a lock of its own, so bookings of different instructors never
+ * wait for each other. A lock exists only while some transaction holds or waits for it and is
+ * removed with its last user. A lock is held until the surrounding transaction completes, which
+ * makes the conflict check and the write one atomic step. The database exclusion constraint remains
+ * the authority across processes.
+ */
+@Component
+public class BookingLocks {
+
+    /**
+     * A lock and the number of transactions holding or waiting for it. The count only changes inside
+     * {@link ConcurrentHashMap#compute} for its key, which is atomic per key.
+     */
+    private static final class InstructorLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+
+    private final Map<Long, InstructorLock> locks = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    @Autowired
+    public BookingLocks(@Value("${skillwheel.booking.lock-timeout:PT5S}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Takes the instructor's lock and releases it when the current transaction completes.
+     *
+     * @throws ServiceBusyException if the lock is not available within the configured timeout
+     */
+    public void lockUntilCompletion(Long instructorId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Booking locks can only be taken inside a transaction");
+        }
+        InstructorLock entry = locks.compute(instructorId, (id, current) -> {
+            InstructorLock used = current != null ? current : new InstructorLock();
+            used.users++;
+            return used;
+        });
+        try {
+            if (!entry.lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                release(instructorId, entry);
+                throw new ServiceBusyException("The instructor's schedule is being changed by other requests, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            release(instructorId, entry);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for the booking lock of instructor " + instructorId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                entry.lock.unlock();
+                release(instructorId, entry);
+            }
+        });
+    }
+
+    /**
+     * Takes the locks of several instructors in ascending ID order, so two transactions locking the
+     * same instructors cannot wait for each other in a cycle.
+     */
+    public void lockAllUntilCompletion(Collection<Long> instructorIds) {
+        instructorIds.stream().distinct().sorted().forEach(this::lockUntilCompletion);
+    }
+
+    /**
+     * Number of instructors whose lock is currently held or waited for.
+     */
+    public int lockedInstructors() {
+        return locks.size();
+    }
+
+    private void release(Long instructorId, InstructorLock entry) {
+        locks.computeIfPresent(instructorId, (id, current) -> current == entry && --current.users == 0 ? null : current);
+    }
+}
@@ -0,0 +1,278 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.dto.InstructorSummary;
+import org.example.skillwheel.dto.StatsBucket;
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Instructor;
+import org.example.skillwheel.repository.BookingStatisticsRepository;
+import org.example.skillwheel.repository.InstructorRepository;
+import org.example.skillwheel.repository.LessonCount;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lesson counts per instructor, school and place, bucketed by day and kept up to date from
+ * reservation change events, so dashboards never query the reservations table.
+ * <p>
+ * Each series is a sorted map from epoch day to a counter; a range read visits only the non-empty
+ * days in the range, and weeks are summed from days. The counts cover archived lessons as well:
+ * archiving does not publish events, and a rebuild reads both tables. A rebuild aggregates each
+ * calendar year in the database on its own thread and swaps the result in at once. Changes that
+ * arrive while a rebuild runs are buffered and replayed onto the rebuilt counts before the swap; one
+ * committed just as its year is being read may be counted twice until the next rebuild.
+ */
+@Component
+public class BookingStatistics implements SmartInitializingSingleton {
+
+    private static final Logger LOGGER = Logger.getLogger(BookingStatistics.class.getName());
+
+    public enum Dimension {
+        INSTRUCTOR, SCHOOL, PLACE
+    }
+
+    public enum Granularity {
+        DAY, WEEK
+    }
+
+    private record SeriesKey(Dimension dimension, String key) {
+    }
+
+    private final BookingStatisticsRepository statisticsRepository;
+    private final InstructorRepository instructorRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int rebuildParallelism;
+
+    private final Map<Long, String> schoolByInstructor = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile Map<SeriesKey, NavigableMap<Long, AtomicLong>> series = new ConcurrentHashMap<>();
+
+    /**
+     * Guards {@link #pending} and the swap of {@link #series}, so every change lands in the counts
+     * that end up in use.
+     */
+    private final Object swapLock = new Object();
+    private List<ReservationChangedEvent> pending;
+
+    @Autowired
+    public BookingStatistics(BookingStatisticsRepository statisticsRepository,
+                             InstructorRepository instructorRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${skillwheel.stats.rebuild-parallelism:4}") int rebuildParallelism) {
+        if (rebuildParallelism < 1) {
+            throw new IllegalArgumentException("Statistics rebuild parallelism must be a positive number");
+        }
+        this.statisticsRepository = statisticsRepository;
+        this.instructorRepository = instructorRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not build booking statistics; counts start empty until the next rebuild", e);
+        }
+    }
+
+    @Scheduled(cron = "${skillwheel.stats.rebuild-cron:0 0 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Lesson counts of one series within {@code [from, to]}; buckets without lessons are omitted.
+     *
+     * @param key instructor ID, school name or place, depending on the dimension
+     */
+    public List<StatsBucket> getLessonCounts(Dimension dimension, String key, LocalDate from, LocalDate to,
+                                             Granularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        NavigableMap<Long, AtomicLong> days = series.get(new SeriesKey(dimension, normalize(dimension, key)));
+        List<StatsBucket> buckets = new ArrayList<>();
+        if (days == null) {
+            return buckets;
+        }
+        for (Map.Entry<Long, AtomicLong> day : days.subMap(from.toEpochDay(), true, to.toEpochDay(), true).entrySet()) {
+            long lessons = day.getValue().get();
+            if (lessons == 0) {
+                continue;
+            }
+            LocalDate start = LocalDate.ofEpochDay(day.getKey());
+            if (granularity == Granularity.WEEK) {
+                start = start.with(DayOfWeek.MONDAY);
+            }
+            int last = buckets.size() - 1;
+            if (last >= 0 && buckets.get(last).start().equals(start)) {
+                buckets.set(last, new StatsBucket(start, buckets.get(last).lessons() + lessons));
+            } else {
+                buckets.add(new StatsBucket(start, lessons));
+            }
+        }
+        return buckets;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Map<SeriesKey, NavigableMap<Long, AtomicLong>> target;
+        synchronized (swapLock) {
+            target = series;
+            if (pending != null) {
+                pending.add(event);
+            }
+        }
+        apply(target, event);
+    }
+
+    private void apply(Map<SeriesKey, NavigableMap<Long, AtomicLong>> target, ReservationChangedEvent event) {
+        if (event.previous() != null) {
+            add(target, event.previous().getInstructorID(), event.previous().getReservationDate(),
+                    event.previous().getReservationPlace(), -1);
+        }
+        if (event.current() != null) {
+            add(target, event.current().getInstructorID(), event.current().getReservationDate(),
+                    event.current().getReservationPlace(), 1);
+        }
+    }
+
+    /**
+     * Recounts all live and archived reservations, one calendar year per task.
+     *
+     * @return number of lessons counted, or empty if a rebuild is already running
+     */
+    public OptionalLong rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return OptionalLong.empty();
+        }
+        synchronized (swapLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            long started = System.nanoTime();
+            schoolByInstructor.clear();
+            for (InstructorSummary instructor : instructorRepository.findAllSummaries()) {
+                if (instructor.nameOfSchool() != null) {
+                    schoolByInstructor.put(instructor.id(), instructor.nameOfSchool());
+                }
+            }
+            Map<SeriesKey, NavigableMap<Long, AtomicLong>> rebuilt = new ConcurrentHashMap<>();
+            AtomicLong total = new AtomicLong();
+            try (ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism)) {
+                List<Future<?>> years = new ArrayList<>();
+                for (int year : statisticsRepository.findYears()) {
+                    years.add(executor.submit(() -> readOnlyTransaction.executeWithoutResult(status ->
+                            statisticsRepository.forEachLessonCount(year, count -> {
+                                add(rebuilt, count);
+                                total.addAndGet(count.lessons());
+                            }))));
+                }
+                for (Future<?> year : years) {
+                    year.get();
+                }
+            }
+            swapIn(rebuilt);
+            LOGGER.info("Rebuilt booking statistics from " + total.get() + " lessons in "
+                    + (System.nanoTime() - started) / 1_000_000 + " ms");
+            return OptionalLong.of(total.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding booking statistics", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rebuilding booking statistics failed", e.getCause());
+        } finally {
+            synchronized (swapLock) {
+                pending = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Replays the buffered changes onto the rebuilt counts and makes them current. Batches are
+     * replayed outside the lock; only the swap itself waits for writers.
+     */
+    private void swapIn(Map<SeriesKey, NavigableMap<Long, AtomicLong>> rebuilt) {
+        while (true) {
+            List<ReservationChangedEvent> batch;
+            synchronized (swapLock) {
+                if (pending.isEmpty()) {
+                    series = rebuilt;
+                    pending = null;
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            batch.forEach(event -> apply(rebuilt, event));
+        }
+    }
+
+    private void add(Map<SeriesKey, NavigableMap<Long, AtomicLong>> target, LessonCount count) {
+        String school = schoolOf(count.instructorId());
+        long day = count.date().toEpochDay();
+        increment(target, new SeriesKey(Dimension.INSTRUCTOR, count.instructorId().toString()), day, count.lessons());
+        increment(target, new SeriesKey(Dimension.PLACE, normalize(Dimension.PLACE, count.place())), day, count.lessons());
+        if (school != null) {
+            increment(target, new SeriesKey(Dimension.SCHOOL, normalize(Dimension.SCHOOL, school)), day, count.lessons());
+        }
+    }
+
+    private void add(Map<SeriesKey, NavigableMap<Long, AtomicLong>> target, Long instructorId, LocalDate date,
+                     String place, long lessons) {
+        add(target, new LessonCount(instructorId, date, place, lessons));
+    }
+
+    private static void increment(Map<SeriesKey, NavigableMap<Long, AtomicLong>> target, SeriesKey key,
+                                  long day, long delta) {
+        target.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(day, d -> new AtomicLong())
+                .addAndGet(delta);
+    }
+
+    /**
+     * Instructors cannot change school, so a school is looked up once per instructor.
+     */
+    private String schoolOf(Long instructorId) {
+        String school = schoolByInstructor.get(instructorId);
+        if (school == null) {
+            school = instructorRepository.findById(instructorId).map(Instructor::getNameOfSchool).orElse(null);
+            if (school != null) {
+                schoolByInstructor.put(instructorId, school);
+            }
+        }
+        return school;
+    }
+
+    private static String normalize(Dimension dimension, String key) {
+        return dimension == Dimension.INSTRUCTOR ? key.trim() : key.trim().toLowerCase(Locale.ROOT);
+    }
+}
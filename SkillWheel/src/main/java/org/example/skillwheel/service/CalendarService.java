@@ -0,0 +1,139 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Renders instructor and student schedules as iCalendar (RFC 5545) feeds for calendar clients.
+ * <p>
+ * Events are written as rows come off the database cursor, so a feed never exists in memory as a
+ * whole. Each lesson lasts one {@link TimeSlots} slot; times are converted from the school's zone
+ * to UTC so the feed needs no {@code VTIMEZONE} block.
+ */
+@Service
+public class CalendarService {
+
+    private static final DateTimeFormatter UTC_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final ReservationRepository reservationRepository;
+    private final ZoneId zone;
+
+    @Autowired
+    public CalendarService(ReservationRepository reservationRepository,
+                           @Value("${skillwheel.calendar.zone:Europe/Warsaw}") String zone) {
+        this.reservationRepository = reservationRepository;
+        this.zone = ZoneId.of(zone);
+    }
+
+    /**
+     * Weak entity tag of the instructor's feed, from the change counter of the instructor's
+     * reservations; equal tags mean the feed has not changed.
+     */
+    public String instructorCalendarTag(Long instructorId) {
+        return "W/\"i" + instructorId + "-" + reservationRepository.instructorReservationsVersion(instructorId) + "\"";
+    }
+
+    public String studentCalendarTag(Long studentId) {
+        return "W/\"s" + studentId + "-" + reservationRepository.studentReservationsVersion(studentId) + "\"";
+    }
+
+    @Transactional(readOnly = true)
+    public void writeInstructorCalendar(Long instructorId, OutputStream outputStream) {
+        write(outputStream, "SkillWheel - instruktor " + instructorId,
+                consumer -> reservationRepository.forEachInstructorReservation(instructorId, consumer),
+                reservation -> "Jazda - kursant " + reservation.getStudentID());
+    }
+
+    @Transactional(readOnly = true)
+    public void writeStudentCalendar(Long studentId, OutputStream outputStream) {
+        write(outputStream, "SkillWheel - kursant " + studentId,
+                consumer -> reservationRepository.forEachStudentReservation(studentId, consumer),
+                reservation -> "Jazda - instruktor " + reservation.getInstructorID());
+    }
+
+    private void write(OutputStream outputStream, String name, Consumer<Consumer<Reservation>> reservations,
+                       Function<Reservation, String> summary) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        String stamp = UTC_FORMAT.format(Instant.now());
+        BiConsumer<String, String> property = (key, value) -> writeLine(writer, key + ":" + value);
+        property.accept("BEGIN", "VCALENDAR");
+        property.accept("VERSION", "2.0");
+        property.accept("PRODID", "-//SkillWheel//Reservations//PL");
+        property.accept("CALSCALE", "GREGORIAN");
+        property.accept("METHOD", "PUBLISH");
+        property.accept("X-WR-CALNAME", escape(name));
+        reservations.accept(reservation -> {
+            Instant start = reservation.getReservationDate().atTime(reservation.getReservationTime())
+                    .atZone(zone).toInstant();
+            property.accept("BEGIN", "VEVENT");
+            property.accept("UID", "reservation-" + reservation.getId() + "@skillwheel");
+            property.accept("DTSTAMP", stamp);
+            property.accept("DTSTART", UTC_FORMAT.format(start));
+            property.accept("DTEND", UTC_FORMAT.format(start.plus(TimeSlots.SLOT_MINUTES, ChronoUnit.MINUTES)));
+            property.accept("SUMMARY", escape(summary.apply(reservation)));
+            property.accept("LOCATION", escape(reservation.getReservationPlace()));
+            property.accept("END", "VEVENT");
+        });
+        property.accept("END", "VCALENDAR");
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a content line folded at 75 octets, never splitting a UTF-8 sequence.
+     */
+    private static void writeLine(Writer writer, String line) {
+        try {
+            int octets = 0;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                int width = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : 3;
+                if (octets + width > MAX_LINE_OCTETS) {
+                    writer.write("\r\n ");
+                    octets = 1;
+                }
+                writer.write(c);
+                if (width == 4) {
+                    writer.write(line.charAt(++i));
+                }
+                octets += width;
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+}
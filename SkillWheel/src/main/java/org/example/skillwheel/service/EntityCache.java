@@ -0,0 +1,69 @@
+package org.example.skillwheel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size- and TTL-bounded cache of entities by ID, published as the {@code cache.*} metrics
+ * (gets by hit/miss, evictions, size) tagged with the cache name.
+ * <p>
+ * Owners call {@link #invalidate} after every committed change to an entity. A lookup that misses
+ * loads outside the cache and then stores what it read; if any invalidation happened meanwhile, the
+ * row it read may predate that change, so it drops the value again instead of leaving it behind.
+ * Missing entities are not cached. Cached instances are shared between callers and must not be
+ * modified.
+ */
+public class EntityCache<T> {
+
+    private final Cache<Long, T> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EntityCache(String name, MeterRegistry meterRegistry, long maximumSize, Duration ttl) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Entity cache size must be a positive number");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public Optional<T> get(Long id, Function<Long, Optional<T>> loader) {
+        T cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long seen = invalidations.get();
+        Optional<T> loaded = loader.apply(id);
+        if (loaded.isPresent()) {
+            cache.put(id, loaded.get());
+            // Checked after the put: an invalidation either shows up here or comes after the put and removes it.
+            if (invalidations.get() != seen) {
+                cache.invalidate(id);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Must be called after the change is committed, not before.
+     */
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.exception.PreconditionFailedException;
+import org.example.skillwheel.model.Instructor;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.model.Student;
+
+/**
+ * Strong entity tags of JSON responses, built from {@code @Version} columns and the per-owner
+ * reservation change counters, so equal tags mean byte-identical bodies. The same tags sent back in
+ * {@code If-Match} name the version an update expects.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(Student student) {
+        return tag("s" + student.getId() + "-" + student.getVersion());
+    }
+
+    public static String of(Instructor instructor) {
+        return tag("i" + instructor.getId() + "-" + instructor.getVersion());
+    }
+
+    public static String of(Reservation reservation) {
+        return tag("r" + reservation.getId() + "-" + reservation.getVersion());
+    }
+
+    /**
+     * Version a student update expects according to its {@code If-Match} header.
+     *
+     * @return the version, or {@code null} when the header is absent or {@code *}
+     * @throws PreconditionFailedException if the header is not a tag of this student
+     * @throws IllegalArgumentException if the header lists several tags
+     */
+    public static Long expectedStudentVersion(String ifMatch, Long id) {
+        return expectedVersion(ifMatch, "s" + id + "-");
+    }
+
+    public static Long expectedInstructorVersion(String ifMatch, Long id) {
+        return expectedVersion(ifMatch, "i" + id + "-");
+    }
+
+    public static Long expectedReservationVersion(String ifMatch, Long id) {
+        return expectedVersion(ifMatch, "r" + id + "-");
+    }
+
+    /**
+     * @param ownerType {@code i} for an instructor's list, {@code s} for a student's
+     */
+    static String reservationList(char ownerType, Long ownerId, long changes, boolean includeArchived) {
+        return tag("r" + ownerType + ownerId + "-" + changes + (includeArchived ? "-a" : ""));
+    }
+
+    /**
+     * Only a single strong tag can name a version; weak tags never match under If-Match, and a list
+     * would need one conditional update per entry.
+     */
+    private static Long expectedVersion(String ifMatch, String prefix) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.indexOf(',') >= 0) {
+            throw new IllegalArgumentException("If-Match must contain a single entity tag");
+        }
+        String start = "\"" + prefix;
+        if (value.length() > start.length() + 1 && value.startsWith(start) && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(start.length(), value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the failed precondition below.
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version of the resource");
+    }
+
+    private static String tag(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,270 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Instructor;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.model.WorkingHours;
+import org.example.skillwheel.repository.InstructorRepository;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.repository.WorkingHoursRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers "which instructors are free on this day at this time" with bitmap operations.
+ * <p>
+ * Each instructor gets a dense ordinal, its bit position, so every set is as long as the number of
+ * instructors rather than the highest instructor ID; ordinals of removed instructors are reused.
+ * For every (weekday, slot) the index keeps the set of instructors working then, for every
+ * (date, slot) with bookings the set of busy instructors, and for every school its instructors.
+ * A lookup is {@code working & ~busy [& school]}, independent of how many reservations exist.
+ */
+@Component
+public class FreeInstructorIndex implements SmartInitializingSingleton {
+
+    private final InstructorRepository instructorRepository;
+    private final WorkingHoursRepository workingHoursRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet[] working = new BitSet[DayOfWeek.values().length * TimeSlots.SLOTS_PER_DAY];
+    private final Map<Long, BitSet> busy = new HashMap<>();
+    private final Map<String, BitSet> bySchool = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet releasedOrdinals = new BitSet();
+    private long[] instructorIds = new long[64];
+    private int nextOrdinal;
+
+    @Autowired
+    public FreeInstructorIndex(InstructorRepository instructorRepository,
+                               WorkingHoursRepository workingHoursRepository,
+                               ReservationRepository reservationRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.instructorRepository = instructorRepository;
+        this.workingHoursRepository = workingHoursRepository;
+        this.reservationRepository = reservationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        for (int i = 0; i < working.length; i++) {
+            working[i] = new BitSet();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Long, long[]> customHours = new HashMap<>();
+        for (WorkingHours workingHours : workingHoursRepository.findAll()) {
+            customHours.put(workingHours.getInstructorId(), workingHours.getDayMasks());
+        }
+        lock.writeLock().lock();
+        try {
+            for (Instructor instructor : instructorRepository.findAll()) {
+                int bit = assignBit(instructor.getId());
+                setWorkingBits(bit, customHours.getOrDefault(instructor.getId(), WorkingHoursService.DEFAULT_DAY_MASKS));
+                setSchool(bit, instructor.getNameOfSchool());
+            }
+            readOnlyTransaction.executeWithoutResult(status ->
+                    reservationRepository.forEachReservationFrom(LocalDate.now(), this::markBusy));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of instructors working and not booked at the given time, ascending.
+     *
+     * @param school optional school name filter, compared case-insensitively
+     */
+    public List<Long> findFreeInstructors(LocalDate date, LocalTime time, String school) {
+        int slot = TimeSlots.slotOf(time);
+        lock.readLock().lock();
+        try {
+            BitSet free = (BitSet) working[workingIndex(date.getDayOfWeek(), slot)].clone();
+            BitSet busyInstructors = busy.get(busyKey(date, slot));
+            if (busyInstructors != null) {
+                free.andNot(busyInstructors);
+            }
+            if (school != null && !school.isBlank()) {
+                free.and(bySchool.getOrDefault(normalize(school), new BitSet()));
+            }
+            return free.stream().mapToLong(bit -> instructorIds[bit]).sorted().boxed().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a new instructor with the default working hours.
+     */
+    public void addInstructor(Long instructorId, String school) {
+        lock.writeLock().lock();
+        try {
+            int bit = assignBit(instructorId);
+            setWorkingBits(bit, WorkingHoursService.DEFAULT_DAY_MASKS);
+            setSchool(bit, school);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateSchool(Long instructorId, String school) {
+        lock.writeLock().lock();
+        try {
+            int bit = assignBit(instructorId);
+            bySchool.values().forEach(instructors -> instructors.clear(bit));
+            setSchool(bit, school);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateWorkingHours(Long instructorId, long[] dayMasks) {
+        lock.writeLock().lock();
+        try {
+            int bit = assignBit(instructorId);
+            for (BitSet instructors : working) {
+                instructors.clear(bit);
+            }
+            setWorkingBits(bit, dayMasks);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets the instructor, including its bookings, and frees its ordinal for the next one.
+     */
+    public void removeInstructor(Long instructorId) {
+        lock.writeLock().lock();
+        try {
+            Integer bit = ordinals.remove(instructorId);
+            if (bit == null) {
+                return;
+            }
+            for (BitSet instructors : working) {
+                instructors.clear(bit);
+            }
+            bySchool.values().forEach(instructors -> instructors.clear(bit));
+            busy.values().forEach(instructors -> instructors.clear(bit));
+            busy.values().removeIf(BitSet::isEmpty);
+            releasedOrdinals.set(bit);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.previous() != null) {
+                markFree(event.previous());
+            }
+            if (event.current() != null) {
+                markBusy(event.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops busy sets of days that have passed.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void pruneElapsedDays() {
+        long firstKeyToKeep = busyKey(LocalDate.now(), 0);
+        lock.writeLock().lock();
+        try {
+            busy.keySet().removeIf(key -> key < firstKeyToKeep);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markBusy(Reservation reservation) {
+        long key = busyKey(reservation.getReservationDate(), TimeSlots.slotOf(reservation.getReservationTime()));
+        busy.computeIfAbsent(key, k -> new BitSet()).set(assignBit(reservation.getInstructorID()));
+    }
+
+    private void markFree(Reservation reservation) {
+        long key = busyKey(reservation.getReservationDate(), TimeSlots.slotOf(reservation.getReservationTime()));
+        BitSet instructors = busy.get(key);
+        Integer bit = ordinals.get(reservation.getInstructorID());
+        if (instructors != null && bit != null) {
+            instructors.clear(bit);
+            if (instructors.isEmpty()) {
+                busy.remove(key);
+            }
+        }
+    }
+
+    private void setWorkingBits(int bit, long[] dayMasks) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            long mask = dayMasks[day.ordinal()];
+            while (mask != 0) {
+                int slot = Long.numberOfTrailingZeros(mask);
+                working[workingIndex(day, slot)].set(bit);
+                mask &= mask - 1;
+            }
+        }
+    }
+
+    private void setSchool(int bit, String school) {
+        if (school != null && !school.isBlank()) {
+            bySchool.computeIfAbsent(normalize(school), k -> new BitSet()).set(bit);
+        }
+    }
+
+    private static int workingIndex(DayOfWeek day, int slot) {
+        return day.ordinal() * TimeSlots.SLOTS_PER_DAY + slot;
+    }
+
+    private static long busyKey(LocalDate date, int slot) {
+        return date.toEpochDay() * TimeSlots.SLOTS_PER_DAY + slot;
+    }
+
+    /**
+     * Returns the instructor's ordinal, giving it the lowest free one if it has none yet.
+     */
+    private int assignBit(Long instructorId) {
+        Integer known = ordinals.get(instructorId);
+        if (known != null) {
+            return known;
+        }
+        int bit = releasedOrdinals.nextSetBit(0);
+        if (bit >= 0) {
+            releasedOrdinals.clear(bit);
+        } else {
+            bit = nextOrdinal++;
+            if (bit == instructorIds.length) {
+                instructorIds = Arrays.copyOf(instructorIds, bit * 2);
+            }
+        }
+        instructorIds[bit] = instructorId;
+        ordinals.put(instructorId, bit);
+        return bit;
+    }
+
+    private static String normalize(String school) {
+        return school.trim().toLowerCase(Locale.ROOT);
+    }
+}
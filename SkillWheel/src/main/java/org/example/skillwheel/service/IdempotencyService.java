@@ -0,0 +1,288 @@
+package org.example.skillwheel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.repository.IdempotencyKeyRepository;
+import org.example.skillwheel.repository.IdempotencyKeyRepository.StoredKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Makes POST requests sent with an {@code Idempotency-Key} header safe to retry: the first request
+ * with a key runs, and later ones get its stored status and body back without running again.
+ * <p>
+ * Recent keys live in a bounded in-memory cache whose entries expire after a fixed TTL; since all
+ * entries live equally long, a FIFO queue of entries is also their expiry order. A duplicate that
+ * arrives while the first request is still running waits for its result. Keys are also claimed in
+ * {@code idempotency_keys} before the request runs, which covers retries that reach another node or
+ * arrive after the cache entry has expired; a retry that finds another node's claim still running
+ * gets 409. Requests that throw or answer 5xx are not stored, so they can be retried. Only the
+ * status and JSON body are replayed, not response headers.
+ * <p>
+ * A claim is never released once its request has returned a response: if storing the response
+ * fails, or the node stops in between, the request may already have written its data, so running
+ * it again could create a duplicate. Such a claim keeps answering 409 until it is purged with the
+ * other keys after the retention period.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Logger LOGGER = Logger.getLogger(IdempotencyService.class.getName());
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record StoredResponse(int status, String body) {
+    }
+
+    private static final class Entry {
+        private final String cacheKey;
+        private final String requestHash;
+        private final long expiresAt;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        private Entry(String cacheKey, String requestHash, long expiresAt) {
+            this.cacheKey = cacheKey;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final int cacheSize;
+    private final long cacheTtlNanos;
+    private final Duration retention;
+    private final Duration claimTimeout;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper,
+                              @Value("${skillwheel.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${skillwheel.idempotency.cache-ttl:PT10M}") Duration cacheTtl,
+                              @Value("${skillwheel.idempotency.retention:PT24H}") Duration retention,
+                              @Value("${skillwheel.idempotency.claim-timeout:PT5M}") Duration claimTimeout) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Idempotency cache size must be a positive number");
+        }
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.cacheSize = cacheSize;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.retention = retention;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Runs {@code action} once per key within {@code scope}; without a key it simply runs it.
+     *
+     * @param request the request body, compared across retries so a key cannot be reused for another request
+     * @throws IllegalArgumentException     if the key is malformed or was used for a different request
+     * @throws ReservationConflictException if a request with this key is still running on another node
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(request);
+        String cacheKey = scope + ' ' + key;
+        evict();
+        while (true) {
+            long now = System.nanoTime();
+            Entry entry = new Entry(cacheKey, requestHash, now + cacheTtlNanos);
+            Entry existing = entries.putIfAbsent(cacheKey, entry);
+            if (existing == null) {
+                insertionOrder.add(entry);
+                return run(scope, key, entry, action);
+            }
+            if (existing.result.isDone() && existing.isExpired(now)) {
+                entries.remove(cacheKey, existing);
+                continue;
+            }
+            if (!existing.requestHash.equals(requestHash)) {
+                throw new IllegalArgumentException(HEADER + " was already used for a different request");
+            }
+            return replay(await(existing));
+        }
+    }
+
+    public int cachedCount() {
+        return entries.size();
+    }
+
+    @Scheduled(cron = "${skillwheel.idempotency.purge-cron:0 */10 * * * *}")
+    public void purgeExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteOlderThan(retention);
+        if (deleted > 0) {
+            LOGGER.info("Purged " + deleted + " idempotency keys");
+        }
+    }
+
+    /**
+     * Runs a request that owns a fresh cache entry. Every path completes the entry, so duplicates
+     * waiting on it never hang.
+     */
+    private ResponseEntity<?> run(String scope, String key, Entry entry, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            if (!idempotencyKeyRepository.claim(scope, key, entry.requestHash)) {
+                StoredResponse stored = storedResponse(scope, key, entry.requestHash);
+                entry.result.complete(stored);
+                return replay(stored);
+            }
+        } catch (RuntimeException e) {
+            fail(entry, e);
+            throw e;
+        }
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(scope, key);
+            fail(entry, e);
+            throw e;
+        }
+        StoredResponse stored;
+        try {
+            stored = new StoredResponse(response.getStatusCode().value(), writeBody(response.getBody()));
+        } catch (RuntimeException e) {
+            release(scope, key);
+            fail(entry, e);
+            return response;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            release(scope, key);
+            entries.remove(entry.cacheKey, entry);
+        } else {
+            try {
+                idempotencyKeyRepository.complete(scope, key, stored.status(), stored.body());
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Could not store the response for " + HEADER + " " + key
+                        + "; retries reaching other nodes get 409 until the key is purged", e);
+            }
+        }
+        entry.result.complete(stored);
+        return response;
+    }
+
+    /**
+     * Response stored by a claim that this node does not have in its cache.
+     */
+    private StoredResponse storedResponse(String scope, String key, String requestHash) {
+        StoredKey stored = idempotencyKeyRepository.find(scope, key)
+                .orElseThrow(() -> new ReservationConflictException("A request with this " + HEADER
+                        + " has just failed; retry it"));
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        if (stored.status() == null) {
+            if (stored.age().compareTo(claimTimeout) >= 0) {
+                throw new ReservationConflictException("A request with this " + HEADER + " did not finish and"
+                        + " may have been applied; it will not run again, check the result instead");
+            }
+            throw new ReservationConflictException("A request with this " + HEADER + " is still in progress");
+        }
+        return new StoredResponse(stored.status(), stored.body());
+    }
+
+    private void fail(Entry entry, Throwable e) {
+        entries.remove(entry.cacheKey, entry);
+        entry.result.completeExceptionally(e);
+    }
+
+    private void release(String scope, String key) {
+        try {
+            idempotencyKeyRepository.release(scope, key);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not release " + HEADER + " " + key, e);
+        }
+    }
+
+    /**
+     * Drops expired entries and, past the size limit, the oldest ones. Entries still running keep
+     * their place, so the queue stays in expiry order.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (oldest.isExpired(now) || entries.size() > cacheSize)
+                && oldest.result.isDone()) {
+            if (insertionOrder.remove(oldest)) {
+                entries.remove(oldest.cacheKey, oldest);
+            }
+        }
+    }
+
+    private static StoredResponse await(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ResponseEntity<?> replay(StoredResponse stored) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status())
+                .header("Idempotent-Replayed", "true");
+        return stored.body() == null
+                ? builder.build()
+                : builder.contentType(MediaType.APPLICATION_JSON).body(stored.body());
+    }
+
+    private String writeBody(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return body instanceof String text ? text : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response for replay", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] bytes = request instanceof String text
+                    ? text.getBytes(StandardCharsets.UTF_8)
+                    : objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be fingerprinted");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
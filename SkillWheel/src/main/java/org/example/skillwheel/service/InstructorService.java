@@ -1,10 +1,17 @@
 package org.example.skillwheel.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.skillwheel.dto.InstructorSummary;
+import org.example.skillwheel.exception.PreconditionFailedException;
 import org.example.skillwheel.model.Instructor;
 import org.example.skillwheel.repository.InstructorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,41 +19,124 @@ import java.util.Optional;
 public class InstructorService {
 
     private final InstructorRepository instructorRepository;
+    private final WorkingHoursService workingHoursService;
+    private final FreeInstructorIndex freeInstructorIndex;
+    private final PasswordHasher passwordHasher;
+    private final KnownEmails knownEmails;
+    private final EntityCache<Instructor> cache;
+    private final double searchSimilarityThreshold;
 
     @Autowired
-    public InstructorService(InstructorRepository instructorRepository) {
+    public InstructorService(InstructorRepository instructorRepository, WorkingHoursService workingHoursService,
+                             FreeInstructorIndex freeInstructorIndex, PasswordHasher passwordHasher,
+                             KnownEmails knownEmails, MeterRegistry meterRegistry,
+                             @Value("${skillwheel.entity-cache.maximum-size:10000}") long cacheSize,
+                             @Value("${skillwheel.entity-cache.ttl:PT10M}") Duration cacheTtl,
+                             @Value("${skillwheel.search.similarity-threshold:0.4}") double searchSimilarityThreshold) {
         this.instructorRepository = instructorRepository;
+        this.workingHoursService = workingHoursService;
+        this.freeInstructorIndex = freeInstructorIndex;
+        this.passwordHasher = passwordHasher;
+        this.knownEmails = knownEmails;
+        this.cache = new EntityCache<>("instructors", meterRegistry, cacheSize, cacheTtl);
+        this.searchSimilarityThreshold = searchSimilarityThreshold;
     }
 
     public List<Instructor> getAllInstructors() {
         return instructorRepository.findAll();
     }
 
+    /**
+     * Lists instructors without loading entities; only the columns shown in lists are selected.
+     */
+    public List<InstructorSummary> getInstructorSummaries() {
+        return instructorRepository.findAllSummaries();
+    }
+
+    /**
+     * Ranked prefix and typo-tolerant search over name, surname, email and school.
+     *
+     * @throws IllegalArgumentException if the query is blank or the limit is not between 1 and 100
+     */
+    @Transactional(readOnly = true)
+    public List<InstructorSummary> searchInstructors(String query, int limit) {
+        return instructorRepository.searchSummaries(query, limit, searchSimilarityThreshold);
+    }
+
+    /**
+     * Served from the entity cache, which is invalidated by every update and delete below.
+     */
     public Optional<Instructor> getInstructorById(Long id) {
-        return instructorRepository.findById(id);
+        return cache.get(id, instructorRepository::findById);
     }
 
     public boolean existsByEmail(String email) {
-        return instructorRepository.existsByEmail(email);
+        return knownEmails.mightBeInstructor(email) && instructorRepository.existsByEmail(email);
     }
 
-    public Instructor addInstructor(Instructor instructor) {
-        return instructorRepository.save(instructor);
+    /**
+     * Adds an instructor unless the email is taken. A known duplicate is turned away before its
+     * password is hashed; a concurrent one is caught by the insert itself.
+     *
+     * @return the saved instructor, or empty if an instructor with this email already exists
+     */
+    public Optional<Instructor> addInstructor(Instructor instructor) {
+        if (existsByEmail(instructor.getEmail())) {
+            return Optional.empty();
+        }
+        instructor.setPassword(passwordHasher.hash(instructor.getPassword()));
+        return instructorRepository.insertIfEmailFree(instructor).map(id -> {
+            instructor.setId(id);
+            instructor.setVersion(0L);
+            knownEmails.addInstructor(instructor.getEmail());
+            freeInstructorIndex.addInstructor(id, instructor.getNameOfSchool());
+            return instructor;
+        });
     }
 
-    public Optional<Instructor> updateInstructor(Long id, Instructor updatedInstructor) {
+    /**
+     * Overwrites an instructor under the same version check as
+     * {@link StudentService#updateStudent(Long, org.example.skillwheel.model.Student, Long)}.
+     *
+     * @param expectedVersion version from the {@code If-Match} header, or {@code null} for none
+     * @throws PreconditionFailedException if the instructor no longer has the expected version
+     */
+    public Optional<Instructor> updateInstructor(Long id, Instructor updatedInstructor, Long expectedVersion) {
         return instructorRepository.findById(id).map(instructor -> {
+            if (expectedVersion != null && !expectedVersion.equals(instructor.getVersion())) {
+                throw new PreconditionFailedException("Instructor " + id + " has been modified since version "
+                        + expectedVersion);
+            }
             instructor.setName(updatedInstructor.getName());
             instructor.setSurname(updatedInstructor.getSurname());
             instructor.setEmail(updatedInstructor.getEmail());
-            instructor.setPassword(updatedInstructor.getPassword());
-            return instructorRepository.save(instructor);
+            // A client sending back the stored hash unchanged keeps its password.
+            if (!updatedInstructor.getPassword().equals(instructor.getPassword())) {
+                instructor.setPassword(passwordHasher.hash(updatedInstructor.getPassword()));
+            }
+            Instructor saved;
+            try {
+                saved = instructorRepository.save(instructor);
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException("Instructor " + id + " has been modified since version "
+                            + expectedVersion);
+                }
+                throw e;
+            }
+            cache.invalidate(id);
+            knownEmails.addInstructor(saved.getEmail());
+            freeInstructorIndex.updateSchool(saved.getId(), saved.getNameOfSchool());
+            return saved;
         });
     }
 
     public boolean deleteInstructor(Long id) {
         return instructorRepository.findById(id).map(instructor -> {
             instructorRepository.delete(instructor);
+            cache.invalidate(id);
+            workingHoursService.removeWorkingHours(id);
+            freeInstructorIndex.removeInstructor(id);
             return true;
         }).orElse(false);
     }
@@ -0,0 +1,86 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.repository.InstructorRepository;
+import org.example.skillwheel.repository.StudentRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bloom filters over the emails of all students and instructors, so signups with a definitely new
+ * email skip the {@code existsByEmail} query. A "maybe" still goes to the database, and uniqueness
+ * itself is enforced by the unique email indexes; the filters only save round trips.
+ * <p>
+ * The filters are filled once at startup and then from every successful insert or email change.
+ * Emails that are deleted or changed stay in the filter as false positives until the next restart.
+ * Until loading has finished every email counts as possibly taken.
+ */
+@Component
+public class KnownEmails implements SmartInitializingSingleton {
+
+    private static final Logger LOGGER = Logger.getLogger(KnownEmails.class.getName());
+
+    private final StudentRepository studentRepository;
+    private final InstructorRepository instructorRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BloomFilter studentEmails;
+    private final BloomFilter instructorEmails;
+    private volatile boolean loaded;
+
+    @Autowired
+    public KnownEmails(StudentRepository studentRepository, InstructorRepository instructorRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${skillwheel.known-emails.expected-per-role:1000000}") long expectedPerRole,
+                       @Value("${skillwheel.known-emails.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.studentRepository = studentRepository;
+        this.instructorRepository = instructorRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.studentEmails = new BloomFilter(expectedPerRole, falsePositiveRate);
+        this.instructorEmails = new BloomFilter(expectedPerRole, falsePositiveRate);
+    }
+
+    /**
+     * Inserts racing with the load add to the same filters, so nothing committed meanwhile is lost.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            long started = System.nanoTime();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                studentRepository.forEachEmail(studentEmails::add);
+                instructorRepository.forEachEmail(instructorEmails::add);
+            });
+            loaded = true;
+            LOGGER.info("Loaded known emails in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not load known emails; every signup will query the database", e);
+        }
+    }
+
+    public boolean mightBeStudent(String email) {
+        return !loaded || email == null || studentEmails.mightContain(email);
+    }
+
+    public boolean mightBeInstructor(String email) {
+        return !loaded || email == null || instructorEmails.mightContain(email);
+    }
+
+    public void addStudent(String email) {
+        if (email != null) {
+            studentEmails.add(email);
+        }
+    }
+
+    public void addInstructor(String email) {
+        if (email != null) {
+            instructorEmails.add(email);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.model.Reservation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Stand-in {@link ReminderSender} that only logs the reminders it would send.
+ */
+@Component
+public class LoggingReminderSender implements ReminderSender {
+
+    private static final Logger LOGGER = Logger.getLogger(LoggingReminderSender.class.getName());
+
+    @Override
+    public void send(List<Reservation> reservations) {
+        for (Reservation reservation : reservations) {
+            LOGGER.info("Reminder for reservation " + reservation.getId() + ": student " + reservation.getStudentID()
+                    + " and instructor " + reservation.getInstructorID() + " on " + reservation.getReservationDate()
+                    + " at " + reservation.getReservationTime() + ", " + reservation.getReservationPlace());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.skillwheel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.skillwheel.exception.ServiceBusyException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashes student and instructor passwords with BCrypt on a dedicated pool, so a burst of
+ * registrations cannot occupy every request thread with CPU-bound hashing.
+ * <p>
+ * The pool has one thread per core and a bounded queue; when the queue is full the request is
+ * rejected with {@link ServiceBusyException} (503) instead of piling up. Queue depth, active hashes,
+ * rejections and hash time are published as {@code skillwheel.password.hashing.*} metrics. On
+ * startup the pool measures how long each cost factor takes on this machine and logs the highest
+ * one within {@code skillwheel.password.latency-budget}, to guide the choice of
+ * {@code skillwheel.password.bcrypt-cost}.
+ */
+@Service
+public class PasswordHasher implements SmartInitializingSingleton {
+
+    private static final Logger LOGGER = Logger.getLogger(PasswordHasher.class.getName());
+
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 16;
+    private static final String BENCHMARK_PASSWORD = "benchmark-password-1";
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final Duration latencyBudget;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Timer hashTime;
+
+    @Autowired
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${skillwheel.password.bcrypt-cost:10}") int cost,
+                          @Value("${skillwheel.password.hashing-threads:0}") int threads,
+                          @Value("${skillwheel.password.queue-capacity:64}") int queueCapacity,
+                          @Value("${skillwheel.password.latency-budget:PT0.25S}") Duration latencyBudget) {
+        if (cost < MIN_COST || cost > MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN_COST + " and " + MAX_COST);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Password hashing queue capacity must be a positive number");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.latencyBudget = latencyBudget;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("skillwheel.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Passwords waiting to be hashed")
+                .register(meterRegistry);
+        Gauge.builder("skillwheel.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Passwords being hashed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("skillwheel.password.hashing.rejected")
+                .description("Hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+        this.hashTime = Timer.builder("skillwheel.password.hashing.time")
+                .description("Time spent hashing one password, excluding queueing")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            executor.execute(this::logRecommendedCost);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("Skipping the BCrypt cost benchmark, the hashing pool is busy");
+        }
+    }
+
+    /**
+     * Hashes a raw password on the hashing pool, waiting for the result.
+     *
+     * @throws ServiceBusyException if too many passwords are already waiting
+     */
+    public String hash(String rawPassword) {
+        return submit(() -> hashTime.record(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String hashedPassword) {
+        return submit(() -> encoder.matches(rawPassword, hashedPassword));
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * Time one hash takes at the given cost on this machine, measured on the calling thread.
+     */
+    public Duration measure(int cost) {
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(cost);
+        candidate.encode(BENCHMARK_PASSWORD);
+        long started = System.nanoTime();
+        candidate.encode(BENCHMARK_PASSWORD);
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many passwords are being processed, try again shortly");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Each cost step doubles the work, so the search stops at the first cost over budget and takes
+     * about twice the budget in total.
+     */
+    private void logRecommendedCost() {
+        try {
+            int recommended = MIN_COST;
+            Duration configured = null;
+            for (int candidate = MIN_COST; candidate <= MAX_COST; candidate++) {
+                Duration took = measure(candidate);
+                if (candidate == cost) {
+                    configured = took;
+                }
+                if (took.compareTo(latencyBudget) > 0) {
+                    break;
+                }
+                recommended = candidate;
+            }
+            String measured = configured != null ? configured.toMillis() + " ms" : "over the budget";
+            String message = "BCrypt cost " + cost + " takes " + measured + " per hash; the highest cost within the "
+                    + latencyBudget.toMillis() + " ms budget on this machine is " + recommended;
+            LOGGER.log(recommended < cost ? Level.WARNING : Level.INFO, message);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "BCrypt cost benchmark failed", e);
+        }
+    }
+}
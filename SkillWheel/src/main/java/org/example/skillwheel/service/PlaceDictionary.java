@@ -0,0 +1,111 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.repository.PlaceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-way cache between meeting place IDs and names, so mapping a reservation to or from its row
+ * never queries {@code places}.
+ * <p>
+ * A place never changes its ID or name, so entries are never invalidated. An unknown ID reloads
+ * the whole (small) table, which also picks up places created on other nodes.
+ * <p>
+ * New names are inserted by {@link #resolve}, which writers call before they open their own
+ * transaction: the insert commits on its own, so a place referenced from a cached ID always exists
+ * even if the booking that introduced it rolls back, and no request holds two pooled connections.
+ * {@link #idOf}, used while mapping rows inside a transaction, only reads. Place names are free text
+ * from clients, so the table is capped at {@code skillwheel.places.max-count} entries; beyond that
+ * only existing places can be booked.
+ */
+@Component
+public class PlaceDictionary {
+
+    private final PlaceRepository placeRepository;
+    private final TransactionTemplate newTransaction;
+    private final int maxCount;
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    /**
+     * The transaction manager is lazy because the JPA attribute converter needs this bean while
+     * the entity manager factory behind that transaction manager is still being built.
+     */
+    @Autowired
+    public PlaceDictionary(PlaceRepository placeRepository, @Lazy PlatformTransactionManager transactionManager,
+                           @Value("${skillwheel.places.max-count:10000}") int maxCount) {
+        this.placeRepository = placeRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * Returns the ID of the place, inserting it if it is new. Call it before opening the
+     * transaction that writes the reservation.
+     *
+     * @throws IllegalArgumentException if the place is new and the dictionary is full
+     */
+    public int resolve(String name) {
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            reload();
+            id = idsByName.get(name);
+        }
+        if (id == null) {
+            if (namesById.size() >= maxCount) {
+                throw new IllegalArgumentException("Unknown reservation place: " + name);
+            }
+            id = newTransaction.execute(status -> placeRepository.findOrCreate(name));
+            remember(id, name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ID of a place already {@link #resolve resolved}, without writing.
+     *
+     * @throws IllegalStateException if the place does not exist
+     */
+    public int idOf(String name) {
+        Integer id = idsByName.get(name);
+        if (id == null) {
+            reload();
+            id = idsByName.get(name);
+            if (id == null) {
+                throw new IllegalStateException("Place was not resolved before writing: " + name);
+            }
+        }
+        return id;
+    }
+
+    public String nameOf(int id) {
+        String name = namesById.get(id);
+        if (name == null) {
+            reload();
+            name = namesById.get(id);
+            if (name == null) {
+                throw new IllegalStateException("Unknown place ID: " + id);
+            }
+        }
+        return name;
+    }
+
+    private synchronized void reload() {
+        placeRepository.findAll().forEach(this::remember);
+    }
+
+    private void remember(Integer id, String name) {
+        namesById.put(id, name);
+        idsByName.put(name, id);
+    }
+}
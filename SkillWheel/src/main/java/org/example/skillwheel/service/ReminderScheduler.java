@@ -0,0 +1,253 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends a reminder a fixed lead time before each lesson starts.
+ * <p>
+ * Pending reminders sit in a hashed timing wheel: an array of buckets, one per tick, each holding a
+ * doubly linked list of timers. A timer goes into the bucket of its deadline tick modulo the wheel
+ * size, and a map from reservation ID to timer lets a change cancel it by unlinking, so scheduling
+ * and cancelling are O(1). Every tick visits one bucket and fires the timers whose deadline has
+ * passed; timers a full turn or more ahead stay where they are.
+ * <p>
+ * Only one window of reminders is kept ahead of the clock: when less than a window is loaded, the
+ * next one is read from the database in one range query. Reservation changes inside the loaded
+ * range are applied from {@link ReservationChangedEvent}s. A lesson booked or moved so late that its
+ * reminder time has already passed gets no reminder. Reservation dates and times are local, so the
+ * wheel counts ticks on the local timeline.
+ */
+@Service
+public class ReminderScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(ReminderScheduler.class.getName());
+
+    private static final class Timer {
+        private final Reservation reservation;
+        private final long deadline;
+        private Timer previous;
+        private Timer next;
+
+        private Timer(Reservation reservation, long deadline) {
+            this.reservation = reservation;
+            this.deadline = deadline;
+        }
+    }
+
+    private final ReservationRepository reservationRepository;
+    private final ReminderSender reminderSender;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration lead;
+    private final Duration window;
+    private final long tickMillis;
+    private final int batchSize;
+
+    private final Timer[] wheel;
+    private final int mask;
+    private final Map<Long, Timer> timers = new HashMap<>();
+    private long currentTick;
+    private LocalDateTime loadedUntil;
+    private LocalDateTime loadingUntil;
+    private Set<Long> changedWhileLoading;
+
+    @Autowired
+    public ReminderScheduler(ReservationRepository reservationRepository, ReminderSender reminderSender,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${skillwheel.reminders.lead:PT24H}") Duration lead,
+                             @Value("${skillwheel.reminders.window:PT1H}") Duration window,
+                             @Value("${skillwheel.reminders.tick:PT1M}") Duration tick,
+                             @Value("${skillwheel.reminders.wheel-size:512}") int wheelSize,
+                             @Value("${skillwheel.reminders.batch-size:100}") int batchSize) {
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Reminder wheel size must be a power of two");
+        }
+        if (tick.toMillis() < 1 || window.compareTo(tick) < 0) {
+            throw new IllegalArgumentException("Reminder tick must be positive and not longer than the window");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Reminder batch size must be a positive number");
+        }
+        this.reservationRepository = reservationRepository;
+        this.reminderSender = reminderSender;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.lead = lead;
+        this.window = window;
+        this.tickMillis = tick.toMillis();
+        this.batchSize = batchSize;
+        this.wheel = new Timer[wheelSize];
+        this.mask = wheelSize - 1;
+    }
+
+    @Scheduled(fixedDelayString = "${skillwheel.reminders.tick:PT1M}")
+    public void tick() {
+        advanceTo(LocalDateTime.now());
+    }
+
+    /**
+     * Loads the next window if needed and sends every reminder due up to {@code now}.
+     *
+     * @return number of reminders sent
+     */
+    public int advanceTo(LocalDateTime now) {
+        loadAhead(now);
+        List<Reservation> due;
+        synchronized (this) {
+            due = expire(tickOf(now));
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Reservation> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                reminderSender.send(batch);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Sending " + batch.size() + " lesson reminders failed", e);
+            }
+        }
+        return due.size();
+    }
+
+    public synchronized int pendingCount() {
+        return timers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (changedWhileLoading != null) {
+            changedWhileLoading.add(event.reservationId());
+        }
+        Timer cancelled = timers.remove(event.reservationId());
+        if (cancelled != null) {
+            unlink(cancelled);
+        }
+        Reservation current = event.current();
+        if (current != null && loadingUntil != null) {
+            LocalDateTime remindAt = remindAt(current);
+            if (remindAt.isBefore(loadingUntil) && tickOf(remindAt) > currentTick) {
+                schedule(current);
+            }
+        }
+    }
+
+    /**
+     * Reads the reminders of the next window once less than a window is loaded. The query runs
+     * outside the lock; rows changed by events meanwhile are skipped, the event being newer.
+     */
+    private void loadAhead(LocalDateTime now) {
+        LocalDateTime from;
+        LocalDateTime to;
+        synchronized (this) {
+            if (loadedUntil == null) {
+                loadedUntil = now;
+                loadingUntil = now;
+                currentTick = tickOf(now) - 1;
+            }
+            if (!loadedUntil.isBefore(now.plus(window))) {
+                return;
+            }
+            from = loadedUntil.isBefore(now) ? now : loadedUntil;
+            to = from.plus(window);
+            loadingUntil = to;
+            changedWhileLoading = new HashSet<>();
+        }
+        List<Reservation> loaded = new ArrayList<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> reservationRepository.forEachReservationStartingBetween(
+                    from.plus(lead), to.plus(lead), loaded::add));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loadingUntil = loadedUntil;
+                changedWhileLoading = null;
+            }
+            LOGGER.log(Level.WARNING, "Loading lesson reminders from " + from + " failed", e);
+            return;
+        }
+        synchronized (this) {
+            for (Reservation reservation : loaded) {
+                if (!changedWhileLoading.contains(reservation.getId())) {
+                    schedule(reservation);
+                }
+            }
+            loadedUntil = to;
+            changedWhileLoading = null;
+        }
+    }
+
+    /**
+     * Removes and returns the reminders due up to {@code targetTick}. Each bucket is visited at
+     * most once, however long the clock has jumped.
+     */
+    private List<Reservation> expire(long targetTick) {
+        List<Reservation> due = new ArrayList<>();
+        long last = Math.min(targetTick, currentTick + wheel.length);
+        for (long tick = currentTick + 1; tick <= last; tick++) {
+            Timer timer = wheel[(int) (tick & mask)];
+            while (timer != null) {
+                Timer next = timer.next;
+                if (timer.deadline <= targetTick) {
+                    unlink(timer);
+                    timers.remove(timer.reservation.getId());
+                    due.add(timer.reservation);
+                }
+                timer = next;
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    private void schedule(Reservation reservation) {
+        Timer timer = new Timer(reservation, Math.max(tickOf(remindAt(reservation)), currentTick + 1));
+        Timer replaced = timers.put(reservation.getId(), timer);
+        if (replaced != null) {
+            unlink(replaced);
+        }
+        int bucket = (int) (timer.deadline & mask);
+        timer.next = wheel[bucket];
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        wheel[bucket] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            wheel[(int) (timer.deadline & mask)] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+    }
+
+    private LocalDateTime remindAt(Reservation reservation) {
+        return reservation.getReservationDate().atTime(reservation.getReservationTime()).minus(lead);
+    }
+
+    private long tickOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC) * 1000, tickMillis);
+    }
+}
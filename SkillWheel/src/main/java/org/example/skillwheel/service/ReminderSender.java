@@ -0,0 +1,18 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.model.Reservation;
+
+import java.util.List;
+
+/**
+ * Delivers lesson reminders produced by {@link ReminderScheduler}. Register a {@code @Primary} bean
+ * to replace the logging stand-in.
+ */
+public interface ReminderSender {
+
+    /**
+     * Sends one reminder per reservation. Called from the scheduler thread; a failure is logged and
+     * the batch is not retried.
+     */
+    void send(List<Reservation> reservations);
+}
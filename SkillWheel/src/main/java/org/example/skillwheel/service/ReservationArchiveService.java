@@ -0,0 +1,99 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationArchiveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Moves reservations older than the configured horizon from {@code reservations} into
+ * {@code reservations_archive}, keeping the live table limited to recent and upcoming lessons.
+ * <p>
+ * Rows are moved in small batches, each in its own short transaction, with a pause in between so
+ * the job never holds many row locks or saturates the database while bookings are being made.
+ * The in-memory indexes only track upcoming days and are not affected.
+ */
+@Service
+public class ReservationArchiveService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationArchiveService.class.getName());
+
+    private final ReservationArchiveRepository archiveRepository;
+    private final ReservationOwnerVersions ownerVersions;
+    private final TransactionTemplate transaction;
+    private final Period horizon;
+    private final int batchSize;
+    private final Duration pause;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public ReservationArchiveService(ReservationArchiveRepository archiveRepository,
+                                     ReservationOwnerVersions ownerVersions,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${skillwheel.archive.horizon:P30D}") Period horizon,
+                                     @Value("${skillwheel.archive.batch-size:1000}") int batchSize,
+                                     @Value("${skillwheel.archive.pause:PT0.2S}") Duration pause) {
+        if (horizon.isNegative() || horizon.isZero()) {
+            throw new IllegalArgumentException("Archive horizon must be positive");
+        }
+        this.archiveRepository = archiveRepository;
+        this.ownerVersions = ownerVersions;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @Scheduled(cron = "${skillwheel.archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        archive();
+    }
+
+    /**
+     * Archives every reservation dated before today minus the horizon.
+     *
+     * @return number of reservations moved, 0 if a run is already in progress
+     */
+    public int archive() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        LocalDate cutoff = LocalDate.now().minus(horizon);
+        int total = 0;
+        try {
+            archiveRepository.findArchivableYears(cutoff).forEach(archiveRepository::createPartition);
+            int moved;
+            do {
+                moved = transaction.execute(status -> {
+                    List<Reservation> batch = archiveRepository.archiveBatch(cutoff, batchSize);
+                    ownerVersions.changed(batch.stream().map(Reservation::getInstructorID).toList(),
+                            batch.stream().map(Reservation::getStudentID).toList());
+                    return batch.size();
+                });
+                total += moved;
+                if (moved == batchSize) {
+                    Thread.sleep(pause.toMillis());
+                }
+            } while (moved == batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+        if (total > 0) {
+            LOGGER.info("Archived " + total + " reservations dated before " + cutoff);
+        }
+        return total;
+    }
+}
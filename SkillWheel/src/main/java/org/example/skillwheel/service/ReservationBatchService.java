@@ -0,0 +1,183 @@
+package org.example.skillwheel.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.skillwheel.dto.BatchJobStatus;
+import org.example.skillwheel.exception.ServiceBusyException;
+import org.example.skillwheel.model.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Validates and inserts large lists of reservations. Small batches are written synchronously in
+ * one transaction; larger ones run in the background in chunks, each chunk in its own transaction,
+ * and report progress through {@link #getJob(UUID)}.
+ * <p>
+ * Background jobs run on a small pool with a bounded queue, since each waiting job holds its whole
+ * list of reservations; when the queue is full a new job is rejected with
+ * {@link ServiceBusyException} (503) instead of piling up.
+ */
+@Service
+public class ReservationBatchService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationBatchService.class.getName());
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final ReservationService reservationService;
+    private final Validator validator;
+    private final int maxSize;
+    private final int syncThreshold;
+    private final int chunkSize;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReservationBatchService(ReservationService reservationService, Validator validator,
+                                   @Value("${skillwheel.reservation-batch.max-size:10000}") int maxSize,
+                                   @Value("${skillwheel.reservation-batch.sync-threshold:500}") int syncThreshold,
+                                   @Value("${skillwheel.reservation-batch.chunk-size:500}") int chunkSize,
+                                   @Value("${skillwheel.reservation-batch.threads:2}") int threads,
+                                   @Value("${skillwheel.reservation-batch.queue-capacity:4}") int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Reservation batch threads and queue capacity must be positive numbers");
+        }
+        this.reservationService = reservationService;
+        this.validator = validator;
+        this.maxSize = maxSize;
+        this.syncThreshold = syncThreshold;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "reservation-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Validates the whole batch in one pass. Keys are prefixed with the position in the list,
+     * e.g. {@code [3].reservationDate}.
+     */
+    public Map<String, String> validate(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one reservation");
+        }
+        if (reservations.size() > maxSize) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + maxSize + " reservations");
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation reservation = reservations.get(i);
+            if (reservation == null) {
+                errors.put("[" + i + "]", "Reservation is required");
+                continue;
+            }
+            if (reservation.getId() != null) {
+                errors.put("[" + i + "].id", "New reservation should not have an ID");
+            }
+            for (ConstraintViolation<Reservation> violation : validator.validate(reservation)) {
+                errors.put("[" + i + "]." + violation.getPropertyPath(), violation.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    public boolean runsAsynchronously(List<Reservation> reservations) {
+        return reservations.size() > syncThreshold;
+    }
+
+    public List<Reservation> insert(List<Reservation> reservations) {
+        return reservationService.addReservations(reservations);
+    }
+
+    /**
+     * Queues the batch for background insertion.
+     *
+     * @throws ServiceBusyException if too many batches are already waiting
+     */
+    public BatchJobStatus submit(List<Reservation> reservations) {
+        Job job = new Job(UUID.randomUUID(), reservations.size());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, reservations));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceBusyException("Too many reservation batches are being imported, try again shortly");
+        }
+        return job.status();
+    }
+
+    public Optional<BatchJobStatus> getJob(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::status);
+    }
+
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void run(Job job, List<Reservation> reservations) {
+        job.state = "RUNNING";
+        int from = 0;
+        try {
+            for (; from < reservations.size(); from += chunkSize) {
+                List<Reservation> chunk = reservations.subList(from, Math.min(from + chunkSize, reservations.size()));
+                reservationService.addReservations(chunk);
+                job.created += chunk.size();
+            }
+            job.state = "COMPLETED";
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Reservation batch " + job.id + " failed after " + job.created + " rows", e);
+            job.error = "Chunk starting at [" + from + "] was rolled back: " + e.getMessage();
+            job.state = "FAILED";
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    private static final class Job {
+        private final UUID id;
+        private final int total;
+        private final Instant submittedAt = Instant.now();
+        private volatile String state = "PENDING";
+        private volatile int created;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private Job(UUID id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+
+        private BatchJobStatus status() {
+            return BatchJobStatus.of(id, state, total, created, error, submittedAt);
+        }
+    }
+}
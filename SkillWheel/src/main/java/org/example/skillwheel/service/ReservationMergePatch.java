@@ -0,0 +1,101 @@
+package org.example.skillwheel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.skillwheel.model.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a JSON Merge Patch (RFC 7396) document for a reservation into typed column values.
+ * <p>
+ * Every reservation field is required, so a {@code null} member (which would remove the field)
+ * is rejected, as are the ID and unknown members.
+ */
+@Component
+public class ReservationMergePatch {
+
+    private record Field(String column, Class<?> type) {
+    }
+
+    private static final Map<String, Field> FIELDS = Map.of(
+            "isReserved", new Field("is_reserved", Boolean.class),
+            "studentID", new Field("student_id", Long.class),
+            "instructorID", new Field("instructor_id", Long.class),
+            "reservationDate", new Field("reservation_date", LocalDate.class),
+            "reservationTime", new Field("reservation_time", LocalTime.class),
+            "reservationPlace", new Field("reservation_place", String.class));
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Autowired
+    public ReservationMergePatch(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Converts the patch into new values keyed by reservation field name, in document order.
+     *
+     * @throws IllegalArgumentException if the document is not an object or touches a field it may not
+     */
+    public Map<String, Object> read(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            String name = member.getKey();
+            if ("id".equals(name)) {
+                throw new IllegalArgumentException("Reservation ID cannot be changed");
+            }
+            Field field = FIELDS.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown reservation field: " + name);
+            }
+            if (member.getValue().isNull()) {
+                throw new IllegalArgumentException("Field " + name + " is required and cannot be removed");
+            }
+            try {
+                changes.put(name, objectMapper.treeToValue(member.getValue(), field.type()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid value for field " + name);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Applies the bean validation constraints of {@link Reservation} to the changed fields only.
+     */
+    public Map<String, String> validate(Map<String, Object> changes) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        changes.forEach((name, value) -> {
+            for (ConstraintViolation<Reservation> violation : validator.validateValue(Reservation.class, name, value)) {
+                errors.putIfAbsent(name, violation.getMessage());
+            }
+        });
+        return errors;
+    }
+
+    /**
+     * Re-keys the changes by database column for {@link org.example.skillwheel.repository.ReservationJdbcRepository#updateColumns}.
+     */
+    static Map<String, Object> toColumns(Map<String, Object> changes) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        changes.forEach((name, value) -> columns.put(FIELDS.get(name).column(), value));
+        return columns;
+    }
+}
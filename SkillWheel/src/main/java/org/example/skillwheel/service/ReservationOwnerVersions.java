@@ -0,0 +1,89 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the change counters of instructors' and students' reservations
+ * ({@code reservation_owner_versions}) behind the reservation list and calendar ETags.
+ * <p>
+ * The owners a transaction touches are collected while it runs and bumped in the same transaction
+ * just before it commits, with one statement and in key order. The counter rows are locked only
+ * while the commit happens, two writers lock the owners they share in the same order, and a body
+ * and its tag become visible together. A failed bump fails the write. Writes made outside the
+ * application are counted by the triggers on {@code reservations} (see the V14 migration).
+ */
+@Component
+public class ReservationOwnerVersions {
+
+    private record Owners(SortedSet<Long> instructorIds, SortedSet<Long> studentIds) {
+    }
+
+    private final ReservationRepository reservationRepository;
+
+    @Autowired
+    public ReservationOwnerVersions(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    /**
+     * Runs inside the writing transaction, unlike the listeners that keep derived state, so the
+     * owners of every change are known when it commits.
+     */
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        List<Reservation> touched = Stream.of(event.previous(), event.current()).filter(Objects::nonNull).toList();
+        changed(touched.stream().map(Reservation::getInstructorID).toList(),
+                touched.stream().map(Reservation::getStudentID).toList());
+    }
+
+    /**
+     * Records a change to these owners' reservations. The counters are bumped when the current
+     * transaction commits, or right away outside a transaction.
+     */
+    public void changed(Collection<Long> instructorIds, Collection<Long> studentIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(new Owners(new TreeSet<>(instructorIds), new TreeSet<>(studentIds)));
+            return;
+        }
+        Owners owners = (Owners) TransactionSynchronizationManager.getResource(this);
+        if (owners == null) {
+            Owners collected = new Owners(new TreeSet<>(), new TreeSet<>());
+            TransactionSynchronizationManager.bindResource(this, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    bump(collected);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ReservationOwnerVersions.this);
+                }
+            });
+            owners = collected;
+        }
+        owners.instructorIds().addAll(instructorIds);
+        owners.studentIds().addAll(studentIds);
+    }
+
+    private void bump(Owners owners) {
+        if (owners.instructorIds().isEmpty() && owners.studentIds().isEmpty()) {
+            return;
+        }
+        reservationRepository.bumpOwnerVersions(owners.instructorIds(), owners.studentIds());
+    }
+}
@@ -1,84 +1,461 @@
 package org.example.skillwheel.service;
 
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.exception.PreconditionFailedException;
+import org.example.skillwheel.exception.ReservationConflictException;
 import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationArchiveRepository;
 import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.repository.ReservationUpdate;
+import org.example.skillwheel.service.SlotOccupancyIndex.Booking;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
 
 @Service
 public class ReservationService {
 
+    private static final Logger LOGGER = Logger.getLogger(ReservationService.class.getName());
+
+    /**
+     * SQLSTATE of an exclusion constraint violation; see the {@code reservations_*_no_overlap} constraints.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final long RETRY_BACKOFF_MILLIS = 20;
+
     private final ReservationRepository reservationRepository;
+    private final ReservationArchiveRepository archiveRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final PlaceDictionary placeDictionary;
+    private final BookingLocks bookingLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
 
     @Autowired
-    public ReservationService(ReservationRepository reservationRepository) {
+    public ReservationService(ReservationRepository reservationRepository,
+                              ReservationArchiveRepository archiveRepository, SlotOccupancyIndex occupancyIndex,
+                              PlaceDictionary placeDictionary, BookingLocks bookingLocks, ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${skillwheel.booking.max-attempts:3}") int maxAttempts) {
         this.reservationRepository = reservationRepository;
+        this.archiveRepository = archiveRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.placeDictionary = placeDictionary;
+        this.bookingLocks = bookingLocks;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+    }
+
+    public List<Reservation> getReservationsPage(Long afterId, int limit) {
+        return reservationRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
     }
 
-    public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll();
+    @Transactional(readOnly = true)
+    public void streamAllReservations(Consumer<Reservation> consumer) {
+        reservationRepository.forEachReservation(consumer);
     }
 
     public Optional<Reservation> getReservationById(Long id) {
         return reservationRepository.findById(id);
     }
 
-    public List<Reservation> getReservationsByStudentId(Long studentId) {
-        return reservationRepository.findByStudentID(studentId);
+    /**
+     * ETag of {@link #getReservationsByStudentId}. Read it before the list: a change committed in
+     * between then leaves the tag older than the body, which only costs the client a download.
+     */
+    public String studentReservationsTag(Long studentId, boolean includeArchived) {
+        return EntityTags.reservationList('s', studentId, reservationRepository.studentReservationsVersion(studentId),
+                includeArchived);
+    }
+
+    /**
+     * ETag of {@link #getReservationsByInstructorId}, with the same ordering rule as
+     * {@link #studentReservationsTag}.
+     */
+    public String instructorReservationsTag(Long instructorId, boolean includeArchived) {
+        return EntityTags.reservationList('i', instructorId,
+                reservationRepository.instructorReservationsVersion(instructorId), includeArchived);
     }
 
-    public List<Reservation> getReservationsByInstructorId(Long instructorId) {
-        return reservationRepository.findByInstructorID(instructorId);
+    /**
+     * @param includeArchived also return reservations moved to the archive, listed after the live ones
+     */
+    public List<Reservation> getReservationsByStudentId(Long studentId, boolean includeArchived) {
+        List<Reservation> reservations = reservationRepository.findByStudentID(studentId);
+        if (!includeArchived) {
+            return reservations;
+        }
+        List<Reservation> all = new ArrayList<>(reservations);
+        all.addAll(archiveRepository.findByStudentId(studentId));
+        return all;
     }
 
+    /**
+     * @param includeArchived also return reservations moved to the archive, listed after the live ones
+     */
+    public List<Reservation> getReservationsByInstructorId(Long instructorId, boolean includeArchived) {
+        List<Reservation> reservations = reservationRepository.findByInstructorID(instructorId);
+        if (!includeArchived) {
+            return reservations;
+        }
+        List<Reservation> all = new ArrayList<>(reservations);
+        all.addAll(archiveRepository.findByInstructorId(instructorId));
+        return all;
+    }
+
+    /**
+     * Books a slot. The instructor's booking lock is held until commit, so concurrent bookings of the
+     * same instructor are checked and inserted one after another while other instructors proceed in
+     * parallel. Transient lock or serialization failures are retried.
+     *
+     * @throws ReservationConflictException if the instructor or student slot is already taken
+     */
     public Reservation addReservation(Reservation reservation) {
-        return reservationRepository.save(reservation);
+        resolvePlaces(List.of(reservation));
+        return withRetry(() -> transaction.execute(status -> {
+            Reservation candidate = new Reservation(reservation);
+            Booking booking = Booking.of(candidate);
+            bookingLocks.lockUntilCompletion(booking.instructorId());
+            occupancyIndex.occupy(booking);
+            releaseOnRollback(List.of(booking));
+            Reservation saved = translateExclusionViolation(() -> reservationRepository.saveAndFlush(candidate));
+            eventPublisher.publishEvent(ReservationChangedEvent.created(saved));
+            return saved;
+        }));
     }
 
-    public Optional<Reservation> updateReservationTime(Long id, LocalTime newTime) {
-        return reservationRepository.findById(id).map(reservation -> {
-            reservation.setReservationTime(newTime);
-            return reservationRepository.save(reservation);
+    /**
+     * Inserts all reservations in one transaction using JDBC batching. Slots are claimed in the
+     * occupancy index up front, so a conflict anywhere in the list rejects the whole call before
+     * any row is written.
+     */
+    public List<Reservation> addReservations(List<Reservation> reservations) {
+        resolvePlaces(reservations);
+        return transaction.execute(status -> {
+            List<Booking> claimed = new ArrayList<>(reservations.size());
+            releaseOnRollback(claimed);
+            for (int i = 0; i < reservations.size(); i++) {
+                Booking booking = Booking.of(reservations.get(i));
+                try {
+                    occupancyIndex.occupy(booking);
+                } catch (ReservationConflictException e) {
+                    throw new ReservationConflictException("Reservation [" + i + "]: " + e.getMessage());
+                }
+                claimed.add(booking);
+            }
+            List<Reservation> saved = translateExclusionViolation(() -> reservationRepository.saveAllAndFlush(reservations));
+            saved.forEach(reservation -> eventPublisher.publishEvent(ReservationChangedEvent.created(reservation)));
+            return saved;
         });
     }
 
-    public Optional<Reservation> updateReservationDate(Long id, LocalDate newDate) {
-        return reservationRepository.findById(id).map(reservation -> {
-            reservation.setReservationDate(newDate);
-            return reservationRepository.save(reservation);
+    public Optional<Reservation> updateReservationTime(Long id, LocalTime newTime, Long expectedVersion) {
+        return patchReservation(id, Map.of("reservationTime", newTime), expectedVersion);
+    }
+
+    public Optional<Reservation> updateReservationDate(Long id, LocalDate newDate, Long expectedVersion) {
+        return patchReservation(id, Map.of("reservationDate", newDate), expectedVersion);
+    }
+
+    public Optional<Reservation> updateInstructor(Long id, Long newInstructorId, Long expectedVersion) {
+        return patchReservation(id, Map.of("instructorID", newInstructorId), expectedVersion);
+    }
+
+    public Optional<Reservation> updateStudent(Long id, Long newStudentId, Long expectedVersion) {
+        return patchReservation(id, Map.of("studentID", newStudentId), expectedVersion);
+    }
+
+    public Optional<Reservation> updateReservationPlace(Long id, String newPlace, Long expectedVersion) {
+        return patchReservation(id, Map.of("reservationPlace", newPlace), expectedVersion);
+    }
+
+    /**
+     * Changes any subset of reservation fields with one {@code UPDATE ... RETURNING} statement.
+     * The occupancy index is moved from the returned previous row to the new one; a slot conflict
+     * rolls the update back. The booking lock of the reservation's instructor, and of the new
+     * instructor when it changes, is held until commit, so a date or time change is checked and
+     * written like a booking.
+     * <p>
+     * With an expected version the statement only matches the row while it still has that version,
+     * so of several writers holding the same version exactly one succeeds; no row lock is held
+     * between the client's read and its write.
+     *
+     * @param changes new values keyed by field name, as produced by {@link ReservationMergePatch#read}
+     * @param expectedVersion version from the {@code If-Match} header, or {@code null} for none
+     * @throws PreconditionFailedException if the reservation no longer has the expected version
+     */
+    public Optional<Reservation> patchReservation(Long id, Map<String, Object> changes, Long expectedVersion) {
+        if (changes.isEmpty()) {
+            Optional<Reservation> current = reservationRepository.findById(id);
+            current.ifPresent(reservation -> requireVersion(id, reservation.getVersion(), expectedVersion));
+            return current;
+        }
+        if (changes.get("reservationPlace") instanceof String place) {
+            placeDictionary.resolve(place);
+        }
+        return withRetry(() -> transaction.execute(status -> {
+            Optional<Long> currentInstructorId = reservationRepository.findInstructorId(id);
+            if (currentInstructorId.isEmpty()) {
+                return Optional.empty();
+            }
+            List<Long> instructorIds = new ArrayList<>(2);
+            instructorIds.add(currentInstructorId.get());
+            if (changes.get("instructorID") instanceof Long newInstructorId) {
+                instructorIds.add(newInstructorId);
+            }
+            bookingLocks.lockAllUntilCompletion(instructorIds);
+            Map<String, Object> columns = ReservationMergePatch.toColumns(changes);
+            Optional<ReservationUpdate> updated = translateExclusionViolation(
+                    () -> reservationRepository.updateColumns(id, columns, expectedVersion));
+            if (updated.isEmpty() && expectedVersion != null && reservationRepository.existsById(id)) {
+                throw versionMismatch(id, expectedVersion);
+            }
+            if (updated.isPresent() && !currentInstructorId.get().equals(updated.get().previous().getInstructorID())) {
+                // Moved to another instructor between the read and the lock; the wrong lock is held.
+                throw new ConcurrencyFailureException("Reservation " + id + " changed instructor while being patched");
+            }
+            return updated.map(update -> {
+                Booking before = Booking.of(update.previous());
+                Booking after = Booking.of(update.current());
+                occupancyIndex.move(before, after);
+                revertMoveOnRollback(before, after);
+                eventPublisher.publishEvent(ReservationChangedEvent.updated(update.previous(), update.current()));
+                return update.current();
+            });
+        }));
+    }
+
+    public boolean deleteReservation(Long id) {
+        return Boolean.TRUE.equals(transaction.execute(status -> reservationRepository.deleteReturning(id)
+                .map(deleted -> {
+                    releaseOnCommit(List.of(Booking.of(deleted)));
+                    eventPublisher.publishEvent(ReservationChangedEvent.deleted(deleted));
+                    return true;
+                })
+                .orElse(false)));
+    }
+
+    /**
+     * Deletes all reservations of an instructor within {@code [from, to]} with one statement,
+     * e.g. to cancel a sick day.
+     *
+     * @return number of deleted reservations
+     */
+    public int deleteReservations(Long instructorId, LocalDate from, LocalDate to) {
+        requireRange(from, to);
+        return transaction.execute(status -> {
+            List<Reservation> deleted = reservationRepository.deleteByInstructorBetween(instructorId, from, to);
+            releaseOnCommit(deleted.stream().map(Booking::of).toList());
+            deleted.forEach(reservation -> eventPublisher.publishEvent(ReservationChangedEvent.deleted(reservation)));
+            return deleted.size();
         });
     }
 
-    public Optional<Reservation> updateInstructor(Long id, Long newInstructorId) {
-        return reservationRepository.findById(id).map(reservation -> {
-            reservation.setInstructorID(newInstructorId);
-            return reservationRepository.save(reservation);
+    /**
+     * Hands all reservations of an instructor within {@code [from, to]} over to a substitute with
+     * one statement.
+     *
+     * @return number of reassigned reservations
+     * @throws ReservationConflictException if the substitute is already booked in any of the slots
+     */
+    public int reassignReservations(Long instructorId, Long newInstructorId, LocalDate from, LocalDate to) {
+        requireRange(from, to);
+        return withRetry(() -> transaction.execute(status -> {
+            bookingLocks.lockUntilCompletion(newInstructorId);
+            return applyBulkUpdate(translateExclusionViolation(() -> withSlotConstraintsDeferred(
+                    () -> reservationRepository.reassignInstructor(instructorId, newInstructorId, from, to))));
+        }));
+    }
+
+    /**
+     * Moves reservations within {@code [from, to]}, filtered by instructor and/or student, by the
+     * given number of days and minutes with one statement.
+     *
+     * @return number of shifted reservations
+     * @throws IllegalArgumentException if no filter is given or a lesson would cross midnight
+     * @throws ReservationConflictException if a shifted lesson lands on a taken slot
+     */
+    public int shiftReservations(Long instructorId, Long studentId, LocalDate from, LocalDate to, int days, int minutes) {
+        requireRange(from, to);
+        if (instructorId == null && studentId == null) {
+            throw new IllegalArgumentException("Either instructorId or studentId must be given");
+        }
+        if (days == 0 && minutes == 0) {
+            throw new IllegalArgumentException("Shift must not be zero");
+        }
+        if (Math.abs(minutes) >= 24 * 60) {
+            throw new IllegalArgumentException("Shift in minutes must be less than a day; use days instead");
+        }
+        return withRetry(() -> transaction.execute(status -> {
+            if (instructorId != null) {
+                bookingLocks.lockUntilCompletion(instructorId);
+            }
+            List<ReservationUpdate> updates = translateExclusionViolation(() -> withSlotConstraintsDeferred(
+                    () -> reservationRepository.shift(instructorId, studentId, from, to, days, minutes)));
+            for (ReservationUpdate update : updates) {
+                LocalTime before = update.previous().getReservationTime();
+                LocalTime after = update.current().getReservationTime();
+                if (minutes > 0 ? after.isBefore(before) : after.isAfter(before)) {
+                    throw new IllegalArgumentException("Reservation " + update.current().getId()
+                            + " would be moved past midnight");
+                }
+            }
+            return applyBulkUpdate(updates);
+        }));
+    }
+
+    /**
+     * Runs a bulk move with the slot exclusion constraints deferred, so a lesson moved onto a slot
+     * that another moved lesson vacates is not taken for a conflict. The constraints are checked
+     * again before returning, so a real overlap fails here rather than at commit.
+     */
+    private <T> T withSlotConstraintsDeferred(Supplier<T> move) {
+        reservationRepository.deferSlotConstraints();
+        T moved = move.get();
+        reservationRepository.checkSlotConstraints();
+        return moved;
+    }
+
+    /**
+     * Brings the occupancy index in line with a set-based update and publishes one event per row.
+     */
+    private int applyBulkUpdate(List<ReservationUpdate> updates) {
+        List<Booking> before = updates.stream().map(update -> Booking.of(update.previous())).toList();
+        List<Booking> after = updates.stream().map(update -> Booking.of(update.current())).toList();
+        occupancyIndex.moveAll(before, after);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    occupancyIndex.revertMoveAll(before, after);
+                }
+            }
         });
+        updates.forEach(update -> eventPublisher.publishEvent(
+                ReservationChangedEvent.updated(update.previous(), update.current())));
+        return updates.size();
+    }
+
+    /**
+     * Inserts new place names before the writing transaction opens, so mapping the reservations
+     * inside it only reads cached place IDs.
+     */
+    private void resolvePlaces(List<Reservation> reservations) {
+        reservations.stream()
+                .map(Reservation::getReservationPlace)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(placeDictionary::resolve);
+    }
+
+    private static void requireRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
     }
 
-    public Optional<Reservation> updateStudent(Long id, Long newStudentId) {
-        return reservationRepository.findById(id).map(reservation -> {
-            reservation.setStudentID(newStudentId);
-            return reservationRepository.save(reservation);
+    private void releaseOnCommit(List<Booking> released) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                released.forEach(occupancyIndex::release);
+            }
         });
     }
 
-    public Optional<Reservation> updateReservationPlace(Long id, String newPlace) {
-        return reservationRepository.findById(id).map(reservation -> {
-            reservation.setReservationPlace(newPlace);
-            return reservationRepository.save(reservation);
+    private void releaseOnRollback(List<Booking> claimed) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    claimed.forEach(occupancyIndex::release);
+                }
+            }
         });
     }
 
-    public boolean deleteReservation(Long id) {
-        return reservationRepository.findById(id).map(reservation -> {
-            reservationRepository.delete(reservation);
-            return true;
-        }).orElse(false);
+    private void revertMoveOnRollback(Booking before, Booking after) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    occupancyIndex.revertMove(before, after);
+                }
+            }
+        });
+    }
+
+    private static void requireVersion(Long id, Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw versionMismatch(id, expectedVersion);
+        }
+    }
+
+    private static PreconditionFailedException versionMismatch(Long id, Long expectedVersion) {
+        return new PreconditionFailedException("Reservation " + id + " has been modified since version "
+                + expectedVersion);
+    }
+
+    /**
+     * Runs a write, turning a violation of the slot exclusion constraints into a
+     * {@link ReservationConflictException}. This is the safety net for bookings made by other
+     * application instances that the local occupancy index cannot see.
+     */
+    private static <T> T translateExclusionViolation(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                    String owner = sqlException.getMessage().contains("student") ? "student" : "instructor";
+                    throw new ReservationConflictException("The " + owner + " is already booked in this slot");
+                }
+            }
+            throw e;
+        }
+    }
+
+    private <T> T withRetry(Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException e) {
+                if (i >= maxAttempts) {
+                    LOGGER.warning("Giving up on booking after " + i + " attempts: " + e.getMessage());
+                    throw new ReservationConflictException(
+                            "The slot is being booked concurrently, please try again");
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS * i + ThreadLocalRandom.current().nextLong(RETRY_BACKOFF_MILLIS));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
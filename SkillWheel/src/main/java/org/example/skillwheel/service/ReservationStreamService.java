@@ -0,0 +1,259 @@
+package org.example.skillwheel.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.skillwheel.dto.ReservationStreamEvent;
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Pushes committed reservation changes to Server-Sent Events subscribers, filtered by instructor.
+ * <p>
+ * Every change gets a sequence number and is written into a bounded ring of recent events, from
+ * which reconnecting clients are replayed using {@code Last-Event-ID}. Each subscriber has its own
+ * bounded mailbox drained by a dedicated virtual thread, so a slow connection only delays itself.
+ * Events reach every mailbox in sequence order; putting one into a mailbox never blocks.
+ * A subscriber whose mailbox overflows is evicted: it receives an {@code evicted} event and the
+ * stream is closed, and the client is expected to reload and reconnect. Idle subscribers cost a
+ * parked virtual thread and an empty mailbox.
+ */
+@Service
+public class ReservationStreamService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationStreamService.class.getName());
+
+    private final int mailboxSize;
+    private final int maxSubscribers;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+
+    private final ReservationStreamEvent[] recent;
+    private long lastSequence;
+
+    private final Map<Long, Set<Subscriber>> subscribersByInstructor = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public ReservationStreamService(@Value("${skillwheel.reservation-stream.buffer-size:1024}") int bufferSize,
+                                    @Value("${skillwheel.reservation-stream.subscriber-queue-size:64}") int mailboxSize,
+                                    @Value("${skillwheel.reservation-stream.max-subscribers:50000}") int maxSubscribers,
+                                    @Value("${skillwheel.reservation-stream.heartbeat:PT30S}") Duration heartbeat,
+                                    @Value("${skillwheel.reservation-stream.timeout:PT30M}") Duration timeout) {
+        this.recent = new ReservationStreamEvent[bufferSize];
+        this.mailboxSize = mailboxSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Opens a stream of changes to the given instructor's reservations.
+     *
+     * @param lastEventId sequence of the last event the client saw, to replay what it missed
+     * @return empty if the node already serves the maximum number of subscribers
+     */
+    public Optional<SseEmitter> subscribe(Long instructorId, Long lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return Optional.empty();
+        }
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(instructorId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribersByInstructor.compute(instructorId, (id, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        senders.execute(() -> subscriber.run(lastEventId));
+        return Optional.of(emitter);
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent change) {
+        // Mailboxes are filled under the same lock that assigns the sequence, so every subscriber
+        // receives events in sequence order even when commits on different threads race.
+        synchronized (recent) {
+            ReservationStreamEvent event = ReservationStreamEvent.of(++lastSequence, change);
+            recent[(int) (event.sequence() % recent.length)] = event;
+            deliver(change.previous() == null ? null : change.previous().getInstructorID(), event);
+            if (change.current() != null && (change.previous() == null
+                    || !change.current().getInstructorID().equals(change.previous().getInstructorID()))) {
+                deliver(change.current().getInstructorID(), event);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByInstructor.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        senders.shutdownNow();
+    }
+
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void deliver(Long instructorId, ReservationStreamEvent event) {
+        if (instructorId == null) {
+            return;
+        }
+        Set<Subscriber> subscribers = subscribersByInstructor.get(instructorId);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    /**
+     * Events after {@code lastEventId} concerning the instructor, or {@code null} if some of them
+     * have already been overwritten in the ring or the ID comes from before a restart.
+     */
+    private List<ReservationStreamEvent> replay(Long instructorId, long lastEventId) {
+        synchronized (recent) {
+            if (lastEventId > lastSequence || lastSequence - lastEventId > recent.length) {
+                return null;
+            }
+            List<ReservationStreamEvent> missed = new ArrayList<>();
+            for (long sequence = lastEventId + 1; sequence <= lastSequence; sequence++) {
+                ReservationStreamEvent event = recent[(int) (sequence % recent.length)];
+                if (event.concernsInstructor(instructorId)) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+    }
+
+    private final class Subscriber {
+
+        /**
+         * Control signals share the mailbox with events so the sender thread wakes up for them.
+         */
+        private static final ReservationStreamEvent EVICTED = new ReservationStreamEvent(-1, "EVICTED", null, null, null);
+        private static final ReservationStreamEvent CLOSED = new ReservationStreamEvent(-1, "CLOSED", null, null, null);
+
+        private final Long instructorId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<ReservationStreamEvent> mailbox = new ArrayBlockingQueue<>(mailboxSize + 1);
+        private boolean finished;
+        private long lastSent;
+
+        private Subscriber(Long instructorId, SseEmitter emitter) {
+            this.instructorId = instructorId;
+            this.emitter = emitter;
+        }
+
+        private synchronized void offer(ReservationStreamEvent event) {
+            if (finished) {
+                return;
+            }
+            if (mailbox.size() >= mailboxSize) {
+                finished = true;
+                mailbox.clear();
+                mailbox.offer(EVICTED);
+                return;
+            }
+            mailbox.offer(event);
+        }
+
+        private synchronized void close() {
+            if (!finished) {
+                finished = true;
+                mailbox.clear();
+                mailbox.offer(CLOSED);
+            }
+        }
+
+        private void run(Long lastEventId) {
+            try {
+                if (lastEventId != null && !sendReplay(lastEventId)) {
+                    return;
+                }
+                while (true) {
+                    ReservationStreamEvent event = mailbox.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else if (event == EVICTED) {
+                        LOGGER.info("Evicting slow reservation stream subscriber of instructor " + instructorId);
+                        emitter.send(SseEmitter.event().name("evicted").data("Subscriber fell behind, reload and reconnect"));
+                        emitter.complete();
+                        return;
+                    } else if (event == CLOSED) {
+                        return;
+                    } else if (event.sequence() > lastSent) {
+                        send(event);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the emitter already completed
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                unsubscribe();
+            }
+        }
+
+        private boolean sendReplay(long lastEventId) throws IOException {
+            List<ReservationStreamEvent> missed = replay(instructorId, lastEventId);
+            if (missed == null) {
+                emitter.send(SseEmitter.event().name("resync").data("Missed events are no longer available, reload"));
+                emitter.complete();
+                return false;
+            }
+            lastSent = lastEventId;
+            for (ReservationStreamEvent event : missed) {
+                send(event);
+            }
+            return true;
+        }
+
+        private void send(ReservationStreamEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.sequence()))
+                    .name(event.type().toLowerCase(Locale.ROOT))
+                    .data(event, MediaType.APPLICATION_JSON));
+            lastSent = event.sequence();
+        }
+
+        private void unsubscribe() {
+            boolean[] removed = {false};
+            subscribersByInstructor.computeIfPresent(instructorId, (id, subscribers) -> {
+                removed[0] = subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            if (removed[0]) {
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * In-memory occupancy of instructor and student time slots.
+ * <p>
+ * Every (owner, day) pair maps to a single {@code long} whose bits are the {@link TimeSlots}
+ * of that day, so a conflict check is one hash lookup and one bit test. Instructors and
+ * students are kept in separate maps. Bits are set and cleared atomically per key, which
+ * means two bookings for different instructors never contend with each other.
+ * <p>
+ * The index is loaded from the database on startup (upcoming days only), kept up to date by
+ * {@link ReservationService} and pruned of elapsed days every night. With {@code skillwheel.occupancy-index.enabled=false} the
+ * index holds no state and every check is answered by a database query instead.
+ */
+@Component
+public class SlotOccupancyIndex implements SmartInitializingSingleton {
+
+    private static final Logger LOGGER = Logger.getLogger(SlotOccupancyIndex.class.getName());
+
+    private static final int DAY_BITS = 21;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final Map<Long, Long> instructorSlots = new ConcurrentHashMap<>();
+    private final Map<Long, Long> studentSlots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlotOccupancyIndex(ReservationRepository reservationRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${skillwheel.occupancy-index.enabled:true}") boolean enabled) {
+        this.reservationRepository = reservationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    /**
+     * The slot a reservation holds, detached from the entity so it survives setter calls.
+     */
+    public record Booking(Long reservationId, Long instructorId, Long studentId, LocalDate date, LocalTime time) {
+
+        public static Booking of(Reservation reservation) {
+            return new Booking(reservation.getId(), reservation.getInstructorID(), reservation.getStudentID(),
+                    reservation.getReservationDate(), reservation.getReservationTime());
+        }
+
+        boolean sameInstructorSlot(Booking other) {
+            return Objects.equals(instructorId, other.instructorId) && sameSlot(other);
+        }
+
+        boolean sameStudentSlot(Booking other) {
+            return Objects.equals(studentId, other.studentId) && sameSlot(other);
+        }
+
+        private boolean sameSlot(Booking other) {
+            return date.equals(other.date) && TimeSlots.slotOf(time) == TimeSlots.slotOf(other.time);
+        }
+    }
+
+    public record ConsistencyReport(int missingSlots, int staleSlots) {
+        public boolean isConsistent() {
+            return missingSlots == 0 && staleSlots == 0;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            LOGGER.info("Slot occupancy index disabled, conflicts are checked against the database");
+            return;
+        }
+        Snapshot snapshot = loadSnapshot(LocalDate.now());
+        instructorSlots.putAll(snapshot.instructorSlots);
+        studentSlots.putAll(snapshot.studentSlots);
+        LOGGER.info("Slot occupancy index loaded " + snapshot.instructorSlots.size() + " instructor days and "
+                + snapshot.studentSlots.size() + " student days");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the occupied slot bits of an instructor on the given day.
+     */
+    public long instructorDay(Long instructorId, LocalDate date) {
+        return instructorSlots.getOrDefault(key(instructorId, date), 0L);
+    }
+
+    /**
+     * Whether the instructor already has a lesson in the slot containing {@code time}; answered by
+     * the database when the index is disabled.
+     */
+    public boolean isInstructorSlotTaken(Long instructorId, LocalDate date, LocalTime time) {
+        int slot = TimeSlots.slotOf(time);
+        if (!enabled) {
+            return reservationRepository.existsInstructorBooking(instructorId, date,
+                    TimeSlots.startOf(slot), TimeSlots.endOf(slot), 0L);
+        }
+        return (instructorDay(instructorId, date) & (1L << slot)) != 0;
+    }
+
+    /**
+     * Claims the instructor and student slot of a new booking.
+     *
+     * @throws ReservationConflictException if either of them is already taken
+     */
+    public void occupy(Booking booking) {
+        if (!enabled) {
+            checkAgainstDatabase(booking, true, true);
+            return;
+        }
+        long bit = TimeSlots.bitOf(booking.time());
+        long instructorKey = key(booking.instructorId(), booking.date());
+        if (!trySet(instructorSlots, instructorKey, bit)) {
+            throw instructorConflict(booking);
+        }
+        if (!trySet(studentSlots, key(booking.studentId(), booking.date()), bit)) {
+            clear(instructorSlots, instructorKey, bit);
+            throw studentConflict(booking);
+        }
+    }
+
+    public void release(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        long bit = TimeSlots.bitOf(booking.time());
+        clear(instructorSlots, key(booking.instructorId(), booking.date()), bit);
+        clear(studentSlots, key(booking.studentId(), booking.date()), bit);
+    }
+
+    /**
+     * Moves a booking to a new slot. Only the dimensions that actually change are touched,
+     * and the new slots are claimed before the old ones are released.
+     *
+     * @throws ReservationConflictException if the target slot is taken; the index is left unchanged
+     */
+    public void move(Booking from, Booking to) {
+        boolean instructorChanges = !from.sameInstructorSlot(to);
+        boolean studentChanges = !from.sameStudentSlot(to);
+        if (!enabled) {
+            checkAgainstDatabase(to, instructorChanges, studentChanges);
+            return;
+        }
+        long toBit = TimeSlots.bitOf(to.time());
+        long toInstructorKey = key(to.instructorId(), to.date());
+        if (instructorChanges && !trySet(instructorSlots, toInstructorKey, toBit)) {
+            throw instructorConflict(to);
+        }
+        if (studentChanges && !trySet(studentSlots, key(to.studentId(), to.date()), toBit)) {
+            if (instructorChanges) {
+                clear(instructorSlots, toInstructorKey, toBit);
+            }
+            throw studentConflict(to);
+        }
+        long fromBit = TimeSlots.bitOf(from.time());
+        if (instructorChanges) {
+            clear(instructorSlots, key(from.instructorId(), from.date()), fromBit);
+        }
+        if (studentChanges) {
+            clear(studentSlots, key(from.studentId(), from.date()), fromBit);
+        }
+    }
+
+    /**
+     * Undoes a successful {@link #move(Booking, Booking)} after the database write failed.
+     */
+    public void revertMove(Booking from, Booking to) {
+        if (!enabled) {
+            return;
+        }
+        long fromBit = TimeSlots.bitOf(from.time());
+        long toBit = TimeSlots.bitOf(to.time());
+        if (!from.sameInstructorSlot(to)) {
+            instructorSlots.merge(key(from.instructorId(), from.date()), fromBit, (a, b) -> a | b);
+            clear(instructorSlots, key(to.instructorId(), to.date()), toBit);
+        }
+        if (!from.sameStudentSlot(to)) {
+            studentSlots.merge(key(from.studentId(), from.date()), fromBit, (a, b) -> a | b);
+            clear(studentSlots, key(to.studentId(), to.date()), toBit);
+        }
+    }
+
+    /**
+     * Moves many bookings at once, e.g. after a bulk shift. All old slots are released before any
+     * new one is claimed, so bookings may move into each other's former slots. With the index
+     * disabled nothing is checked here; the exclusion constraints already vetted the statement.
+     *
+     * @throws ReservationConflictException if a target slot is taken; the index is left unchanged
+     */
+    public void moveAll(List<Booking> from, List<Booking> to) {
+        if (!enabled) {
+            return;
+        }
+        from.forEach(this::release);
+        List<Booking> claimed = new ArrayList<>(to.size());
+        try {
+            for (Booking booking : to) {
+                occupy(booking);
+                claimed.add(booking);
+            }
+        } catch (ReservationConflictException e) {
+            claimed.forEach(this::release);
+            from.forEach(this::restore);
+            throw e;
+        }
+    }
+
+    /**
+     * Undoes a successful {@link #moveAll(List, List)} after the database write failed.
+     */
+    public void revertMoveAll(List<Booking> from, List<Booking> to) {
+        if (!enabled) {
+            return;
+        }
+        to.forEach(this::release);
+        from.forEach(this::restore);
+    }
+
+    @Scheduled(fixedDelayString = "${skillwheel.occupancy-index.consistency-check-interval:PT15M}",
+            initialDelayString = "${skillwheel.occupancy-index.consistency-check-interval:PT15M}")
+    public void scheduledConsistencyCheck() {
+        checkConsistency();
+    }
+
+    /**
+     * Drops the slots of days that have passed; nothing books or checks them any more.
+     */
+    @Scheduled(cron = "0 15 0 * * *")
+    public void pruneElapsedDays() {
+        long today = LocalDate.now().toEpochDay();
+        instructorSlots.keySet().removeIf(key -> (key & DAY_MASK) < today);
+        studentSlots.keySet().removeIf(key -> (key & DAY_MASK) < today);
+    }
+
+    /**
+     * Compares the upcoming part of the index with the database and logs any drift.
+     * Writes racing with the check can show up as transient differences.
+     */
+    public ConsistencyReport checkConsistency() {
+        if (!enabled) {
+            return new ConsistencyReport(0, 0);
+        }
+        LocalDate from = LocalDate.now();
+        Snapshot snapshot = loadSnapshot(from);
+        int missing = countMissing(snapshot.instructorSlots, instructorSlots, from)
+                + countMissing(snapshot.studentSlots, studentSlots, from);
+        int stale = countMissing(instructorSlots, snapshot.instructorSlots, from)
+                + countMissing(studentSlots, snapshot.studentSlots, from);
+        ConsistencyReport report = new ConsistencyReport(missing, stale);
+        if (!report.isConsistent()) {
+            LOGGER.warning("Slot occupancy index differs from the database: " + missing
+                    + " booked slots missing, " + stale + " stale slots");
+        }
+        return report;
+    }
+
+    private void restore(Booking booking) {
+        long bit = TimeSlots.bitOf(booking.time());
+        instructorSlots.merge(key(booking.instructorId(), booking.date()), bit, (a, b) -> a | b);
+        studentSlots.merge(key(booking.studentId(), booking.date()), bit, (a, b) -> a | b);
+    }
+
+    private Snapshot loadSnapshot(LocalDate from) {
+        Snapshot snapshot = new Snapshot();
+        readOnlyTransaction.executeWithoutResult(status ->
+                reservationRepository.forEachReservationFrom(from, reservation -> {
+                    long bit = TimeSlots.bitOf(reservation.getReservationTime());
+                    snapshot.instructorSlots.merge(key(reservation.getInstructorID(), reservation.getReservationDate()),
+                            bit, (a, b) -> a | b);
+                    snapshot.studentSlots.merge(key(reservation.getStudentID(), reservation.getReservationDate()),
+                            bit, (a, b) -> a | b);
+                }));
+        return snapshot;
+    }
+
+    private static int countMissing(Map<Long, Long> expected, Map<Long, Long> actual, LocalDate from) {
+        long fromDay = from.toEpochDay();
+        int missing = 0;
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            if ((entry.getKey() & DAY_MASK) < fromDay) {
+                continue;
+            }
+            long absent = entry.getValue() & ~actual.getOrDefault(entry.getKey(), 0L);
+            missing += Long.bitCount(absent);
+        }
+        return missing;
+    }
+
+    private void checkAgainstDatabase(Booking booking, boolean checkInstructor, boolean checkStudent) {
+        int slot = TimeSlots.slotOf(booking.time());
+        LocalTime from = TimeSlots.startOf(slot);
+        LocalTime to = TimeSlots.endOf(slot);
+        long excludedId = booking.reservationId() == null ? 0L : booking.reservationId();
+        if (checkInstructor && reservationRepository.existsInstructorBooking(
+                booking.instructorId(), booking.date(), from, to, excludedId)) {
+            throw instructorConflict(booking);
+        }
+        if (checkStudent && reservationRepository.existsStudentBooking(
+                booking.studentId(), booking.date(), from, to, excludedId)) {
+            throw studentConflict(booking);
+        }
+    }
+
+    private static boolean trySet(Map<Long, Long> slots, long key, long bit) {
+        boolean[] claimed = {false};
+        slots.compute(key, (k, bits) -> {
+            long current = bits == null ? 0L : bits;
+            if ((current & bit) != 0) {
+                return bits;
+            }
+            claimed[0] = true;
+            return current | bit;
+        });
+        return claimed[0];
+    }
+
+    private static void clear(Map<Long, Long> slots, long key, long bit) {
+        slots.computeIfPresent(key, (k, bits) -> {
+            long remaining = bits & ~bit;
+            return remaining == 0 ? null : remaining;
+        });
+    }
+
+    private static long key(Long ownerId, LocalDate date) {
+        return (ownerId << DAY_BITS) | (date.toEpochDay() & DAY_MASK);
+    }
+
+    private static ReservationConflictException instructorConflict(Booking booking) {
+        return new ReservationConflictException("Instructor " + booking.instructorId()
+                + " is already booked on " + booking.date() + " at " + booking.time());
+    }
+
+    private static ReservationConflictException studentConflict(Booking booking) {
+        return new ReservationConflictException("Student " + booking.studentId()
+                + " already has a reservation on " + booking.date() + " at " + booking.time());
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Long> instructorSlots = new HashMap<>();
+        private final Map<Long, Long> studentSlots = new HashMap<>();
+    }
+}
@@ -1,9 +1,16 @@
 package org.example.skillwheel.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.skillwheel.dto.StudentSummary;
+import org.example.skillwheel.exception.PreconditionFailedException;
 import org.example.skillwheel.model.Student;
 import org.example.skillwheel.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
@@ -12,41 +19,120 @@ import java.util.logging.Logger;
 public class StudentService {
 
     private final StudentRepository studentRepository;
+    private final PasswordHasher passwordHasher;
+    private final KnownEmails knownEmails;
+    private final EntityCache<Student> cache;
+    private final double searchSimilarityThreshold;
     private static final Logger LOGGER = Logger.getLogger(StudentService.class.getName());
 
-    public StudentService(StudentRepository studentRepository) {
+    public StudentService(StudentRepository studentRepository, PasswordHasher passwordHasher,
+                          KnownEmails knownEmails, MeterRegistry meterRegistry,
+                          @Value("${skillwheel.entity-cache.maximum-size:10000}") long cacheSize,
+                          @Value("${skillwheel.entity-cache.ttl:PT10M}") Duration cacheTtl,
+                          @Value("${skillwheel.search.similarity-threshold:0.4}") double searchSimilarityThreshold) {
         this.studentRepository = studentRepository;
+        this.passwordHasher = passwordHasher;
+        this.knownEmails = knownEmails;
+        this.cache = new EntityCache<>("students", meterRegistry, cacheSize, cacheTtl);
+        this.searchSimilarityThreshold = searchSimilarityThreshold;
     }
 
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
 
+    /**
+     * Lists students without loading entities; only the columns shown in lists are selected.
+     */
+    public List<StudentSummary> getStudentSummaries() {
+        return studentRepository.findAllSummaries();
+    }
+
+    /**
+     * Ranked prefix and typo-tolerant search over name, surname, email and school.
+     *
+     * @throws IllegalArgumentException if the query is blank or the limit is not between 1 and 100
+     */
+    @Transactional(readOnly = true)
+    public List<StudentSummary> searchStudents(String query, int limit) {
+        return studentRepository.searchSummaries(query, limit, searchSimilarityThreshold);
+    }
+
+    /**
+     * Served from the entity cache, which is invalidated by every update and delete below.
+     */
     public Optional<Student> getStudentById(Long id) {
-        return studentRepository.findById(id);
+        return cache.get(id, studentRepository::findById);
     }
 
-    public Student addStudent(Student student) {
-        return studentRepository.save(student);
+    public boolean existsByEmail(String email) {
+        return knownEmails.mightBeStudent(email) && studentRepository.existsByEmail(email);
+    }
+
+    /**
+     * Adds a student unless the email is taken. A known duplicate is turned away before its password
+     * is hashed; a concurrent one is caught by the insert itself.
+     *
+     * @return the saved student, or empty if a student with this email already exists
+     */
+    public Optional<Student> addStudent(Student student) {
+        if (existsByEmail(student.getEmail())) {
+            return Optional.empty();
+        }
+        student.setPassword(passwordHasher.hash(student.getPassword()));
+        return studentRepository.insertIfEmailFree(student).map(id -> {
+            student.setId(id);
+            student.setVersion(0L);
+            knownEmails.addStudent(student.getEmail());
+            return student;
+        });
     }
 
-    public Optional<Student> updateStudent(Long id, Student updatedStudent) {
+    /**
+     * Overwrites a student. The loaded row must still have the expected version, and the JPA version
+     * check turns the save into {@code UPDATE ... WHERE id = ? AND version = ?}, so a write landing
+     * between the load and the save fails the precondition too instead of being overwritten.
+     *
+     * @param expectedVersion version from the {@code If-Match} header, or {@code null} for none
+     * @throws PreconditionFailedException if the student no longer has the expected version
+     */
+    public Optional<Student> updateStudent(Long id, Student updatedStudent, Long expectedVersion) {
         return studentRepository.findById(id)
                 .map(student -> {
+                    if (expectedVersion != null && !expectedVersion.equals(student.getVersion())) {
+                        throw new PreconditionFailedException("Student " + id + " has been modified since version "
+                                + expectedVersion);
+                    }
                     LOGGER.info("Updating student with ID: " + id);
                     LOGGER.info("New data: " + updatedStudent);
                     student.setName(updatedStudent.getName());
                     student.setSurname(updatedStudent.getSurname());
                     student.setEmail(updatedStudent.getEmail());
-                    student.setPassword(updatedStudent.getPassword());
+                    // A client sending back the stored hash unchanged keeps its password.
+                    if (!updatedStudent.getPassword().equals(student.getPassword())) {
+                        student.setPassword(passwordHasher.hash(updatedStudent.getPassword()));
+                    }
                     student.setNameOfSchool(updatedStudent.getNameOfSchool());
-                    return studentRepository.save(student);
+                    Student saved;
+                    try {
+                        saved = studentRepository.save(student);
+                    } catch (OptimisticLockingFailureException e) {
+                        if (expectedVersion != null) {
+                            throw new PreconditionFailedException("Student " + id
+                                    + " has been modified since version " + expectedVersion);
+                        }
+                        throw e;
+                    }
+                    cache.invalidate(id);
+                    knownEmails.addStudent(saved.getEmail());
+                    return saved;
                 });
     }
 
     public boolean deleteStudent(Long id) {
         if (studentRepository.existsById(id)) {
             studentRepository.deleteById(id);
+            cache.invalidate(id);
             return true;
         }
         return false;
@@ -0,0 +1,81 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.dto.TimeRange;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed 30-minute grid used by every in-memory schedule structure. A day has 48 slots,
+ * so all slots of one day fit into the bits of a single {@code long}.
+ */
+public final class TimeSlots {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    public static final long FULL_DAY_MASK = (1L << SLOTS_PER_DAY) - 1;
+
+    private TimeSlots() {
+    }
+
+    public static int slotOf(LocalTime time) {
+        return minuteOfDay(time) / SLOT_MINUTES;
+    }
+
+    public static long bitOf(LocalTime time) {
+        return 1L << slotOf(time);
+    }
+
+    public static LocalTime startOf(int slot) {
+        return LocalTime.MIN.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    /**
+     * Exclusive end of the slot; the last slot of the day ends at {@link LocalTime#MAX}.
+     */
+    public static LocalTime endOf(int slot) {
+        return slot == SLOTS_PER_DAY - 1 ? LocalTime.MAX : startOf(slot + 1);
+    }
+
+    /**
+     * Mask of the slots lying entirely within {@code [from, to)}. A {@code to} of 23:59, which is
+     * how the end of the last slot ({@link LocalTime#MAX}) reads at minute precision, means the end
+     * of the day, so a range read from {@link #toRanges} gives back the same slots.
+     */
+    public static long rangeMask(LocalTime from, LocalTime to) {
+        int first = Math.ceilDiv(minuteOfDay(from), SLOT_MINUTES);
+        int end = minuteOfDay(to) == MINUTES_PER_DAY - 1 ? SLOTS_PER_DAY : minuteOfDay(to) / SLOT_MINUTES;
+        if (end <= first) {
+            return 0L;
+        }
+        return ((1L << end) - 1) & (-1L << first);
+    }
+
+    /**
+     * Mask of the slots that have already started at {@code time}, including the current one.
+     */
+    public static long elapsedMask(LocalTime time) {
+        return (1L << (slotOf(time) + 1)) - 1;
+    }
+
+    /**
+     * Collapses the set bits of a day mask into contiguous time ranges.
+     */
+    public static List<TimeRange> toRanges(long mask) {
+        List<TimeRange> ranges = new ArrayList<>();
+        long remaining = mask & FULL_DAY_MASK;
+        while (remaining != 0) {
+            int start = Long.numberOfTrailingZeros(remaining);
+            int end = start + Long.numberOfTrailingZeros(~(remaining >>> start));
+            ranges.add(new TimeRange(startOf(start), endOf(end - 1)));
+            remaining &= -1L << end;
+        }
+        return ranges;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,329 @@
+package org.example.skillwheel.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.model.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * First-come, first-served waitlists for instructor slots that are already booked.
+ * <p>
+ * A student who cannot book a slot because the instructor is taken can queue for it instead of
+ * retrying. When a reservation is cancelled or moved away, the freed slot is offered to its queue
+ * on a dedicated promoter thread: the first waiter is booked through
+ * {@link ReservationService#addReservation(Reservation)}, i.e. in one transaction with the usual
+ * locks and checks. A waiter who has meanwhile booked something else at that time is skipped.
+ * <p>
+ * Each slot queue is a ring of {@code long}s, one per waiter, packing the student ID, place ID and
+ * minute within the slot, so a queued student costs 8 bytes. Queues are held by this node only
+ * and do not survive a restart.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger LOGGER = Logger.getLogger(WaitlistService.class.getName());
+
+    private static final int SLOT_BITS = 6;
+    private static final int DAY_BITS = 17;
+    private static final int MINUTE_BITS = 5;
+    private static final int PLACE_BITS = 18;
+    private static final int OWNER_BITS = 40;
+
+    /**
+     * @param booked   the reservation, if the slot was free after all
+     * @param position 1-based place in the queue, if the student was queued instead
+     */
+    public record Outcome(Reservation booked, int position) {
+    }
+
+    private final ReservationService reservationService;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final PlaceDictionary placeDictionary;
+    private final int maxPerSlot;
+    private final long retryDelayMillis;
+
+    private final Map<Long, LongQueue> queues = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService promoter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-promoter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public WaitlistService(ReservationService reservationService, SlotOccupancyIndex occupancyIndex,
+                           PlaceDictionary placeDictionary,
+                           @Value("${skillwheel.waitlist.max-per-slot:1000}") int maxPerSlot,
+                           @Value("${skillwheel.waitlist.retry-delay:PT5S}") Duration retryDelay) {
+        this.reservationService = reservationService;
+        this.occupancyIndex = occupancyIndex;
+        this.placeDictionary = placeDictionary;
+        this.maxPerSlot = maxPerSlot;
+        this.retryDelayMillis = retryDelay.toMillis();
+    }
+
+    /**
+     * Books the slot, or queues the student for it if the instructor is already taken.
+     *
+     * @throws ReservationConflictException if the student is busy at that time or the queue is full
+     */
+    public Outcome bookOrEnqueue(Reservation reservation) {
+        try {
+            return new Outcome(reservationService.addReservation(reservation), 0);
+        } catch (ReservationConflictException e) {
+            if (!occupancyIndex.isInstructorSlotTaken(reservation.getInstructorID(),
+                    reservation.getReservationDate(), reservation.getReservationTime())) {
+                throw e;
+            }
+        }
+        long slot = slotKey(reservation.getInstructorID(), reservation.getReservationDate(),
+                reservation.getReservationTime());
+        long waiter = waiter(reservation.getStudentID(), placeDictionary.idOf(reservation.getReservationPlace()),
+                reservation.getReservationTime());
+        int[] position = {0};
+        queues.compute(slot, (key, queue) -> {
+            LongQueue target = queue != null ? queue : new LongQueue();
+            int existing = target.indexOfStudent(reservation.getStudentID());
+            if (existing >= 0) {
+                position[0] = existing + 1;
+            } else if (target.size() < maxPerSlot) {
+                target.add(waiter);
+                position[0] = target.size();
+            }
+            return target.size() == 0 ? null : target;
+        });
+        if (position[0] == 0) {
+            throw new ReservationConflictException("The waitlist for this slot is full");
+        }
+        // The slot may have been freed between the failed booking and joining the queue.
+        schedulePromotion(slot, 0);
+        return new Outcome(null, position[0]);
+    }
+
+    /**
+     * Removes the student from the queue of the slot containing {@code time}.
+     *
+     * @return {@code false} if the student was not queued for it
+     */
+    public boolean leave(Long studentId, Long instructorId, LocalDate date, LocalTime time) {
+        boolean[] removed = {false};
+        queues.computeIfPresent(slotKey(instructorId, date, time), (key, queue) -> {
+            int index = queue.indexOfStudent(studentId);
+            if (index >= 0) {
+                queue.removeAt(index);
+                removed[0] = true;
+            }
+            return queue.size() == 0 ? null : queue;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Number of students waiting across all slots; approximate while queues are changing.
+     */
+    public int waitingCount() {
+        return queues.values().stream().mapToInt(LongQueue::size).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Reservation previous = event.previous();
+        Reservation current = event.current();
+        if (previous == null) {
+            return;
+        }
+        long freed = slotKey(previous.getInstructorID(), previous.getReservationDate(), previous.getReservationTime());
+        if (current != null && freed == slotKey(current.getInstructorID(), current.getReservationDate(),
+                current.getReservationTime())) {
+            return;
+        }
+        if (queues.containsKey(freed)) {
+            schedulePromotion(freed, 0);
+        }
+    }
+
+    /**
+     * Drops queues of days that have passed.
+     */
+    @Scheduled(cron = "0 10 0 * * *")
+    public void pruneElapsedDays() {
+        long today = LocalDate.now().toEpochDay();
+        queues.keySet().removeIf(slot -> dayOf(slot) < today);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promoter.shutdownNow();
+    }
+
+    private void schedulePromotion(long slot, long delayMillis) {
+        promoter.schedule(() -> promote(slot), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Offers a slot to its queue until someone is booked, the slot is taken again or nobody is left.
+     */
+    private void promote(long slot) {
+        Long instructorId = slot >>> (DAY_BITS + SLOT_BITS);
+        LocalDate date = LocalDate.ofEpochDay(dayOf(slot));
+        LocalTime slotStart = TimeSlots.startOf((int) (slot & ((1L << SLOT_BITS) - 1)));
+        if (!LocalDateTime.of(date, slotStart).isAfter(LocalDateTime.now())) {
+            queues.remove(slot);
+            return;
+        }
+        while (true) {
+            Long waiter = poll(slot);
+            if (waiter == null) {
+                return;
+            }
+            LocalTime time = slotStart.plusMinutes(waiter & ((1L << MINUTE_BITS) - 1));
+            if (occupancyIndex.isInstructorSlotTaken(instructorId, date, time)) {
+                pushBack(slot, waiter);
+                return;
+            }
+            Long studentId = waiter >>> (PLACE_BITS + MINUTE_BITS);
+            String place = placeDictionary.nameOf((int) ((waiter >>> MINUTE_BITS) & ((1L << PLACE_BITS) - 1)));
+            try {
+                Reservation booked = reservationService.addReservation(
+                        new Reservation(null, true, studentId, instructorId, date, time, place));
+                LOGGER.info("Promoted student " + studentId + " from the waitlist to reservation " + booked.getId());
+                return;
+            } catch (ReservationConflictException e) {
+                if (occupancyIndex.isInstructorSlotTaken(instructorId, date, time)) {
+                    // Someone outside the queue booked the slot first; keep the waiter at the front.
+                    pushBack(slot, waiter);
+                    return;
+                }
+                LOGGER.info("Skipping waitlisted student " + studentId + ": " + e.getMessage());
+            } catch (RuntimeException e) {
+                pushBack(slot, waiter);
+                LOGGER.log(Level.WARNING, "Waitlist promotion failed, retrying in " + retryDelayMillis + " ms", e);
+                schedulePromotion(slot, retryDelayMillis);
+                return;
+            }
+        }
+    }
+
+    private Long poll(long slot) {
+        Long[] head = {null};
+        queues.computeIfPresent(slot, (key, queue) -> {
+            head[0] = queue.poll();
+            return queue.size() == 0 ? null : queue;
+        });
+        return head[0];
+    }
+
+    private void pushBack(long slot, long waiter) {
+        queues.compute(slot, (key, queue) -> {
+            LongQueue target = queue != null ? queue : new LongQueue();
+            target.addFirst(waiter);
+            return target;
+        });
+    }
+
+    private static long slotKey(Long instructorId, LocalDate date, LocalTime time) {
+        long day = date.toEpochDay();
+        if (instructorId < 0 || instructorId >= 1L << OWNER_BITS || day < 0 || day >= 1L << DAY_BITS) {
+            throw new IllegalArgumentException("Instructor ID or date out of range for the waitlist");
+        }
+        return (instructorId << (DAY_BITS + SLOT_BITS)) | (day << SLOT_BITS) | TimeSlots.slotOf(time);
+    }
+
+    private static long dayOf(long slot) {
+        return (slot >>> SLOT_BITS) & ((1L << DAY_BITS) - 1);
+    }
+
+    private static long waiter(Long studentId, int placeId, LocalTime time) {
+        if (studentId < 0 || studentId >= 1L << OWNER_BITS || placeId < 0 || placeId >= 1 << PLACE_BITS) {
+            throw new IllegalArgumentException("Student ID or place out of range for the waitlist");
+        }
+        long minuteInSlot = (time.getHour() * 60L + time.getMinute()) % TimeSlots.SLOT_MINUTES;
+        return (studentId << (PLACE_BITS + MINUTE_BITS)) | ((long) placeId << MINUTE_BITS) | minuteInSlot;
+    }
+
+    /**
+     * Growable ring buffer of packed waiters. Only accessed inside map compute calls.
+     */
+    private static final class LongQueue {
+
+        private long[] items = new long[4];
+        private int head;
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(long item) {
+            grow();
+            items[(head + size) % items.length] = item;
+            size++;
+        }
+
+        void addFirst(long item) {
+            grow();
+            head = (head - 1 + items.length) % items.length;
+            items[head] = item;
+            size++;
+        }
+
+        Long poll() {
+            if (size == 0) {
+                return null;
+            }
+            long item = items[head];
+            head = (head + 1) % items.length;
+            size--;
+            return item;
+        }
+
+        int indexOfStudent(Long studentId) {
+            for (int i = 0; i < size; i++) {
+                if (items[(head + i) % items.length] >>> (PLACE_BITS + MINUTE_BITS) == studentId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void removeAt(int index) {
+            for (int i = index; i < size - 1; i++) {
+                items[(head + i) % items.length] = items[(head + i + 1) % items.length];
+            }
+            size--;
+        }
+
+        private void grow() {
+            if (size == items.length) {
+                long[] larger = Arrays.copyOf(toArray(), items.length * 2);
+                items = larger;
+                head = 0;
+            }
+        }
+
+        private long[] toArray() {
+            long[] ordered = new long[size];
+            for (int i = 0; i < size; i++) {
+                ordered[i] = items[(head + i) % items.length];
+            }
+            return ordered;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.skillwheel.service;
+
+import org.example.skillwheel.dto.TimeRange;
+import org.example.skillwheel.model.WorkingHours;
+import org.example.skillwheel.repository.WorkingHoursRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Weekly working hours of instructors, kept in memory as seven slot masks per instructor.
+ * Instructors that never set their hours work {@link #DEFAULT_DAY_MASKS}.
+ */
+@Service
+public class WorkingHoursService implements SmartInitializingSingleton {
+
+    /**
+     * Monday to Friday, 08:00-18:00.
+     */
+    static final long[] DEFAULT_DAY_MASKS = defaultDayMasks();
+
+    private final WorkingHoursRepository workingHoursRepository;
+    private final FreeInstructorIndex freeInstructorIndex;
+    private final Map<Long, long[]> dayMasks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WorkingHoursService(WorkingHoursRepository workingHoursRepository, FreeInstructorIndex freeInstructorIndex) {
+        this.workingHoursRepository = workingHoursRepository;
+        this.freeInstructorIndex = freeInstructorIndex;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        workingHoursRepository.findAll()
+                .forEach(workingHours -> dayMasks.put(workingHours.getInstructorId(), workingHours.getDayMasks()));
+    }
+
+    /**
+     * Returns the worked slots of the instructor on the given day of the week.
+     */
+    public long dayMask(Long instructorId, DayOfWeek dayOfWeek) {
+        return dayMasks.getOrDefault(instructorId, DEFAULT_DAY_MASKS)[dayOfWeek.ordinal()];
+    }
+
+    public Map<DayOfWeek, List<TimeRange>> getWorkingHours(Long instructorId) {
+        long[] masks = dayMasks.getOrDefault(instructorId, DEFAULT_DAY_MASKS);
+        Map<DayOfWeek, List<TimeRange>> workingHours = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            workingHours.put(day, TimeSlots.toRanges(masks[day.ordinal()]));
+        }
+        return workingHours;
+    }
+
+    public Map<DayOfWeek, List<TimeRange>> setWorkingHours(Long instructorId, Map<DayOfWeek, List<TimeRange>> workingHours) {
+        long[] masks = new long[DayOfWeek.values().length];
+        workingHours.forEach((day, ranges) -> {
+            if (ranges == null) {
+                return;
+            }
+            for (TimeRange range : ranges) {
+                if (range.from() == null || range.to() == null || !range.from().isBefore(range.to())) {
+                    throw new IllegalArgumentException("Working hours on " + day + " must start before they end");
+                }
+                masks[day.ordinal()] |= TimeSlots.rangeMask(range.from(), range.to());
+            }
+        });
+        workingHoursRepository.save(new WorkingHours(instructorId, masks));
+        dayMasks.put(instructorId, masks);
+        freeInstructorIndex.updateWorkingHours(instructorId, masks);
+        return getWorkingHours(instructorId);
+    }
+
+    public void removeWorkingHours(Long instructorId) {
+        if (dayMasks.remove(instructorId) != null) {
+            workingHoursRepository.deleteById(instructorId);
+        }
+    }
+
+    private static long[] defaultDayMasks() {
+        long[] masks = new long[DayOfWeek.values().length];
+        long workday = TimeSlots.rangeMask(LocalTime.of(8, 0), LocalTime.of(18, 0));
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+            masks[day.ordinal()] = workday;
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,69 @@
+-- Optimistic-locking versions (JPA @Version) behind the strong ETags of student, instructor and
+-- reservation responses. The archive keeps the version a reservation had when it was moved.
+ALTER TABLE students ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE instructors ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE reservations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE reservations_archive ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Change counter per instructor ('i') and student ('s'), bumped once per statement that inserts,
+-- updates or deletes any of their live reservations; the ETag of their reservation lists. Archiving
+-- deletes from the live table, so it bumps the counters too. No row means no change yet.
+CREATE TABLE IF NOT EXISTS reservation_owner_versions (
+    owner_type CHAR(1) NOT NULL,
+    owner_id   BIGINT  NOT NULL,
+    version    BIGINT  NOT NULL,
+    PRIMARY KEY (owner_type, owner_id)
+);
+
+-- Owners are bumped in key order, so statements touching the same owners lock them in the same order.
+CREATE OR REPLACE FUNCTION bump_reservation_owner_versions(instructor_ids BIGINT[], student_ids BIGINT[])
+    RETURNS VOID
+    LANGUAGE sql
+AS $$
+    INSERT INTO reservation_owner_versions AS v (owner_type, owner_id, version)
+    SELECT owner_type, owner_id, 1
+    FROM (SELECT 'i'::CHAR(1) AS owner_type, unnest(instructor_ids) AS owner_id
+          UNION
+          SELECT 's'::CHAR(1), unnest(student_ids)) owners
+    ORDER BY owner_type, owner_id
+    ON CONFLICT (owner_type, owner_id) DO UPDATE SET version = v.version + 1
+$$;
+
+CREATE OR REPLACE FUNCTION reservations_bump_owner_versions()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM bump_reservation_owner_versions(ARRAY(SELECT instructor_id FROM new_rows),
+                                                ARRAY(SELECT student_id FROM new_rows));
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM bump_reservation_owner_versions(ARRAY(SELECT instructor_id FROM old_rows),
+                                                ARRAY(SELECT student_id FROM old_rows));
+    ELSE
+        PERFORM bump_reservation_owner_versions(
+                ARRAY(SELECT instructor_id FROM new_rows UNION SELECT instructor_id FROM old_rows),
+                ARRAY(SELECT student_id FROM new_rows UNION SELECT student_id FROM old_rows));
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- Transition tables allow one event per trigger.
+DROP TRIGGER IF EXISTS reservations_owner_versions_insert ON reservations;
+CREATE TRIGGER reservations_owner_versions_insert
+    AFTER INSERT ON reservations
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION reservations_bump_owner_versions();
+
+DROP TRIGGER IF EXISTS reservations_owner_versions_update ON reservations;
+CREATE TRIGGER reservations_owner_versions_update
+    AFTER UPDATE ON reservations
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION reservations_bump_owner_versions();
+
+DROP TRIGGER IF EXISTS reservations_owner_versions_delete ON reservations;
+CREATE TRIGGER reservations_owner_versions_delete
+    AFTER DELETE ON reservations
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION reservations_bump_owner_versions();
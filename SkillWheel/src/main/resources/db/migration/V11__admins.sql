@@ -0,0 +1,11 @@
+-- The admins table mapped by the Admin entity, as hibernate.ddl-auto=update used to create it. V1
+-- missed it; it is added here rather than in V1 so databases already migrated keep a valid checksum.
+CREATE TABLE IF NOT EXISTS admins (
+    admin_id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    school_id   BIGINT       NOT NULL,
+    school_name VARCHAR(255) NOT NULL
+);
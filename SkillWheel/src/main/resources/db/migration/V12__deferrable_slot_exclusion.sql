@@ -0,0 +1,15 @@
+-- A non-deferrable exclusion constraint is checked row by row while a statement runs, so moving
+-- back-to-back lessons forward in one UPDATE trips over the row that has not moved yet. Deferrable
+-- constraints are checked against the statement's final result, or at the point a transaction that
+-- deferred them makes them IMMEDIATE again (see ReservationService's bulk moves).
+ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_instructor_no_overlap;
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_instructor_no_overlap
+        EXCLUDE USING gist (instructor_id WITH =, reservation_slot(reservation_date, reservation_time) WITH &&)
+        DEFERRABLE INITIALLY IMMEDIATE;
+
+ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_student_no_overlap;
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_student_no_overlap
+        EXCLUDE USING gist (student_id WITH =, reservation_slot(reservation_date, reservation_time) WITH &&)
+        DEFERRABLE INITIALLY IMMEDIATE;
@@ -0,0 +1,8 @@
+-- The V10 triggers bumped reservation_owner_versions inside every write transaction and kept the
+-- owners' counter rows locked until commit, serializing writes per instructor and student. The
+-- application now bumps the counters after commit (ReservationOwnerVersions), still through
+-- bump_reservation_owner_versions. Writes made outside the application no longer bump them.
+DROP TRIGGER IF EXISTS reservations_owner_versions_insert ON reservations;
+DROP TRIGGER IF EXISTS reservations_owner_versions_update ON reservations;
+DROP TRIGGER IF EXISTS reservations_owner_versions_delete ON reservations;
+DROP FUNCTION IF EXISTS reservations_bump_owner_versions();
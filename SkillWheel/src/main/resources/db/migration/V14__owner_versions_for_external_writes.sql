@@ -0,0 +1,44 @@
+-- The application bumps reservation_owner_versions itself, inside each writing transaction as it
+-- commits (ReservationOwnerVersions). Its sessions are marked by the pool's connection-init-sql
+-- (SET skillwheel.owner_versions = 'application'); writes from any other session, such as manual
+-- fixes or imports run in psql, are counted by these statement-level triggers as before V13.
+CREATE OR REPLACE FUNCTION reservations_bump_owner_versions()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF current_setting('skillwheel.owner_versions', true) = 'application' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'INSERT' THEN
+        PERFORM bump_reservation_owner_versions(ARRAY(SELECT instructor_id FROM new_rows),
+                                                ARRAY(SELECT student_id FROM new_rows));
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM bump_reservation_owner_versions(ARRAY(SELECT instructor_id FROM old_rows),
+                                                ARRAY(SELECT student_id FROM old_rows));
+    ELSE
+        PERFORM bump_reservation_owner_versions(
+                ARRAY(SELECT instructor_id FROM new_rows UNION SELECT instructor_id FROM old_rows),
+                ARRAY(SELECT student_id FROM new_rows UNION SELECT student_id FROM old_rows));
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS reservations_owner_versions_insert ON reservations;
+CREATE TRIGGER reservations_owner_versions_insert
+    AFTER INSERT ON reservations
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION reservations_bump_owner_versions();
+
+DROP TRIGGER IF EXISTS reservations_owner_versions_update ON reservations;
+CREATE TRIGGER reservations_owner_versions_update
+    AFTER UPDATE ON reservations
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION reservations_bump_owner_versions();
+
+DROP TRIGGER IF EXISTS reservations_owner_versions_delete ON reservations;
+CREATE TRIGGER reservations_owner_versions_delete
+    AFTER DELETE ON reservations
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION reservations_bump_owner_versions();
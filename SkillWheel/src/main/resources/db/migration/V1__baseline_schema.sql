@@ -0,0 +1,37 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Every statement is guarded with
+-- IF NOT EXISTS so existing databases can be brought under Flyway without changes.
+
+CREATE TABLE IF NOT EXISTS students (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255),
+    surname        VARCHAR(255),
+    email          VARCHAR(255),
+    password       VARCHAR(255),
+    name_of_school VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS instructors (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255),
+    surname        VARCHAR(255),
+    email          VARCHAR(255),
+    password       VARCHAR(255),
+    name_of_school VARCHAR(255)
+);
+
+CREATE SEQUENCE IF NOT EXISTS reservations_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id                BIGINT PRIMARY KEY DEFAULT nextval('reservations_seq'),
+    is_reserved       BOOLEAN      NOT NULL,
+    student_id        BIGINT       NOT NULL,
+    instructor_id     BIGINT       NOT NULL,
+    reservation_date  DATE         NOT NULL,
+    reservation_time  TIME(6)      NOT NULL,
+    reservation_place VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS instructor_working_hours (
+    instructor_id BIGINT   PRIMARY KEY,
+    day_masks     BIGINT[] NOT NULL
+);
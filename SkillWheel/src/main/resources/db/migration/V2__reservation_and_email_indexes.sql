@@ -0,0 +1,15 @@
+-- Reservations by instructor: conflict checks, availability and per-instructor listings.
+CREATE INDEX IF NOT EXISTS idx_reservations_instructor_date_time
+    ON reservations (instructor_id, reservation_date, reservation_time);
+
+-- Reservations by student: conflict checks and per-student listings.
+CREATE INDEX IF NOT EXISTS idx_reservations_student_date
+    ON reservations (student_id, reservation_date);
+
+-- Upcoming reservations loaded into the in-memory indexes on startup.
+CREATE INDEX IF NOT EXISTS idx_reservations_date
+    ON reservations (reservation_date);
+
+-- Fails if the table already holds duplicate e-mails; remove them before migrating.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_students_email ON students (email);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_instructors_email ON instructors (email);
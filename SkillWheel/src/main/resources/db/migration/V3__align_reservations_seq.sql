@@ -0,0 +1,3 @@
+-- Databases created before reservation IDs came from reservations_seq still hand out IDs from an
+-- identity column. Move the sequence past every existing ID so pooled allocation cannot collide.
+SELECT setval('reservations_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM reservations), 1));
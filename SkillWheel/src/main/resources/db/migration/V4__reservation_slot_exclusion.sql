@@ -0,0 +1,25 @@
+-- Lets the exclusion constraints compare instructor and student IDs with '=' inside a GiST index.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The 30-minute slot a reservation occupies, aligned to the same grid the application uses
+-- (a 14:45 lesson holds the 14:30-15:00 slot).
+CREATE OR REPLACE FUNCTION reservation_slot(reservation_date DATE, reservation_time TIME)
+    RETURNS TSRANGE
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE
+AS $$
+    SELECT tsrange(start, start + INTERVAL '30 minutes')
+    FROM (SELECT reservation_date + make_time(EXTRACT(HOUR FROM reservation_time)::INT,
+                                              EXTRACT(MINUTE FROM reservation_time)::INT / 30 * 30,
+                                              0) AS start) slot
+$$;
+
+-- Fails if overlapping bookings already exist; resolve them before migrating.
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_instructor_no_overlap
+        EXCLUDE USING gist (instructor_id WITH =, reservation_slot(reservation_date, reservation_time) WITH &&);
+
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_student_no_overlap
+        EXCLUDE USING gist (student_id WITH =, reservation_slot(reservation_date, reservation_time) WITH &&);
@@ -0,0 +1,19 @@
+-- Past reservations moved out of the live table by ReservationArchiveService. Partitioned by year
+-- of the lesson; the job creates the partition for a year before moving rows into it.
+CREATE TABLE IF NOT EXISTS reservations_archive (
+    id                BIGINT       NOT NULL,
+    is_reserved       BOOLEAN      NOT NULL,
+    student_id        BIGINT       NOT NULL,
+    instructor_id     BIGINT       NOT NULL,
+    reservation_date  DATE         NOT NULL,
+    reservation_time  TIME(6)      NOT NULL,
+    reservation_place VARCHAR(255) NOT NULL,
+    archived_at       TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, reservation_date)
+) PARTITION BY RANGE (reservation_date);
+
+CREATE INDEX IF NOT EXISTS idx_reservations_archive_instructor_date
+    ON reservations_archive (instructor_id, reservation_date);
+
+CREATE INDEX IF NOT EXISTS idx_reservations_archive_student_date
+    ON reservations_archive (student_id, reservation_date);
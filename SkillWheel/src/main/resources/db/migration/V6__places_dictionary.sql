@@ -0,0 +1,26 @@
+-- Meeting places are stored once and referenced by a small integer ID instead of repeating the
+-- name in every reservation row.
+CREATE TABLE IF NOT EXISTS places (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+INSERT INTO places (name)
+SELECT reservation_place FROM reservations
+UNION
+SELECT reservation_place FROM reservations_archive
+ON CONFLICT (name) DO NOTHING;
+
+ALTER TABLE reservations ADD COLUMN place_id INTEGER REFERENCES places (id);
+UPDATE reservations r SET place_id = p.id FROM places p WHERE p.name = r.reservation_place;
+ALTER TABLE reservations ALTER COLUMN place_id SET NOT NULL;
+ALTER TABLE reservations DROP COLUMN reservation_place;
+
+ALTER TABLE reservations_archive ADD COLUMN place_id INTEGER REFERENCES places (id);
+UPDATE reservations_archive a SET place_id = p.id FROM places p WHERE p.name = a.reservation_place;
+ALTER TABLE reservations_archive ALTER COLUMN place_id SET NOT NULL;
+ALTER TABLE reservations_archive DROP COLUMN reservation_place;
+
+-- Reservations by place: per-place listings and statistics.
+CREATE INDEX IF NOT EXISTS idx_reservations_place_date
+    ON reservations (place_id, reservation_date);
@@ -0,0 +1,15 @@
+-- Responses of POST requests sent with an Idempotency-Key header, so a retry returns the stored
+-- response instead of creating the resource again. A row without a status is still being executed.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    scope           VARCHAR(64)  NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          INTEGER,
+    body            TEXT,
+    created_at      TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (scope, idempotency_key)
+);
+
+-- Expired keys are purged by age.
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at
+    ON idempotency_keys (created_at);
@@ -0,0 +1,9 @@
+-- Passwords used to be stored as entered. Hash the remaining plaintext ones with BCrypt ($2a$,
+-- readable by the application's BCryptPasswordEncoder); rows already hashed are left alone.
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+UPDATE students SET password = crypt(password, gen_salt('bf', 10))
+WHERE password IS NOT NULL AND password !~ '^\$2[aby]\$\d\d\$';
+
+UPDATE instructors SET password = crypt(password, gen_salt('bf', 10))
+WHERE password IS NOT NULL AND password !~ '^\$2[aby]\$\d\d\$';
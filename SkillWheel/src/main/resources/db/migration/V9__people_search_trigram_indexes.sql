@@ -0,0 +1,18 @@
+-- Search over students and instructors (GET /api/students/search, /api/instructors/search). The
+-- searched text is one lower-cased string per person, indexed by trigrams so both substring (LIKE)
+-- and typo-tolerant (<%, word similarity) matches use the index.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION person_search_text(name TEXT, surname TEXT, email TEXT, name_of_school TEXT)
+    RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$
+SELECT lower(coalesce(name, '') || ' ' || coalesce(surname, '') || ' ' || coalesce(email, '') || ' '
+                 || coalesce(name_of_school, ''))
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_students_search_trgm
+    ON students USING gin (person_search_text(name, surname, email, name_of_school) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_instructors_search_trgm
+    ON instructors USING gin (person_search_text(name, surname, email, name_of_school) gin_trgm_ops);
@@ -0,0 +1,91 @@
+package org.example.skillwheel;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.example.skillwheel.dto.DayAvailability;
+import org.example.skillwheel.dto.TimeRange;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.repository.WorkingHoursRepository;
+import org.example.skillwheel.service.AvailabilityService;
+import org.example.skillwheel.service.FreeInstructorIndex;
+import org.example.skillwheel.service.SlotOccupancyIndex;
+import org.example.skillwheel.service.SlotOccupancyIndex.Booking;
+import org.example.skillwheel.service.TimeSlots;
+import org.example.skillwheel.service.WorkingHoursService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AvailabilityServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+    private SlotOccupancyIndex occupancyIndex;
+    private WorkingHoursService workingHoursService;
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        occupancyIndex = new SlotOccupancyIndex(reservationRepository, mock(PlatformTransactionManager.class), true);
+        workingHoursService = new WorkingHoursService(mock(WorkingHoursRepository.class), mock(FreeInstructorIndex.class));
+        availabilityService = new AvailabilityService(workingHoursService, occupancyIndex, reservationRepository);
+    }
+
+    @Test
+    void getAvailability_ShouldCutBookedSlotsOutOfWorkingHours() {
+        workingHoursService.setWorkingHours(5L, Map.of(DayOfWeek.MONDAY,
+                List.of(new TimeRange(LocalTime.of(8, 0), LocalTime.of(12, 0)))));
+        occupancyIndex.occupy(new Booking(1L, 5L, 10L, MONDAY, LocalTime.of(9, 30)));
+
+        List<DayAvailability> days = availabilityService.getAvailability(5L, MONDAY, MONDAY.plusDays(1));
+
+        assertEquals(2, days.size());
+        assertEquals(List.of(
+                new TimeRange(LocalTime.of(8, 0), LocalTime.of(9, 30)),
+                new TimeRange(LocalTime.of(10, 0), LocalTime.of(12, 0))), days.get(0).free());
+        assertTrue(days.get(1).free().isEmpty());
+    }
+
+    @Test
+    void getAvailability_ShouldUseDefaultWorkingHoursWhenNoneSet() {
+        List<DayAvailability> days = availabilityService.getAvailability(7L, MONDAY, MONDAY);
+
+        assertEquals(List.of(new TimeRange(LocalTime.of(8, 0), LocalTime.of(18, 0))), days.get(0).free());
+    }
+
+    @Test
+    void setWorkingHours_ShouldKeepLastSlotOfTheDayThroughJsonRoundTrip() throws Exception {
+        workingHoursService.setWorkingHours(5L, Map.of(DayOfWeek.SATURDAY,
+                List.of(new TimeRange(LocalTime.of(20, 0), LocalTime.MAX))));
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        String json = objectMapper.writeValueAsString(workingHoursService.getWorkingHours(5L));
+        assertTrue(json.contains("\"to\":\"23:59\""), json);
+        Map<DayOfWeek, List<TimeRange>> readBack = objectMapper.readValue(json, new TypeReference<>() {
+        });
+        workingHoursService.setWorkingHours(5L, readBack);
+
+        assertEquals(TimeSlots.rangeMask(LocalTime.of(20, 0), LocalTime.MAX),
+                workingHoursService.dayMask(5L, DayOfWeek.SATURDAY));
+        assertEquals(1L << (TimeSlots.SLOTS_PER_DAY - 1),
+                workingHoursService.dayMask(5L, DayOfWeek.SATURDAY) & (1L << (TimeSlots.SLOTS_PER_DAY - 1)));
+    }
+
+    @Test
+    void getAvailability_ShouldRejectTooLongWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> availabilityService.getAvailability(5L, MONDAY, MONDAY.plusDays(AvailabilityService.MAX_WINDOW_DAYS)));
+    }
+}
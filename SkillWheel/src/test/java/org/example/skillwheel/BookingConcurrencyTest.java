@@ -0,0 +1,216 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.exception.ServiceBusyException;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationArchiveRepository;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.repository.ReservationUpdate;
+import org.example.skillwheel.service.BookingLocks;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.example.skillwheel.service.ReservationService;
+import org.example.skillwheel.service.SlotOccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the booking path with the occupancy index disabled, so every conflict check is a
+ * check-then-insert against the (simulated) database and only the booking locks keep it atomic.
+ */
+class BookingConcurrencyTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 10);
+
+    private final List<Reservation> table = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+
+    private ReservationRepository reservationRepository;
+    private BookingLocks bookingLocks;
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.existsInstructorBooking(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> exists(invocation.getArgument(0), Reservation::getInstructorID,
+                        invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        when(reservationRepository.existsStudentBooking(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> exists(invocation.getArgument(0), Reservation::getStudentID,
+                        invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        when(reservationRepository.saveAndFlush(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            Thread.yield();
+            reservation.setId(ids.incrementAndGet());
+            table.add(reservation);
+            return reservation;
+        });
+
+        SlotOccupancyIndex occupancyIndex = new SlotOccupancyIndex(reservationRepository, transactionManager, false);
+        bookingLocks = new BookingLocks(Duration.ofSeconds(30));
+        reservationService = new ReservationService(reservationRepository, mock(ReservationArchiveRepository.class),
+                occupancyIndex, mock(PlaceDictionary.class), bookingLocks, mock(ApplicationEventPublisher.class),
+                transactionManager, 3);
+    }
+
+    @Test
+    void addReservation_ShouldBookSlotExactlyOnceUnderManyConcurrentRequests() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long student = 1; student <= 1_000; student++) {
+                long studentId = student;
+                executor.submit(() -> {
+                    try {
+                        reservationService.addReservation(reservation(5L, studentId, LocalTime.of(16, 0)));
+                        booked.incrementAndGet();
+                    } catch (ReservationConflictException e) {
+                        rejected.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(1, booked.get());
+        assertEquals(999, rejected.get());
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void addReservation_ShouldNotWaitForBookingOfAnotherInstructor() throws Exception {
+        bookingLocks = new BookingLocks(Duration.ofMillis(200));
+        reservationService = new ReservationService(reservationRepository, mock(ReservationArchiveRepository.class),
+                new SlotOccupancyIndex(reservationRepository, transactionManager, false), mock(PlaceDictionary.class),
+                bookingLocks, mock(ApplicationEventPublisher.class), transactionManager, 1);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> holder = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                bookingLocks.lockUntilCompletion(1L);
+                locked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            // With locks striped by instructor some of these would share the held stripe and time out.
+            for (long instructor = 2; instructor <= 2_000; instructor++) {
+                reservationService.addReservation(reservation(instructor, 20L + instructor, LocalTime.of(10, 0)));
+            }
+            assertThrows(ServiceBusyException.class,
+                    () -> reservationService.addReservation(reservation(1L, 21L, LocalTime.of(10, 0))));
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1_999, table.size());
+        assertEquals(0, bookingLocks.lockedInstructors());
+    }
+
+    @Test
+    void patchReservation_ShouldHoldLockOfUnchangedInstructorWhenMovingLesson() throws Exception {
+        Reservation booked = reservationService.addReservation(reservation(5L, 50L, LocalTime.of(10, 0)));
+        when(reservationRepository.findInstructorId(booked.getId())).thenReturn(Optional.of(5L));
+        CountDownLatch updating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reservationRepository.updateColumns(eq(booked.getId()), any(), any())).thenAnswer(invocation -> {
+            updating.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            Reservation moved = new Reservation(booked);
+            moved.setReservationTime(LocalTime.of(12, 0));
+            return Optional.of(new ReservationUpdate(booked, moved));
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> patch = executor.submit(() -> reservationService.updateReservationTime(
+                    booked.getId(), LocalTime.of(12, 0), null));
+            assertTrue(updating.await(5, TimeUnit.SECONDS));
+
+            Future<Reservation> booking = executor.submit(
+                    () -> reservationService.addReservation(reservation(5L, 51L, LocalTime.of(14, 0))));
+            Thread.sleep(100);
+            assertFalse(booking.isDone(), "booking of the same instructor ran while the lesson was being moved");
+
+            release.countDown();
+            patch.get(5, TimeUnit.SECONDS);
+            assertNotNull(booking.get(5, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(0, bookingLocks.lockedInstructors());
+    }
+
+    @Test
+    void shiftReservations_ShouldMoveBackToBackLessonsWithSlotConstraintsDeferred() {
+        Reservation first = reservation(5L, 50L, LocalTime.of(10, 0));
+        first.setId(1L);
+        Reservation second = reservation(5L, 50L, LocalTime.of(10, 30));
+        second.setId(2L);
+        Reservation firstMoved = new Reservation(first);
+        firstMoved.setReservationTime(LocalTime.of(10, 30));
+        Reservation secondMoved = new Reservation(second);
+        secondMoved.setReservationTime(LocalTime.of(11, 0));
+        when(reservationRepository.shift(5L, null, DAY, DAY, 0, 30)).thenReturn(List.of(
+                new ReservationUpdate(first, firstMoved), new ReservationUpdate(second, secondMoved)));
+
+        assertEquals(2, reservationService.shiftReservations(5L, null, DAY, DAY, 0, 30));
+
+        InOrder order = inOrder(reservationRepository);
+        order.verify(reservationRepository).deferSlotConstraints();
+        order.verify(reservationRepository).shift(5L, null, DAY, DAY, 0, 30);
+        order.verify(reservationRepository).checkSlotConstraints();
+        assertEquals(0, bookingLocks.lockedInstructors());
+    }
+
+    @Test
+    void shiftReservations_ShouldReportOverlapFoundByDeferredCheckAsConflict() {
+        when(reservationRepository.shift(5L, null, DAY, DAY, 0, 30)).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("could not set constraints", new SQLException(
+                "conflicting key value violates exclusion constraint \"reservations_instructor_no_overlap\"", "23P01")))
+                .when(reservationRepository).checkSlotConstraints();
+
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.shiftReservations(5L, null, DAY, DAY, 0, 30));
+    }
+
+    private boolean exists(Long ownerId, Function<Reservation, Long> owner, LocalDate date, LocalTime from, LocalTime to) {
+        return table.stream().anyMatch(reservation -> ownerId.equals(owner.apply(reservation))
+                && date.equals(reservation.getReservationDate())
+                && !reservation.getReservationTime().isBefore(from)
+                && reservation.getReservationTime().isBefore(to));
+    }
+
+    private static Reservation reservation(Long instructorId, Long studentId, LocalTime time) {
+        return new Reservation(null, true, studentId, instructorId, DAY, time, "Plac Manewrowy");
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.dto.InstructorSummary;
+import org.example.skillwheel.dto.StatsBucket;
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.BookingStatisticsRepository;
+import org.example.skillwheel.repository.InstructorRepository;
+import org.example.skillwheel.repository.LessonCount;
+import org.example.skillwheel.service.BookingStatistics;
+import org.example.skillwheel.service.BookingStatistics.Dimension;
+import org.example.skillwheel.service.BookingStatistics.Granularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingStatisticsTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 5, 6);
+
+    private final BookingStatisticsRepository statisticsRepository = mock(BookingStatisticsRepository.class);
+    private final InstructorRepository instructorRepository = mock(InstructorRepository.class);
+    private BookingStatistics statistics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(instructorRepository.findAllSummaries()).thenReturn(List.of(
+                new InstructorSummary(1L, "Jan", "Kowalski", "jan@example.com", "AutoSzkoła ABC"),
+                new InstructorSummary(2L, "Anna", "Nowak", "anna@example.com", "AutoSzkoła ABC")));
+        when(statisticsRepository.findYears()).thenReturn(List.of(2029, 2030));
+        doAnswer(invocation -> {
+            int year = invocation.getArgument(0);
+            Consumer<LessonCount> consumer = invocation.getArgument(1);
+            if (year == 2029) {
+                consumer.accept(new LessonCount(1L, LocalDate.of(2029, 12, 31), "Plac Manewrowy", 2));
+            } else {
+                consumer.accept(new LessonCount(1L, MONDAY, "Plac Manewrowy", 3));
+                consumer.accept(new LessonCount(2L, MONDAY.plusDays(2), "Rondo", 1));
+            }
+            return null;
+        }).when(statisticsRepository).forEachLessonCount(anyInt(), any(Consumer.class));
+        statistics = new BookingStatistics(statisticsRepository, instructorRepository,
+                mock(PlatformTransactionManager.class), 2);
+    }
+
+    @Test
+    void rebuild_ShouldCountEveryYearPerInstructorSchoolAndPlace() {
+        assertEquals(OptionalLong.of(6), statistics.rebuild());
+
+        assertEquals(List.of(new StatsBucket(LocalDate.of(2029, 12, 31), 2), new StatsBucket(MONDAY, 3)),
+                statistics.getLessonCounts(Dimension.INSTRUCTOR, "1", LocalDate.of(2029, 1, 1), MONDAY.plusDays(6),
+                        Granularity.DAY));
+        assertEquals(List.of(new StatsBucket(MONDAY, 4)),
+                statistics.getLessonCounts(Dimension.SCHOOL, "autoszkoła abc", MONDAY, MONDAY.plusDays(6),
+                        Granularity.WEEK));
+        assertEquals(List.of(new StatsBucket(MONDAY.plusDays(2), 1)),
+                statistics.getLessonCounts(Dimension.PLACE, "Rondo", MONDAY, MONDAY.plusDays(6), Granularity.DAY));
+    }
+
+    @Test
+    void onReservationChanged_ShouldMoveLessonBetweenBuckets() {
+        statistics.rebuild();
+        Reservation booked = new Reservation(10L, true, 20L, 2L, MONDAY, LocalTime.of(10, 0), "Rondo");
+        statistics.onReservationChanged(ReservationChangedEvent.created(booked));
+        assertEquals(List.of(new StatsBucket(MONDAY, 1), new StatsBucket(MONDAY.plusDays(2), 1)),
+                statistics.getLessonCounts(Dimension.INSTRUCTOR, "2", MONDAY, MONDAY.plusDays(6), Granularity.DAY));
+
+        Reservation moved = new Reservation(10L, true, 20L, 2L, MONDAY.plusDays(7), LocalTime.of(10, 0), "Rondo");
+        statistics.onReservationChanged(ReservationChangedEvent.updated(booked, moved));
+        assertEquals(List.of(new StatsBucket(MONDAY, 1), new StatsBucket(MONDAY.plusDays(7), 1)),
+                statistics.getLessonCounts(Dimension.INSTRUCTOR, "2", MONDAY, MONDAY.plusDays(13), Granularity.WEEK));
+
+        statistics.onReservationChanged(ReservationChangedEvent.deleted(moved));
+        assertEquals(List.of(new StatsBucket(MONDAY, 4)),
+                statistics.getLessonCounts(Dimension.SCHOOL, "AutoSzkoła ABC", MONDAY, MONDAY.plusDays(13),
+                        Granularity.WEEK));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_ShouldKeepChangesArrivingWhileYearsAreRead() {
+        Reservation booked = new Reservation(10L, true, 20L, 2L, MONDAY.plusDays(3), LocalTime.of(10, 0), "Rondo");
+        doAnswer(invocation -> {
+            int year = invocation.getArgument(0);
+            Consumer<LessonCount> consumer = invocation.getArgument(1);
+            if (year == 2030) {
+                consumer.accept(new LessonCount(2L, MONDAY.plusDays(2), "Rondo", 1));
+                statistics.onReservationChanged(ReservationChangedEvent.created(booked));
+            }
+            return null;
+        }).when(statisticsRepository).forEachLessonCount(anyInt(), any(Consumer.class));
+
+        assertEquals(OptionalLong.of(1), statistics.rebuild());
+
+        assertEquals(List.of(new StatsBucket(MONDAY.plusDays(2), 1), new StatsBucket(MONDAY.plusDays(3), 1)),
+                statistics.getLessonCounts(Dimension.INSTRUCTOR, "2", MONDAY, MONDAY.plusDays(6), Granularity.DAY));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void afterSingletonsInstantiated_ShouldStartEmptyWhenDatabaseIsUnavailable() {
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .when(statisticsRepository).forEachLessonCount(anyInt(), any(Consumer.class));
+
+        assertDoesNotThrow(statistics::afterSingletonsInstantiated);
+        assertEquals(List.of(), statistics.getLessonCounts(Dimension.INSTRUCTOR, "1", MONDAY, MONDAY.plusDays(6),
+                Granularity.DAY));
+
+        Reservation booked = new Reservation(10L, true, 20L, 1L, MONDAY, LocalTime.of(10, 0), "Rondo");
+        statistics.onReservationChanged(ReservationChangedEvent.created(booked));
+        assertEquals(List.of(new StatsBucket(MONDAY, 1)), statistics.getLessonCounts(Dimension.INSTRUCTOR, "1",
+                MONDAY, MONDAY.plusDays(6), Granularity.DAY));
+    }
+
+    @Test
+    void getLessonCounts_ShouldRejectReversedRange() {
+        assertThrows(IllegalArgumentException.class, () -> statistics.getLessonCounts(Dimension.PLACE, "Rondo",
+                MONDAY.plusDays(1), MONDAY, Granularity.DAY));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.service.CalendarService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CalendarServiceTest {
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final CalendarService calendarService = new CalendarService(reservationRepository, "Europe/Warsaw");
+
+    @Test
+    void writeInstructorCalendar_ShouldWriteOneEventPerReservationInUtc() {
+        stubInstructorReservations(
+                new Reservation(7L, true, 10L, 5L, LocalDate.of(2030, 7, 1), LocalTime.of(14, 30), "Plac Manewrowy"),
+                new Reservation(8L, true, 11L, 5L, LocalDate.of(2030, 1, 15), LocalTime.of(9, 0), "Plac Manewrowy"));
+
+        String calendar = render();
+
+        assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(calendar.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(calendar.contains("UID:reservation-7@skillwheel\r\n"));
+        assertTrue(calendar.contains("DTSTART:20300701T123000Z\r\nDTEND:20300701T130000Z\r\n"));
+        assertTrue(calendar.contains("DTSTART:20300115T080000Z\r\n"));
+        assertTrue(calendar.contains("SUMMARY:Jazda - kursant 10\r\n"));
+    }
+
+    @Test
+    void writeInstructorCalendar_ShouldEscapeAndFoldLongValues() {
+        String place = "ul. Długa 1, Kraków; wjazd od podwórza, obok stacji paliw i sklepu spożywczego";
+        stubInstructorReservations(
+                new Reservation(7L, true, 10L, 5L, LocalDate.of(2030, 7, 1), LocalTime.of(14, 30), place));
+
+        String calendar = render();
+
+        for (String line : calendar.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        assertTrue(calendar.replace("\r\n ", "").contains(
+                "LOCATION:ul. Długa 1\\, Kraków\\; wjazd od podwórza\\, obok stacji paliw i sklepu spożywczego\r\n"));
+    }
+
+    @Test
+    void instructorCalendarTag_ShouldFollowTheInstructorsReservationCounter() {
+        when(reservationRepository.instructorReservationsVersion(5L)).thenReturn(3L, 4L);
+
+        assertEquals("W/\"i5-3\"", calendarService.instructorCalendarTag(5L));
+        assertEquals("W/\"i5-4\"", calendarService.instructorCalendarTag(5L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubInstructorReservations(Reservation... reservations) {
+        when(reservationRepository.instructorReservationsVersion(5L)).thenReturn((long) reservations.length);
+        doAnswer(invocation -> {
+            Consumer<Reservation> consumer = invocation.getArgument(1);
+            for (Reservation reservation : reservations) {
+                consumer.accept(reservation);
+            }
+            return null;
+        }).when(reservationRepository).forEachInstructorReservation(eq(5L), any(Consumer.class));
+    }
+
+    private String render() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        calendarService.writeInstructorCalendar(5L, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.skillwheel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.skillwheel.service.EntityCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EntityCache<String> cache = new EntityCache<>("students", meterRegistry, 100, Duration.ofMinutes(10));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_ShouldLoadOnceAndCountHitsAndMisses() {
+        assertEquals(Optional.of("Alice"), cache.get(1L, this::load));
+        assertEquals(Optional.of("Alice"), cache.get(1L, this::load));
+        assertEquals(Optional.of("Alice"), cache.get(1L, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "students").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "students").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldReloadAfterInvalidation() {
+        cache.get(1L, id -> Optional.of("Alice"));
+        cache.invalidate(1L);
+
+        assertEquals(Optional.of("Alicja"), cache.get(1L, id -> Optional.of("Alicja")));
+    }
+
+    @Test
+    void get_ShouldNotKeepValueReadBeforeConcurrentUpdate() {
+        cache.get(1L, id -> {
+            // An update commits and invalidates while this lookup still holds the old row.
+            cache.invalidate(1L);
+            return Optional.of("Alice");
+        });
+
+        assertEquals(Optional.of("Alicja"), cache.get(1L, id -> Optional.of("Alicja")));
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingEntities() {
+        assertEquals(Optional.empty(), cache.get(2L, id -> Optional.empty()));
+
+        assertEquals(Optional.of("Bob"), cache.get(2L, id -> Optional.of("Bob")));
+        assertEquals(1, cache.size());
+    }
+
+    private Optional<String> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of("Alice");
+    }
+}
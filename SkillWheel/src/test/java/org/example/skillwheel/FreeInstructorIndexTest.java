@@ -0,0 +1,97 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.InstructorRepository;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.repository.WorkingHoursRepository;
+import org.example.skillwheel.service.FreeInstructorIndex;
+import org.example.skillwheel.service.TimeSlots;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class FreeInstructorIndexTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 5, 6);
+
+    private FreeInstructorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FreeInstructorIndex(mock(InstructorRepository.class), mock(WorkingHoursRepository.class),
+                mock(ReservationRepository.class), mock(PlatformTransactionManager.class));
+        index.addInstructor(1L, "AutoSzkoła ABC");
+        index.addInstructor(2L, "AutoSzkoła ABC");
+        index.addInstructor(3L, "Szkoła Jazdy AutoMaster");
+    }
+
+    @Test
+    void findFreeInstructors_ShouldReturnEveryoneWorkingWhenNothingIsBooked() {
+        assertEquals(List.of(1L, 2L, 3L), index.findFreeInstructors(MONDAY, LocalTime.of(10, 0), null));
+        assertTrue(index.findFreeInstructors(MONDAY, LocalTime.of(20, 0), null).isEmpty());
+    }
+
+    @Test
+    void findFreeInstructors_ShouldFollowBookingsMovesAndCancellations() {
+        Reservation booked = reservation(10L, 2L, LocalTime.of(10, 15));
+        index.onReservationChanged(ReservationChangedEvent.created(booked));
+        assertEquals(List.of(1L, 3L), index.findFreeInstructors(MONDAY, LocalTime.of(10, 0), null));
+
+        Reservation moved = reservation(10L, 2L, LocalTime.of(11, 0));
+        index.onReservationChanged(ReservationChangedEvent.updated(booked, moved));
+        assertEquals(List.of(1L, 2L, 3L), index.findFreeInstructors(MONDAY, LocalTime.of(10, 0), null));
+        assertEquals(List.of(1L, 3L), index.findFreeInstructors(MONDAY, LocalTime.of(11, 0), null));
+
+        index.onReservationChanged(ReservationChangedEvent.deleted(moved));
+        assertEquals(List.of(1L, 2L, 3L), index.findFreeInstructors(MONDAY, LocalTime.of(11, 0), null));
+    }
+
+    @Test
+    void findFreeInstructors_ShouldFilterBySchoolIgnoringCase() {
+        assertEquals(List.of(1L, 2L), index.findFreeInstructors(MONDAY, LocalTime.of(9, 0), "autoszkoła abc"));
+        assertTrue(index.findFreeInstructors(MONDAY, LocalTime.of(9, 0), "Unknown").isEmpty());
+    }
+
+    @Test
+    void findFreeInstructors_ShouldUseUpdatedWorkingHours() {
+        long[] saturdayMornings = new long[7];
+        saturdayMornings[DayOfWeek.SATURDAY.ordinal()] = TimeSlots.rangeMask(LocalTime.of(8, 0), LocalTime.of(12, 0));
+        index.updateWorkingHours(3L, saturdayMornings);
+
+        assertEquals(List.of(1L, 2L), index.findFreeInstructors(MONDAY, LocalTime.of(9, 0), null));
+        assertEquals(List.of(3L), index.findFreeInstructors(MONDAY.plusDays(5), LocalTime.of(9, 0), null));
+    }
+
+    @Test
+    void findFreeInstructors_ShouldHandleSparseIdsAboveIntRange() {
+        long sparseId = 5_000_000_000L;
+        index.addInstructor(sparseId, "AutoSzkoła ABC");
+        index.onReservationChanged(ReservationChangedEvent.created(reservation(11L, 1L, LocalTime.of(9, 0))));
+
+        assertEquals(List.of(2L, 3L, sparseId), index.findFreeInstructors(MONDAY, LocalTime.of(9, 0), null));
+        assertEquals(List.of(2L, sparseId), index.findFreeInstructors(MONDAY, LocalTime.of(9, 0), "AutoSzkoła ABC"));
+    }
+
+    @Test
+    void removeInstructor_ShouldHandItsOrdinalOverWithoutItsBookings() {
+        index.onReservationChanged(ReservationChangedEvent.created(reservation(10L, 2L, LocalTime.of(10, 0))));
+        index.removeInstructor(2L);
+        index.addInstructor(40L, "Szkoła Jazdy AutoMaster");
+
+        assertEquals(List.of(1L, 3L, 40L), index.findFreeInstructors(MONDAY, LocalTime.of(10, 0), null));
+        assertEquals(List.of(3L, 40L), index.findFreeInstructors(MONDAY, LocalTime.of(10, 0), "Szkoła Jazdy AutoMaster"));
+    }
+
+    private static Reservation reservation(Long id, Long instructorId, LocalTime time) {
+        return new Reservation(id, true, 100L, instructorId, MONDAY, time, "Plac Manewrowy");
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.skillwheel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.repository.IdempotencyKeyRepository;
+import org.example.skillwheel.repository.IdempotencyKeyRepository.StoredKey;
+import org.example.skillwheel.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final String BODY = "{\"name\":\"Jan\"}";
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    private final IdempotencyService idempotencyService = new IdempotencyService(repository, new ObjectMapper(),
+            100, Duration.ofMinutes(10), Duration.ofHours(24), Duration.ofMinutes(5));
+    private final AtomicInteger executions = new AtomicInteger();
+    private final Supplier<ResponseEntity<?>> create = () -> ResponseEntity.status(HttpStatus.CREATED)
+            .body(Map.of("id", executions.incrementAndGet()));
+
+    @BeforeEach
+    void setUp() {
+        when(repository.claim(anyString(), anyString(), anyString())).thenReturn(true);
+    }
+
+    @Test
+    void execute_ShouldReplayStoredResponseWithoutRunningAgain() {
+        ResponseEntity<?> first = idempotencyService.execute("students", "key-1", BODY, create);
+        ResponseEntity<?> retry = idempotencyService.execute("students", "key-1", BODY, create);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("{\"id\":1}", retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+        verify(repository).complete("students", "key-1", 201, "{\"id\":1}");
+    }
+
+    @Test
+    void execute_ShouldMakeConcurrentDuplicateWaitForFirstResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<?>> slowCreate = () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return create.get();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> first = executor.submit(
+                    () -> idempotencyService.execute("reservations", "key-2", BODY, slowCreate));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<?>> duplicate = executor.submit(
+                    () -> idempotencyService.execute("reservations", "key-2", BODY, slowCreate));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+
+            release.countDown();
+            assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+            assertEquals("{\"id\":1}", duplicate.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedForDifferentRequest() {
+        idempotencyService.execute("students", "key-3", BODY, create);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("students", "key-3", "{\"name\":\"Anna\"}", create));
+    }
+
+    @Test
+    void execute_ShouldReplayResponseStoredByAnotherNode() throws Exception {
+        when(repository.claim("students", "key-4", sha256(BODY))).thenReturn(false);
+        when(repository.find("students", "key-4"))
+                .thenReturn(Optional.of(new StoredKey(sha256(BODY), 201, "{\"id\":7}", Duration.ofSeconds(3))));
+
+        ResponseEntity<?> response = idempotencyService.execute("students", "key-4", BODY, create);
+
+        assertEquals(0, executions.get());
+        assertEquals("{\"id\":7}", response.getBody());
+    }
+
+    @Test
+    void execute_ShouldReportRequestStillRunningOnAnotherNode() throws Exception {
+        when(repository.claim("students", "key-5", sha256(BODY))).thenReturn(false);
+        when(repository.find("students", "key-5"))
+                .thenReturn(Optional.of(new StoredKey(sha256(BODY), null, null, Duration.ofSeconds(3))));
+
+        assertThrows(ReservationConflictException.class,
+                () -> idempotencyService.execute("students", "key-5", BODY, create));
+    }
+
+    @Test
+    void execute_ShouldNeverRunAgainAfterResponseCouldNotBeStored() {
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .when(repository).complete(eq("students"), eq("key-7"), anyInt(), anyString());
+        ResponseEntity<?> first = idempotencyService.execute("students", "key-7", BODY, create);
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        verify(repository, never()).release("students", "key-7");
+
+        // A retry on another node finds the unfinished claim, also long after the claim timeout.
+        IdempotencyService otherNode = new IdempotencyService(repository, new ObjectMapper(),
+                100, Duration.ofMinutes(10), Duration.ofHours(24), Duration.ofMinutes(5));
+        when(repository.claim("students", "key-7", sha256(BODY))).thenReturn(false);
+        when(repository.find("students", "key-7"))
+                .thenReturn(Optional.of(new StoredKey(sha256(BODY), null, null, Duration.ofHours(2))));
+        otherNode.purgeExpiredKeys();
+
+        ReservationConflictException e = assertThrows(ReservationConflictException.class,
+                () -> otherNode.execute("students", "key-7", BODY, create));
+        assertTrue(e.getMessage().contains("did not finish"), e.getMessage());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_ShouldReleaseKeyWhenRequestFails() {
+        Supplier<ResponseEntity<?>> failing = () -> {
+            throw new ReservationConflictException("Instructor is already booked");
+        };
+        assertThrows(ReservationConflictException.class,
+                () -> idempotencyService.execute("reservations", "key-6", BODY, failing));
+        verify(repository).release("reservations", "key-6");
+
+        idempotencyService.execute("reservations", "key-6", BODY, create);
+        assertEquals(1, executions.get());
+        verify(repository).complete(eq("reservations"), eq("key-6"), anyInt(), anyString());
+    }
+
+    private static String sha256(String body) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
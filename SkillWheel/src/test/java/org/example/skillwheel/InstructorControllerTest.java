@@ -1,24 +1,46 @@
 package org.example.skillwheel;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.example.skillwheel.config.JacksonConfig;
+import org.example.skillwheel.controller.JsonRequestBinder;
 import org.example.skillwheel.controller.InstructorController;
+import org.example.skillwheel.dto.DayAvailability;
+import org.example.skillwheel.dto.TimeRange;
+import org.example.skillwheel.dto.InstructorSummary;
 import org.example.skillwheel.model.Instructor;
+import org.example.skillwheel.service.AvailabilityService;
+import org.example.skillwheel.service.CalendarService;
+import org.example.skillwheel.service.IdempotencyService;
 import org.example.skillwheel.service.InstructorService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +52,19 @@ class InstructorControllerTest {
     @Mock
     private InstructorService instructorService;
 
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private CalendarService calendarService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private JsonRequestBinder requestBinder = new JsonRequestBinder(new JacksonConfig().objectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+
     @InjectMocks
     private InstructorController instructorController;
 
@@ -38,6 +73,8 @@ class InstructorControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(idempotencyService.execute(anyString(), any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<ResponseEntity<?>>>getArgument(3).get());
         mockMvc = MockMvcBuilders.standaloneSetup(instructorController).build();
     }
 
@@ -83,6 +120,30 @@ class InstructorControllerTest {
                 .andExpect(jsonPath("$.instructors[0].name", is("John")));
     }
 
+    @Test
+    void getInstructorSummaries_ShouldReturnSummariesWithoutPasswords() throws Exception {
+        when(instructorService.getInstructorSummaries()).thenReturn(List.of(
+                new InstructorSummary(1L, "John", "Doe", "john@example.com", "Springfield High")));
+
+        mockMvc.perform(get("/api/instructors/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(200)))
+                .andExpect(jsonPath("$.instructors", hasSize(1)))
+                .andExpect(jsonPath("$.instructors[0].surname", is("Doe")))
+                .andExpect(jsonPath("$.instructors[0].password").doesNotExist());
+    }
+
+    @Test
+    void searchInstructors_ShouldPassQueryAndLimit() throws Exception {
+        when(instructorService.searchInstructors("doe", 5)).thenReturn(List.of(
+                new InstructorSummary(1L, "John", "Doe", "john@example.com", "Springfield High")));
+
+        mockMvc.perform(get("/api/instructors/search").param("q", "doe").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.instructors", hasSize(1)))
+                .andExpect(jsonPath("$.instructors[0].surname", is("Doe")));
+    }
+
     @Test
     void getAllInstructors_ShouldReturnEmptyList() throws Exception {
         when(instructorService.getAllInstructors()).thenReturn(Collections.emptyList());
@@ -100,7 +161,7 @@ class InstructorControllerTest {
         savedInstructor.setId(2L);
 
         when(instructorService.getInstructorById(2L)).thenReturn(Optional.empty());
-        when(instructorService.addInstructor(any(Instructor.class))).thenReturn(savedInstructor);
+        when(instructorService.addInstructor(any(Instructor.class))).thenReturn(Optional.of(savedInstructor));
 
         mockMvc.perform(post("/api/instructors")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -116,7 +177,7 @@ class InstructorControllerTest {
     void addInstructor_ShouldReturn409WhenInstructorExists() throws Exception {
         Instructor existingInstructor = new Instructor("John", "Doe", "john@example.com", "password123", "School");
 
-        when(instructorService.existsByEmail("john@example.com")).thenReturn(true);
+        when(instructorService.addInstructor(any(Instructor.class))).thenReturn(Optional.empty());
 
         mockMvc.perform(post("/api/instructors")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -131,7 +192,7 @@ class InstructorControllerTest {
         Instructor updatedInstructor = new Instructor("John", "Smith", "john.smith@example.com", "newpassword", "Updated School");
         updatedInstructor.setId(1L);
 
-        when(instructorService.updateInstructor(eq(1L), any(Instructor.class)))
+        when(instructorService.updateInstructor(eq(1L), any(Instructor.class), any()))
                 .thenReturn(Optional.of(updatedInstructor));
 
         mockMvc.perform(put("/api/instructors/1")
@@ -148,7 +209,7 @@ class InstructorControllerTest {
         Instructor nonExistingInstructor = new Instructor("Non", "Existing", "none@example.com", "password", "No School");
         nonExistingInstructor.setId(99L);
 
-        when(instructorService.updateInstructor(eq(99L), any(Instructor.class)))
+        when(instructorService.updateInstructor(eq(99L), any(Instructor.class), any()))
                 .thenReturn(Optional.empty());
 
         mockMvc.perform(put("/api/instructors/99")
@@ -267,4 +328,66 @@ class InstructorControllerTest {
                 .andExpect(jsonPath("$.status", is(400)))
                 .andExpect(jsonPath("$.error", is("Invalid JSON format")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability_ShouldReturnFreeRangesPerDay() throws Exception {
+        Instructor instructor = new Instructor("John", "Doe", "john@example.com", "password123", "Springfield High");
+        instructor.setId(1L);
+        LocalDate day = LocalDate.of(2030, 5, 10);
+
+        when(instructorService.getInstructorById(1L)).thenReturn(Optional.of(instructor));
+        when(availabilityService.getAvailability(1L, day, day)).thenReturn(List.of(
+                new DayAvailability(day, List.of(new TimeRange(LocalTime.of(8, 0), LocalTime.of(14, 30))))));
+
+        mockMvc.perform(get("/api/instructors/1/availability")
+                        .param("from", "2030-05-10")
+                        .param("to", "2030-05-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(200)))
+                .andExpect(jsonPath("$.days", hasSize(1)))
+                .andExpect(jsonPath("$.days[0].free[0].from", is("08:00")))
+                .andExpect(jsonPath("$.days[0].free[0].to", is("14:30")));
+    }
+
+    @Test
+    void getAvailability_ShouldReturn404WhenInstructorNotFound() throws Exception {
+        when(instructorService.getInstructorById(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/instructors/99/availability")
+                        .param("from", "2030-05-10")
+                        .param("to", "2030-05-12"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Instructor not found")));
+    }
+
+    @Test
+    void getInstructorCalendar_ShouldStreamCalendarWithETag() throws Exception {
+        when(instructorService.getInstructorById(1L)).thenReturn(Optional.of(new Instructor()));
+        when(calendarService.instructorCalendarTag(1L)).thenReturn("W/\"i1-2-42\"");
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("BEGIN:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(calendarService).writeInstructorCalendar(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/api/instructors/1/calendar.ics"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"i1-2-42\""))
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(content().string(startsWith("BEGIN:VCALENDAR")));
+    }
+
+    @Test
+    void getInstructorCalendar_ShouldReturn304WhenETagMatches() throws Exception {
+        when(instructorService.getInstructorById(1L)).thenReturn(Optional.of(new Instructor()));
+        when(calendarService.instructorCalendarTag(1L)).thenReturn("W/\"i1-2-42\"");
+
+        mockMvc.perform(get("/api/instructors/1/calendar.ics").header("If-None-Match", "W/\"i1-2-42\""))
+                .andExpect(status().isNotModified());
+
+        verify(calendarService, never()).writeInstructorCalendar(eq(1L), any());
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.exception.PreconditionFailedException;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationArchiveRepository;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.repository.ReservationUpdate;
+import org.example.skillwheel.service.BookingLocks;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.example.skillwheel.service.ReservationService;
+import org.example.skillwheel.service.SlotOccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs many read-modify-write cycles against one reservation at once. The simulated
+ * {@code updateColumns} applies its version check atomically, as the row lock of the real
+ * {@code UPDATE ... WHERE id = ? AND version = ?} does; nothing else serializes the writers. The
+ * statement itself is checked in {@link ReservationJdbcRepositoryImplTest}.
+ */
+class OptimisticUpdateConcurrencyTest {
+
+    private static final Long ID = 1L;
+    private static final int WRITERS = 50;
+
+    private final AtomicReference<Reservation> row = new AtomicReference<>();
+    private final Object rowLock = new Object();
+    private final NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+
+    private ReservationRepository reservationRepository;
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        Reservation initial = new Reservation(ID, true, 10L, 5L, LocalDate.of(2030, 5, 10), LocalTime.of(10, 0), "Plac");
+        initial.setVersion(0L);
+        row.set(initial);
+
+        reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findById(ID)).thenAnswer(invocation -> {
+            Reservation snapshot = new Reservation(row.get());
+            Thread.yield();
+            return Optional.of(snapshot);
+        });
+        when(reservationRepository.existsById(ID)).thenReturn(true);
+        when(reservationRepository.findInstructorId(ID)).thenAnswer(invocation -> Optional.of(row.get().getInstructorID()));
+        when(reservationRepository.updateColumns(eq(ID), any(), any())).thenAnswer(invocation -> {
+            Map<String, Object> columns = invocation.getArgument(1);
+            Long expectedVersion = invocation.getArgument(2);
+            synchronized (rowLock) {
+                Reservation current = row.get();
+                if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                    return Optional.empty();
+                }
+                Reservation next = new Reservation(current);
+                next.setReservationPlace((String) columns.get("reservation_place"));
+                next.setVersion(current.getVersion() + 1);
+                row.set(next);
+                return Optional.of(new ReservationUpdate(current, next));
+            }
+        });
+
+        reservationService = new ReservationService(reservationRepository, mock(ReservationArchiveRepository.class),
+                new SlotOccupancyIndex(reservationRepository, transactionManager, false), mock(PlaceDictionary.class),
+                new BookingLocks(Duration.ofSeconds(30)), mock(ApplicationEventPublisher.class),
+                transactionManager, 3);
+    }
+
+    @Test
+    void updateReservationPlace_ShouldLoseNoUpdateWhenWritersRetryOnStaleVersion() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                String mark = "|w" + writer + "|";
+                executor.submit(() -> {
+                    while (true) {
+                        Reservation seen = reservationService.getReservationById(ID).orElseThrow();
+                        try {
+                            reservationService.updateReservationPlace(ID, seen.getReservationPlace() + mark,
+                                    seen.getVersion());
+                            return;
+                        } catch (PreconditionFailedException e) {
+                            // Someone else wrote first; read again and reapply.
+                        }
+                    }
+                });
+            }
+        }
+
+        Reservation result = row.get();
+        assertEquals(Long.valueOf(WRITERS), result.getVersion());
+        String place = result.getReservationPlace();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            String mark = "|w" + writer + "|";
+            assertTrue(place.contains(mark), "update of writer " + writer + " was lost");
+            assertEquals(place.indexOf(mark), place.lastIndexOf(mark), "update of writer " + writer + " was applied twice");
+        }
+    }
+
+    @Test
+    void patchReservation_ShouldLetExactlyOneWriterOfTheSameVersionSucceed() {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                String place = "Plac " + writer;
+                executor.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    try {
+                        reservationService.patchReservation(ID, Map.of("reservationPlace", place), 0L);
+                        succeeded.incrementAndGet();
+                    } catch (PreconditionFailedException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(1, succeeded.get());
+        assertEquals(WRITERS - 1, rejected.get());
+        assertEquals(Long.valueOf(1), row.get().getVersion());
+    }
+
+    @Test
+    void patchReservation_ShouldReportMissingReservationAsNotFoundRatherThanStale() {
+        when(reservationRepository.updateColumns(eq(99L), any(), any())).thenReturn(Optional.empty());
+        when(reservationRepository.existsById(99L)).thenReturn(false);
+
+        assertTrue(reservationService.patchReservation(99L, Map.of("reservationPlace", "Plac"), 3L).isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.skillwheel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.skillwheel.service.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHasher passwordHasher = new PasswordHasher(meterRegistry, 4, 2, 8, Duration.ofMillis(250));
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void hash_ShouldProduceBCryptHashThatMatchesOnlyTheRawPassword() {
+        String hash = passwordHasher.hash("password123");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(passwordHasher.matches("password123", hash));
+        assertFalse(passwordHasher.matches("password124", hash));
+        assertEquals(1, meterRegistry.get("skillwheel.password.hashing.time").timer().count());
+        assertEquals(0, meterRegistry.get("skillwheel.password.hashing.queue").gauge().value());
+    }
+
+    @Test
+    void constructor_ShouldRejectCostOutsideBCryptRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordHasher(meterRegistry, 3, 2, 8, Duration.ofMillis(250)));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.repository.PlaceRepository;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlaceDictionaryTest {
+
+    private final PlaceRepository placeRepository = mock(PlaceRepository.class);
+    private final PlaceDictionary placeDictionary =
+            new PlaceDictionary(placeRepository, mock(PlatformTransactionManager.class), 2);
+
+    @Test
+    void resolve_ShouldCreatePlaceOnceAndAnswerBothWaysFromCache() {
+        when(placeRepository.findAll()).thenReturn(Map.of());
+        when(placeRepository.findOrCreate("Plac Manewrowy")).thenReturn(3);
+
+        assertEquals(3, placeDictionary.resolve("Plac Manewrowy"));
+        assertEquals(3, placeDictionary.resolve("Plac Manewrowy"));
+        assertEquals(3, placeDictionary.idOf("Plac Manewrowy"));
+        assertEquals("Plac Manewrowy", placeDictionary.nameOf(3));
+
+        verify(placeRepository, times(1)).findOrCreate("Plac Manewrowy");
+        verify(placeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void idOf_ShouldNeverCreatePlace() {
+        when(placeRepository.findAll()).thenReturn(Map.of(1, "Plac Manewrowy"));
+
+        assertEquals(1, placeDictionary.idOf("Plac Manewrowy"));
+        assertThrows(IllegalStateException.class, () -> placeDictionary.idOf("Rondo"));
+
+        verify(placeRepository, never()).findOrCreate(anyString());
+    }
+
+    @Test
+    void resolve_ShouldRejectNewPlaceWhenDictionaryIsFull() {
+        when(placeRepository.findAll()).thenReturn(Map.of(1, "Plac Manewrowy", 2, "Rondo"));
+
+        assertEquals(2, placeDictionary.resolve("Rondo"));
+        assertThrows(IllegalArgumentException.class, () -> placeDictionary.resolve("Parking pod Biedronką"));
+
+        verify(placeRepository, never()).findOrCreate(anyString());
+    }
+
+    @Test
+    void nameOf_ShouldReloadPlacesWhenIdIsUnknown() {
+        when(placeRepository.findAll()).thenReturn(Map.of(1, "Plac Manewrowy", 2, "Rondo"));
+
+        assertEquals("Rondo", placeDictionary.nameOf(2));
+        assertEquals("Plac Manewrowy", placeDictionary.nameOf(1));
+        assertEquals(1, placeDictionary.idOf("Plac Manewrowy"));
+
+        verify(placeRepository, times(1)).findAll();
+        assertThrows(IllegalStateException.class, () -> placeDictionary.nameOf(99));
+    }
+}
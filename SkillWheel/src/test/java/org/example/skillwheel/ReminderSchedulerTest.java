@@ -0,0 +1,107 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.service.ReminderScheduler;
+import org.example.skillwheel.service.ReminderSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ReminderSchedulerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 10);
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final List<Reservation> stored = new ArrayList<>();
+    private final List<List<Long>> sent = new ArrayList<>();
+    private final ReminderSender sender = reservations ->
+            sent.add(reservations.stream().map(Reservation::getId).toList());
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(0);
+            LocalDateTime to = invocation.getArgument(1);
+            Consumer<Reservation> consumer = invocation.getArgument(2);
+            for (Reservation reservation : stored) {
+                LocalDateTime start = reservation.getReservationDate().atTime(reservation.getReservationTime());
+                if (!start.isBefore(from) && start.isBefore(to)) {
+                    consumer.accept(reservation);
+                }
+            }
+            return null;
+        }).when(reservationRepository).forEachReservationStartingBetween(any(LocalDateTime.class),
+                any(LocalDateTime.class), any(Consumer.class));
+        // A 16-minute wheel, so reminders an hour or more ahead share buckets across turns.
+        scheduler = new ReminderScheduler(reservationRepository, sender, mock(PlatformTransactionManager.class),
+                Duration.ofHours(2), Duration.ofHours(1), Duration.ofMinutes(1), 16, 100);
+    }
+
+    @Test
+    void advanceTo_ShouldLoadOneWindowAheadAndFireDueReminders() {
+        stored.add(reservation(1L, LocalTime.of(10, 30)));
+        stored.add(reservation(2L, LocalTime.of(10, 45)));
+        stored.add(reservation(3L, LocalTime.of(11, 0)));
+
+        assertEquals(0, scheduler.advanceTo(DAY.atTime(8, 0)));
+        assertEquals(2, scheduler.pendingCount());
+
+        assertEquals(1, scheduler.advanceTo(DAY.atTime(8, 31)));
+        assertEquals(List.of(List.of(1L)), sent);
+
+        assertEquals(2, scheduler.advanceTo(DAY.atTime(9, 0)));
+        // A jump longer than the wheel visits each bucket once, so the batch is not in deadline order.
+        assertEquals(Set.of(2L, 3L), Set.copyOf(sent.get(1)));
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    @Test
+    void onReservationChanged_ShouldCancelAndRescheduleLoadedReminders() {
+        Reservation moved = reservation(2L, LocalTime.of(10, 45));
+        stored.add(reservation(1L, LocalTime.of(10, 30)));
+        stored.add(moved);
+        scheduler.advanceTo(DAY.atTime(8, 0));
+
+        Reservation later = reservation(2L, LocalTime.of(11, 30));
+        stored.set(1, later);
+        scheduler.onReservationChanged(ReservationChangedEvent.updated(moved, later));
+        scheduler.onReservationChanged(ReservationChangedEvent.deleted(stored.remove(0)));
+        Reservation booked = reservation(4L, LocalTime.of(10, 40));
+        stored.add(booked);
+        scheduler.onReservationChanged(ReservationChangedEvent.created(booked));
+        assertEquals(1, scheduler.pendingCount());
+
+        assertEquals(1, scheduler.advanceTo(DAY.atTime(8, 40)));
+        assertEquals(1, scheduler.advanceTo(DAY.atTime(9, 30)));
+        assertEquals(List.of(List.of(4L), List.of(2L)), sent);
+    }
+
+    @Test
+    void constructor_ShouldRejectWheelSizeThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new ReminderScheduler(reservationRepository, sender,
+                mock(PlatformTransactionManager.class), Duration.ofHours(2), Duration.ofHours(1),
+                Duration.ofMinutes(1), 100, 100));
+    }
+
+    private static Reservation reservation(Long id, LocalTime time) {
+        return new Reservation(id, true, 10L + id, 5L, DAY, time, "Plac Manewrowy");
+    }
+}
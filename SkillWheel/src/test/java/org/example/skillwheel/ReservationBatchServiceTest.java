@@ -0,0 +1,54 @@
+package org.example.skillwheel;
+
+import jakarta.validation.Validator;
+import org.example.skillwheel.dto.BatchJobStatus;
+import org.example.skillwheel.exception.ServiceBusyException;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.ReservationBatchService;
+import org.example.skillwheel.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationBatchServiceTest {
+
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final ReservationBatchService batchService = new ReservationBatchService(reservationService,
+            mock(Validator.class), 10000, 500, 500, 1, 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        batchService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldRejectBatchWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        when(reservationService.addReservations(anyList())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        List<Reservation> reservations = List.of(new Reservation(null, true, 1L, 2L,
+                LocalDate.of(2030, 5, 10), LocalTime.of(10, 0), "Plac"));
+
+        batchService.submit(reservations);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        BatchJobStatus queued = batchService.submit(reservations);
+
+        assertThrows(ServiceBusyException.class, () -> batchService.submit(reservations));
+        assertTrue(batchService.getJob(queued.id()).isPresent());
+    }
+}
@@ -5,26 +5,47 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.example.skillwheel.controller.ReservationController;
 import org.example.skillwheel.exception.GlobalExceptionHandler;
+import org.example.skillwheel.exception.PreconditionFailedException;
+import org.example.skillwheel.exception.ReservationConflictException;
 import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.dto.BatchJobStatus;
+import org.example.skillwheel.service.FreeInstructorIndex;
+import org.example.skillwheel.service.IdempotencyService;
+import org.example.skillwheel.service.ReservationBatchService;
+import org.example.skillwheel.service.ReservationMergePatch;
+import org.example.skillwheel.service.ReservationStreamService;
 import org.example.skillwheel.service.ReservationService;
+import org.example.skillwheel.service.WaitlistService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +57,24 @@ class ReservationControllerTest {
     @Mock
     private ReservationService reservationService;
 
+    @Mock
+    private ReservationBatchService reservationBatchService;
+
+    @Mock
+    private ReservationMergePatch reservationMergePatch;
+
+    @Mock
+    private ReservationStreamService reservationStreamService;
+
+    @Mock
+    private FreeInstructorIndex freeInstructorIndex;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private ReservationController reservationController;
 
@@ -46,6 +85,10 @@ class ReservationControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(idempotencyService.execute(anyString(), any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<ResponseEntity<?>>>getArgument(3).get());
+        when(reservationService.studentReservationsTag(anyLong(), anyBoolean())).thenReturn("\"rs100-0\"");
+        when(reservationService.instructorReservationsTag(anyLong(), anyBoolean())).thenReturn("\"ri200-0\"");
         mockMvc = MockMvcBuilders.standaloneSetup(reservationController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -64,6 +107,23 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$.instructorID", is(200)));
     }
 
+    @Test
+    void getReservationById_ShouldReturn304WhenVersionUnchanged() throws Exception {
+        Reservation reservation = createTestReservation(1L);
+        reservation.setVersion(3L);
+
+        when(reservationService.getReservationById(1L)).thenReturn(Optional.of(reservation));
+
+        mockMvc.perform(get("/api/reservations/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"r1-3\""));
+        mockMvc.perform(get("/api/reservations/1").header("If-None-Match", "\"r1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/reservations/1").header("If-None-Match", "\"r1-2\""))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getReservationById_ShouldReturn404WhenNotFound() throws Exception {
         when(reservationService.getReservationById(99L)).thenReturn(Optional.empty());
@@ -73,31 +133,204 @@ class ReservationControllerTest {
     }
 
     @Test
-    void getAllReservations_ShouldReturnReservationsList() throws Exception {
+    void getAllReservations_ShouldReturnReservationsPage() throws Exception {
         Reservation reservation = createTestReservation(1L);
 
-        when(reservationService.getAllReservations()).thenReturn(List.of(reservation));
+        when(reservationService.getReservationsPage(null, 100)).thenReturn(List.of(reservation));
 
         mockMvc.perform(get("/api/reservations"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id", is(1)));
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
     }
 
     @Test
-    void getAllReservations_ShouldReturnEmptyList() throws Exception {
-        when(reservationService.getAllReservations()).thenReturn(Collections.emptyList());
+    void getAllReservations_ShouldReturnNextCursorWhenPageIsFull() throws Exception {
+        when(reservationService.getReservationsPage(5L, 2))
+                .thenReturn(List.of(createTestReservation(6L), createTestReservation(9L)));
+
+        mockMvc.perform(get("/api/reservations").param("after", "5").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/api/reservations?after=9&limit=2>; rel=\"next\""));
+    }
+
+    @Test
+    void getAllReservations_ShouldReturnEmptyPage() throws Exception {
+        when(reservationService.getReservationsPage(null, 100)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/reservations"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", empty()));
+                .andExpect(jsonPath("$", empty()))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void addReservationsBatch_ShouldInsertSmallBatchSynchronously() throws Exception {
+        List<Reservation> reservations = List.of(createTestReservation(null), createTestReservation(null));
+
+        when(reservationBatchService.validate(anyList())).thenReturn(Map.of());
+        when(reservationBatchService.runsAsynchronously(anyList())).thenReturn(false);
+        when(reservationBatchService.insert(anyList()))
+                .thenReturn(List.of(createTestReservation(1L), createTestReservation(2L)));
+
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservations)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.reservations[1].id", is(2)));
+    }
+
+    @Test
+    void addReservationsBatch_ShouldAcceptLargeBatchAsJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        BatchJobStatus job = BatchJobStatus.of(jobId, "PENDING", 2, 0, null, Instant.now());
+
+        when(reservationBatchService.validate(anyList())).thenReturn(Map.of());
+        when(reservationBatchService.runsAsynchronously(anyList())).thenReturn(true);
+        when(reservationBatchService.submit(anyList())).thenReturn(job);
+
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createTestReservation(null)))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/reservations/batch/" + jobId))
+                .andExpect(jsonPath("$.job.state", is("PENDING")));
+    }
+
+    @Test
+    void addReservationsBatch_ShouldReturn422WithIndexedErrors() throws Exception {
+        when(reservationBatchService.validate(anyList()))
+                .thenReturn(Map.of("[0].reservationDate", "Reservation date is required"));
+
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createTestReservation(null)))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors['[0].reservationDate']", is("Reservation date is required")));
+    }
+
+    @Test
+    void getBatchJob_ShouldReturn404ForUnknownJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(reservationBatchService.getJob(jobId)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reservations/batch/" + jobId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchReservation_ShouldApplyChangedFields() throws Exception {
+        Map<String, Object> changes = Map.of("reservationTime", LocalTime.of(16, 0));
+        Reservation patched = createTestReservation(1L);
+        patched.setReservationTime(LocalTime.of(16, 0));
+
+        when(reservationMergePatch.read(any())).thenReturn(changes);
+        when(reservationMergePatch.validate(changes)).thenReturn(Map.of());
+        when(reservationService.patchReservation(eq(1L), eq(changes), any())).thenReturn(Optional.of(patched));
+
+        mockMvc.perform(patch("/api/reservations/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"reservationTime\":\"16:00\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservationTime", is("16:00")));
+    }
+
+    @Test
+    void patchReservation_ShouldReturn412WhenIfMatchVersionIsStale() throws Exception {
+        Map<String, Object> changes = Map.of("reservationTime", LocalTime.of(16, 0));
+
+        when(reservationMergePatch.read(any())).thenReturn(changes);
+        when(reservationMergePatch.validate(changes)).thenReturn(Map.of());
+        when(reservationService.patchReservation(1L, changes, 2L))
+                .thenThrow(new PreconditionFailedException("Reservation 1 has been modified since version 2"));
+
+        mockMvc.perform(patch("/api/reservations/1")
+                        .header(HttpHeaders.IF_MATCH, "\"r1-2\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"reservationTime\":\"16:00\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status", is(412)));
+    }
+
+    @Test
+    void patchReservation_ShouldReturn422WhenChangedFieldIsInvalid() throws Exception {
+        Map<String, Object> changes = Map.of("reservationPlace", " ");
+
+        when(reservationMergePatch.read(any())).thenReturn(changes);
+        when(reservationMergePatch.validate(changes))
+                .thenReturn(Map.of("reservationPlace", "Reservation place is required"));
+
+        mockMvc.perform(patch("/api/reservations/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"reservationPlace\":\" \"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.reservationPlace", is("Reservation place is required")));
+    }
+
+    @Test
+    void patchReservation_ShouldReturn400ForUnknownField() throws Exception {
+        when(reservationMergePatch.read(any()))
+                .thenThrow(new IllegalArgumentException("Unknown reservation field: place"));
+
+        mockMvc.perform(patch("/api/reservations/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"place\":\"Plac\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown reservation field: place")));
+    }
+
+    @Test
+    void patchReservation_ShouldReturn404WhenNotFound() throws Exception {
+        Map<String, Object> changes = Map.of("isReserved", false);
+
+        when(reservationMergePatch.read(any())).thenReturn(changes);
+        when(reservationMergePatch.validate(changes)).thenReturn(Map.of());
+        when(reservationService.patchReservation(eq(99L), eq(changes), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/api/reservations/99")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"isReserved\":false}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamReservationChanges_ShouldReturn503WhenSubscriberLimitReached() throws Exception {
+        when(reservationStreamService.subscribe(5L, null)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reservations/stream").param("instructorId", "5"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    void getAllReservations_ShouldReturn400ForNonPositiveLimit() throws Exception {
+        mockMvc.perform(get("/api/reservations").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Limit must be a positive number")));
+    }
+
+    @Test
+    void getFreeInstructors_ShouldReturnInstructorIds() throws Exception {
+        when(freeInstructorIndex.findFreeInstructors(LocalDate.of(2030, 5, 10), LocalTime.of(14, 30), "AutoSzkoła ABC"))
+                .thenReturn(List.of(1L, 5L));
+
+        mockMvc.perform(get("/api/reservations/free-instructors")
+                        .param("date", "2030-05-10")
+                        .param("time", "14:30")
+                        .param("nameOfSchool", "AutoSzkoła ABC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.instructorIds", contains(1, 5)));
     }
 
     @Test
     void getReservationsByStudentId_ShouldReturnReservations() throws Exception {
         Reservation reservation = createTestReservation(1L);
 
-        when(reservationService.getReservationsByStudentId(100L)).thenReturn(List.of(reservation));
+        when(reservationService.getReservationsByStudentId(100L, false)).thenReturn(List.of(reservation));
 
         mockMvc.perform(get("/api/reservations/student/100"))
                 .andExpect(status().isOk())
@@ -109,7 +342,7 @@ class ReservationControllerTest {
     void getReservationsByInstructorId_ShouldReturnReservations() throws Exception {
         Reservation reservation = createTestReservation(1L);
 
-        when(reservationService.getReservationsByInstructorId(200L)).thenReturn(List.of(reservation));
+        when(reservationService.getReservationsByInstructorId(200L, false)).thenReturn(List.of(reservation));
 
         mockMvc.perform(get("/api/reservations/instructor/200"))
                 .andExpect(status().isOk())
@@ -117,6 +350,28 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$[0].instructorID", is(200)));
     }
 
+    @Test
+    void getReservationsByInstructorId_ShouldReturn304WithoutLoadingListWhenUnchanged() throws Exception {
+        mockMvc.perform(get("/api/reservations/instructor/200").header("If-None-Match", "\"ri200-0\""))
+                .andExpect(status().isNotModified());
+
+        verify(reservationService, never()).getReservationsByInstructorId(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void getReservationsByInstructorId_ShouldIncludeArchivedWhenRequested() throws Exception {
+        Reservation archived = createTestReservation(1L);
+        archived.setReservationDate(LocalDate.of(2021, 3, 1));
+
+        when(reservationService.getReservationsByInstructorId(200L, true))
+                .thenReturn(List.of(createTestReservation(2L), archived));
+
+        mockMvc.perform(get("/api/reservations/instructor/200").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservations", hasSize(2)))
+                .andExpect(jsonPath("$.reservations[1].id", is(1)));
+    }
+
     @Test
     void addReservation_ShouldCreateReservation() throws Exception {
         Reservation newReservation = createTestReservation(null);
@@ -142,7 +397,7 @@ class ReservationControllerTest {
         Reservation updatedReservation = createTestReservation(1L);
         updatedReservation.setReservationTime(LocalTime.of(15, 30));
 
-        when(reservationService.updateReservationTime(eq(1L), any(LocalTime.class)))
+        when(reservationService.updateReservationTime(eq(1L), any(LocalTime.class), any()))
                 .thenReturn(Optional.of(updatedReservation));
 
         mockMvc.perform(put("/api/reservations/1/time")
@@ -161,6 +416,65 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$.message", is("Reservation deleted successfully")));
     }
 
+    @Test
+    void deleteReservations_ShouldReturnDeletedCount() throws Exception {
+        when(reservationService.deleteReservations(5L, LocalDate.of(2030, 5, 10), LocalDate.of(2030, 5, 12)))
+                .thenReturn(12);
+
+        mockMvc.perform(delete("/api/reservations/bulk")
+                        .param("instructorId", "5")
+                        .param("from", "2030-05-10")
+                        .param("to", "2030-05-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(12)));
+    }
+
+    @Test
+    void reassignReservations_ShouldReturn409WhenNewInstructorIsBooked() throws Exception {
+        when(reservationService.reassignReservations(5L, 6L, LocalDate.of(2030, 5, 10), LocalDate.of(2030, 5, 12)))
+                .thenThrow(new ReservationConflictException("The instructor is already booked in this slot"));
+
+        mockMvc.perform(post("/api/reservations/bulk/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"instructorId\":5,\"newInstructorId\":6,\"from\":\"2030-05-10\",\"to\":\"2030-05-12\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shiftReservations_ShouldReturnUpdatedCount() throws Exception {
+        when(reservationService.shiftReservations(null, 3L, LocalDate.of(2030, 5, 10), LocalDate.of(2030, 5, 12), 7, 0))
+                .thenReturn(4);
+
+        mockMvc.perform(post("/api/reservations/bulk/shift")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":3,\"from\":\"2030-05-10\",\"to\":\"2030-05-12\",\"days\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(4)));
+    }
+
+    @Test
+    void bookOrJoinWaitlist_ShouldReturn202WithPositionWhenQueued() throws Exception {
+        Reservation reservation = createTestReservation(null);
+        reservation.setReservationDate(LocalDate.now().plusDays(1));
+        when(waitlistService.bookOrEnqueue(any(Reservation.class))).thenReturn(new WaitlistService.Outcome(null, 3));
+
+        mockMvc.perform(post("/api/reservations/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservation)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.position", is(3)));
+    }
+
+    @Test
+    void leaveWaitlist_ShouldReturn404WhenNotQueued() throws Exception {
+        mockMvc.perform(delete("/api/reservations/waitlist")
+                        .param("studentId", "10")
+                        .param("instructorId", "5")
+                        .param("date", "2030-05-10")
+                        .param("time", "14:30"))
+                .andExpect(status().isNotFound());
+    }
+
     private Reservation createTestReservation(Long id) {
         Reservation reservation = new Reservation();
         reservation.setId(id);
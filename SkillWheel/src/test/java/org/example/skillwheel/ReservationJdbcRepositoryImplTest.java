@@ -0,0 +1,90 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.repository.ReservationJdbcRepositoryImpl;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the statements the repository sends, captured from a {@link JdbcTemplate} that returns no
+ * rows, as the database does when no reservation matches the filter.
+ */
+class ReservationJdbcRepositoryImplTest {
+
+    private final List<String> statements = new ArrayList<>();
+    private final List<Object[]> arguments = new ArrayList<>();
+    private final PlaceDictionary placeDictionary = mock(PlaceDictionary.class);
+    private final ReservationJdbcRepositoryImpl repository = new ReservationJdbcRepositoryImpl(new JdbcTemplate() {
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            statements.add(sql);
+            arguments.add(args);
+            return List.of();
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rowCallbackHandler, Object... args) {
+            statements.add(sql);
+            arguments.add(args);
+        }
+    }, placeDictionary);
+
+    @Test
+    void updateColumns_ShouldFilterOnExpectedVersionAndBumpIt() {
+        when(placeDictionary.idOf("Rondo")).thenReturn(42);
+
+        assertTrue(repository.updateColumns(7L, columns(), 3L).isEmpty());
+
+        String sql = statements.get(0);
+        assertTrue(sql.contains("FROM reservations WHERE id = ? AND version = ? FOR UPDATE"), sql);
+        assertTrue(sql.contains("SET place_id = ?, reservation_time = ?, version = r.version + 1"), sql);
+        assertArrayEquals(new Object[]{7L, 3L, 42, LocalTime.of(10, 30)}, arguments.get(0));
+    }
+
+    @Test
+    void updateColumns_ShouldFilterOnIdOnlyWithoutExpectedVersion() {
+        when(placeDictionary.idOf("Rondo")).thenReturn(42);
+
+        repository.updateColumns(7L, columns(), null);
+
+        String sql = statements.get(0);
+        assertTrue(sql.contains("FROM reservations WHERE id = ? FOR UPDATE"), sql);
+        assertTrue(sql.contains("version = r.version + 1"), sql);
+        assertArrayEquals(new Object[]{7L, 42, LocalTime.of(10, 30)}, arguments.get(0));
+    }
+
+    @Test
+    void updateColumns_ShouldRejectColumnsOutsideTheUpdatableSet() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.updateColumns(7L, Map.of("version", 5L), 3L));
+        assertTrue(statements.isEmpty());
+    }
+
+    @Test
+    void bumpOwnerVersions_ShouldPassOwnersAsArraysInKeyOrder() {
+        repository.bumpOwnerVersions(new TreeSet<>(List.of(9L, 5L)), new TreeSet<>(List.of(11L)));
+
+        assertEquals("SELECT bump_reservation_owner_versions(?, ?)", statements.get(0));
+        assertArrayEquals(new Object[]{new Long[]{5L, 9L}, new Long[]{11L}}, arguments.get(0));
+    }
+
+    private static Map<String, Object> columns() {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("reservation_place", "Rondo");
+        columns.put("reservation_time", LocalTime.of(10, 30));
+        return columns;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.service.ReservationOwnerVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ReservationOwnerVersionsTest {
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ReservationOwnerVersions ownerVersions = new ReservationOwnerVersions(reservationRepository);
+    private final List<String> steps = new CopyOnWriteArrayList<>();
+    private final TransactionTemplate transaction = new TransactionTemplate(new NoOpTransactionManager() {
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            steps.add("commit");
+        }
+    });
+
+    @Test
+    void onReservationChanged_ShouldBumpEveryTouchedOwnerOnceInTheCommittingTransaction() {
+        doAnswer(invocation -> steps.add("bump")).when(reservationRepository).bumpOwnerVersions(any(), any());
+
+        transaction.executeWithoutResult(status -> {
+            ownerVersions.onReservationChanged(ReservationChangedEvent.updated(
+                    reservation(1L, 6L, 10L), reservation(1L, 5L, 10L)));
+            ownerVersions.onReservationChanged(ReservationChangedEvent.created(reservation(2L, 5L, 11L)));
+            ownerVersions.changed(List.of(6L), List.of(12L));
+            verify(reservationRepository, never()).bumpOwnerVersions(any(), any());
+        });
+
+        verify(reservationRepository).bumpOwnerVersions(Set.of(5L, 6L), Set.of(10L, 11L, 12L));
+        assertEquals(List.of("bump", "commit"), steps);
+    }
+
+    @Test
+    void changed_ShouldNotBumpWhenTransactionRollsBack() {
+        transaction.executeWithoutResult(status -> {
+            ownerVersions.onReservationChanged(ReservationChangedEvent.deleted(reservation(1L, 5L, 10L)));
+            status.setRollbackOnly();
+        });
+
+        verify(reservationRepository, never()).bumpOwnerVersions(any(), any());
+    }
+
+    @Test
+    void changed_ShouldBumpRightAwayOutsideTransaction() {
+        ownerVersions.changed(List.of(5L), List.of());
+
+        verify(reservationRepository).bumpOwnerVersions(Set.of(5L), Set.of());
+    }
+
+    @Test
+    void changed_ShouldFailTheWriteWhenBumpFails() {
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .when(reservationRepository).bumpOwnerVersions(any(), any());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> transaction.executeWithoutResult(status ->
+                ownerVersions.changed(List.of(5L), List.of(10L))));
+        assertFalse(steps.contains("commit"));
+    }
+
+    private static Reservation reservation(Long id, Long instructorId, Long studentId) {
+        return new Reservation(id, true, studentId, instructorId, LocalDate.of(2030, 5, 10), LocalTime.of(10, 0), "Plac");
+    }
+}
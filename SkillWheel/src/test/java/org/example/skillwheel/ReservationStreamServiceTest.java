@@ -0,0 +1,185 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.ReservationStreamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationStreamServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 10);
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private CountDownLatch sendGate = new CountDownLatch(0);
+    private ReservationStreamService streamService = newService(2);
+
+    @AfterEach
+    void tearDown() {
+        sendGate.countDown();
+        streamService.shutdown();
+    }
+
+    @Test
+    void subscriber_ShouldOnlyReceiveChangesOfItsInstructor() throws Exception {
+        streamService.subscribe(5L, null);
+
+        streamService.onReservationChanged(ReservationChangedEvent.created(reservation(1L, 6L)));
+        streamService.onReservationChanged(ReservationChangedEvent.created(reservation(2L, 5L)));
+
+        await(() -> emitters.get(0).sent().contains("event:created"));
+        assertTrue(emitters.get(0).sent().contains("id:2"));
+        assertFalse(emitters.get(0).sent().contains("id:1"));
+    }
+
+    @Test
+    void subscriber_ShouldReceiveReassignmentOnBothInstructorStreams() throws Exception {
+        streamService.subscribe(5L, null);
+        streamService.subscribe(6L, null);
+        Reservation before = reservation(1L, 5L);
+        Reservation after = reservation(1L, 6L);
+
+        streamService.onReservationChanged(ReservationChangedEvent.updated(before, after));
+
+        await(() -> emitters.stream().allMatch(emitter -> emitter.sent().contains("event:updated")));
+    }
+
+    @Test
+    void subscribe_ShouldReplayEventsMissedSinceLastEventId() throws Exception {
+        streamService.onReservationChanged(ReservationChangedEvent.created(reservation(1L, 5L)));
+        streamService.onReservationChanged(ReservationChangedEvent.created(reservation(2L, 5L)));
+        streamService.onReservationChanged(ReservationChangedEvent.created(reservation(3L, 5L)));
+
+        streamService.subscribe(5L, 1L);
+
+        await(() -> emitters.get(0).sent().contains("id:3"));
+        assertTrue(emitters.get(0).sent().contains("id:2"));
+        assertFalse(emitters.get(0).sent().contains("id:1\n"));
+    }
+
+    @Test
+    void subscribe_ShouldAskForResyncWhenLastEventIdIsUnknown() throws Exception {
+        streamService.subscribe(5L, 99L);
+
+        await(() -> emitters.get(0).sent().contains("event:resync"));
+        assertTrue(emitters.get(0).completed);
+    }
+
+    @Test
+    void slowSubscriber_ShouldBeEvictedWhenItsMailboxOverflows() throws Exception {
+        sendGate = new CountDownLatch(1);
+        streamService.subscribe(5L, null);
+
+        for (long id = 1; id <= 5; id++) {
+            streamService.onReservationChanged(ReservationChangedEvent.created(reservation(id, 5L)));
+        }
+        sendGate.countDown();
+
+        await(() -> emitters.get(0).sent().contains("event:evicted"));
+        assertTrue(emitters.get(0).completed);
+        await(() -> streamService.subscriberCount() == 0);
+    }
+
+    @Test
+    void subscriber_ShouldReceiveConcurrentCommitsInSequenceOrderWithoutGaps() throws Exception {
+        streamService.shutdown();
+        streamService = newService(10_000);
+        streamService.subscribe(5L, null);
+        int changes = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService committers = Executors.newFixedThreadPool(8)) {
+            for (long id = 1; id <= changes; id++) {
+                long reservationId = id;
+                committers.submit(() -> {
+                    start.await();
+                    streamService.onReservationChanged(ReservationChangedEvent.created(reservation(reservationId, 5L)));
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        await(() -> emitters.get(0).sent().contains("id:" + changes + "\n"));
+        List<Long> ids = Pattern.compile("id:(\\d+)\n").matcher(emitters.get(0).sent()).results()
+                .map(match -> Long.parseLong(match.group(1)))
+                .toList();
+        assertEquals(LongStream.rangeClosed(1, changes).boxed().toList(), ids);
+    }
+
+    @Test
+    void subscribe_ShouldRejectSubscribersBeyondLimit() {
+        streamService.shutdown();
+        streamService = new ReservationStreamService(16, 2, 1, Duration.ofSeconds(30), Duration.ofMinutes(30));
+
+        assertTrue(streamService.subscribe(5L, null).isPresent());
+        assertTrue(streamService.subscribe(6L, null).isEmpty());
+    }
+
+    private ReservationStreamService newService(int mailboxSize) {
+        return new ReservationStreamService(16, mailboxSize, 100, Duration.ofSeconds(30), Duration.ofMinutes(30)) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static Reservation reservation(Long id, Long instructorId) {
+        return new Reservation(id, true, 10L, instructorId, DAY, LocalTime.of(10, 0), "Plac Manewrowy");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    private final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                sendGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            frames.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        private String sent() {
+            return String.join("", frames);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.repository.ReservationRepository;
+import org.example.skillwheel.service.SlotOccupancyIndex;
+import org.example.skillwheel.service.SlotOccupancyIndex.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SlotOccupancyIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 10);
+
+    private SlotOccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SlotOccupancyIndex(mock(ReservationRepository.class), mock(PlatformTransactionManager.class), true);
+    }
+
+    @Test
+    void occupy_ShouldRejectSecondBookingOfSameInstructorSlot() {
+        index.occupy(new Booking(1L, 5L, 10L, DAY, LocalTime.of(14, 30)));
+
+        assertThrows(ReservationConflictException.class,
+                () -> index.occupy(new Booking(2L, 5L, 11L, DAY, LocalTime.of(14, 45))));
+    }
+
+    @Test
+    void occupy_ShouldRejectStudentBookedWithAnotherInstructorAndKeepInstructorFree() {
+        index.occupy(new Booking(1L, 5L, 10L, DAY, LocalTime.of(9, 0)));
+
+        assertThrows(ReservationConflictException.class,
+                () -> index.occupy(new Booking(2L, 6L, 10L, DAY, LocalTime.of(9, 0))));
+        assertDoesNotThrow(() -> index.occupy(new Booking(3L, 6L, 12L, DAY, LocalTime.of(9, 0))));
+    }
+
+    @Test
+    void occupy_ShouldAllowAdjacentSlotsAndOtherDays() {
+        index.occupy(new Booking(1L, 5L, 10L, DAY, LocalTime.of(14, 0)));
+
+        assertDoesNotThrow(() -> index.occupy(new Booking(2L, 5L, 10L, DAY, LocalTime.of(14, 30))));
+        assertDoesNotThrow(() -> index.occupy(new Booking(3L, 5L, 10L, DAY.plusDays(1), LocalTime.of(14, 0))));
+    }
+
+    @Test
+    void move_ShouldFreeOldSlotAndClaimNewOne() {
+        Booking before = new Booking(1L, 5L, 10L, DAY, LocalTime.of(10, 0));
+        Booking after = new Booking(1L, 5L, 10L, DAY, LocalTime.of(12, 0));
+        index.occupy(before);
+
+        index.move(before, after);
+
+        assertDoesNotThrow(() -> index.occupy(new Booking(2L, 5L, 11L, DAY, LocalTime.of(10, 0))));
+        assertThrows(ReservationConflictException.class,
+                () -> index.occupy(new Booking(3L, 5L, 12L, DAY, LocalTime.of(12, 0))));
+    }
+
+    @Test
+    void move_ShouldLeaveIndexUnchangedOnConflict() {
+        Booking moving = new Booking(1L, 5L, 10L, DAY, LocalTime.of(10, 0));
+        index.occupy(moving);
+        index.occupy(new Booking(2L, 5L, 11L, DAY, LocalTime.of(11, 0)));
+
+        assertThrows(ReservationConflictException.class,
+                () -> index.move(moving, new Booking(1L, 5L, 10L, DAY, LocalTime.of(11, 0))));
+        assertThrows(ReservationConflictException.class,
+                () -> index.occupy(new Booking(3L, 5L, 12L, DAY, LocalTime.of(10, 0))));
+    }
+
+    @Test
+    void move_ShouldNotConflictWithItselfWhenOnlyStudentChanges() {
+        Booking before = new Booking(1L, 5L, 10L, DAY, LocalTime.of(10, 0));
+        index.occupy(before);
+
+        assertDoesNotThrow(() -> index.move(before, new Booking(1L, 5L, 20L, DAY, LocalTime.of(10, 0))));
+        assertDoesNotThrow(() -> index.occupy(new Booking(2L, 6L, 10L, DAY, LocalTime.of(10, 0))));
+    }
+
+    @Test
+    void pruneElapsedDays_ShouldDropPastDaysAndKeepTodayOnwards() {
+        LocalDate today = LocalDate.now();
+        index.occupy(new Booking(1L, 5L, 10L, today.minusDays(1), LocalTime.of(10, 0)));
+        index.occupy(new Booking(2L, 5L, 10L, today, LocalTime.of(10, 0)));
+
+        index.pruneElapsedDays();
+
+        assertEquals(0L, index.instructorDay(5L, today.minusDays(1)));
+        assertNotEquals(0L, index.instructorDay(5L, today));
+        assertDoesNotThrow(() -> index.occupy(new Booking(3L, 6L, 10L, today.minusDays(1), LocalTime.of(10, 0))));
+        assertThrows(ReservationConflictException.class,
+                () -> index.occupy(new Booking(4L, 6L, 10L, today, LocalTime.of(10, 0))));
+    }
+
+    @Test
+    void release_ShouldFreeBothInstructorAndStudentSlot() {
+        Booking booking = new Booking(1L, 5L, 10L, DAY, LocalTime.of(8, 0));
+        index.occupy(booking);
+
+        index.release(booking);
+
+        assertDoesNotThrow(() -> index.occupy(new Booking(2L, 5L, 10L, DAY, LocalTime.of(8, 0))));
+    }
+
+    @Test
+    void occupy_ShouldGrantSlotToExactlyOneOfManyConcurrentBookings() throws Exception {
+        AtomicInteger granted = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long student = 0; student < 1_000; student++) {
+                long studentId = student;
+                executor.submit(() -> {
+                    try {
+                        index.occupy(new Booking(null, 5L, studentId, DAY, LocalTime.of(16, 0)));
+                        granted.incrementAndGet();
+                    } catch (ReservationConflictException ignored) {
+                        // expected for every booking but one
+                    }
+                });
+            }
+        }
+
+        assertEquals(1, granted.get());
+    }
+}
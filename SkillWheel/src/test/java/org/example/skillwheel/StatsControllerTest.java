@@ -0,0 +1,77 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.controller.StatsController;
+import org.example.skillwheel.dto.StatsBucket;
+import org.example.skillwheel.exception.GlobalExceptionHandler;
+import org.example.skillwheel.service.BookingStatistics;
+import org.example.skillwheel.service.BookingStatistics.Dimension;
+import org.example.skillwheel.service.BookingStatistics.Granularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class StatsControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private BookingStatistics bookingStatistics;
+
+    @InjectMocks
+    private StatsController statsController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(statsController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getSchoolLessons_ShouldReturnWeeklyBuckets() throws Exception {
+        when(bookingStatistics.getLessonCounts(Dimension.SCHOOL, "AutoSzkoła ABC", LocalDate.of(2030, 5, 1),
+                LocalDate.of(2030, 5, 31), Granularity.WEEK))
+                .thenReturn(List.of(new StatsBucket(LocalDate.of(2030, 5, 6), 14)));
+
+        mockMvc.perform(get("/api/stats/schools/lessons")
+                        .param("name", "AutoSzkoła ABC")
+                        .param("from", "2030-05-01")
+                        .param("to", "2030-05-31")
+                        .param("granularity", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(14)))
+                .andExpect(jsonPath("$.buckets[0].start", is("2030-05-06")))
+                .andExpect(jsonPath("$.buckets[0].lessons", is(14)));
+    }
+
+    @Test
+    void getInstructorLessons_ShouldReturn400ForUnknownGranularity() throws Exception {
+        mockMvc.perform(get("/api/stats/instructors/5/lessons")
+                        .param("from", "2030-05-01")
+                        .param("to", "2030-05-31")
+                        .param("granularity", "month"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rebuild_ShouldReturn409WhenAlreadyRunning() throws Exception {
+        when(bookingStatistics.rebuild()).thenReturn(OptionalLong.empty());
+
+        mockMvc.perform(post("/api/stats/rebuild"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -1,25 +1,37 @@
 package org.example.skillwheel;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.example.skillwheel.config.JacksonConfig;
+import org.example.skillwheel.controller.JsonRequestBinder;
 import org.example.skillwheel.controller.StudentController;
 import org.example.skillwheel.exception.GlobalExceptionHandler;
+import org.example.skillwheel.exception.PreconditionFailedException;
+import org.example.skillwheel.dto.StudentSummary;
 import org.example.skillwheel.model.Student;
+import org.example.skillwheel.service.CalendarService;
+import org.example.skillwheel.service.IdempotencyService;
 import org.example.skillwheel.service.StudentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +44,16 @@ class StudentControllerTest {
     @Mock
     private StudentService studentService;
 
+    @Mock
+    private CalendarService calendarService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private JsonRequestBinder requestBinder = new JsonRequestBinder(new JacksonConfig().objectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+
     @InjectMocks
     private StudentController studentController;
 
@@ -40,6 +62,8 @@ class StudentControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(idempotencyService.execute(anyString(), any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<ResponseEntity<?>>>getArgument(3).get());
         mockMvc = MockMvcBuilders.standaloneSetup(studentController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -72,6 +96,61 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.error", is("Student not found")));
     }
 
+    @Test
+    void getStudentById_ShouldReturn304WhenVersionUnchanged() throws Exception {
+        Student student = new Student("Alice", "Johnson", "alice@example.com", "password123", "Springfield High");
+        student.setId(1L);
+        student.setVersion(2L);
+
+        when(studentService.getStudentById(1L)).thenReturn(Optional.of(student));
+
+        mockMvc.perform(get("/api/students/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"s1-2\""));
+        mockMvc.perform(get("/api/students/1").header("If-None-Match", "\"s1-2\""))
+                .andExpect(status().isNotModified());
+
+        student.setVersion(3L);
+        mockMvc.perform(get("/api/students/1").header("If-None-Match", "\"s1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"s1-3\""));
+    }
+
+    @Test
+    void getStudentSummaries_ShouldReturnSummariesWithoutPasswords() throws Exception {
+        when(studentService.getStudentSummaries()).thenReturn(List.of(
+                new StudentSummary(2L, "Bob", "Smith", "bob@example.com", "Springfield High")));
+
+        mockMvc.perform(get("/api/students/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(200)))
+                .andExpect(jsonPath("$.students", hasSize(1)))
+                .andExpect(jsonPath("$.students[0].id", is(2)))
+                .andExpect(jsonPath("$.students[0].password").doesNotExist());
+    }
+
+    @Test
+    void searchStudents_ShouldReturnRankedSummaries() throws Exception {
+        when(studentService.searchStudents("smi", 20)).thenReturn(List.of(
+                new StudentSummary(2L, "Bob", "Smith", "bob@example.com", "Springfield High")));
+
+        mockMvc.perform(get("/api/students/search").param("q", "smi"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(200)))
+                .andExpect(jsonPath("$.students", hasSize(1)))
+                .andExpect(jsonPath("$.students[0].surname", is("Smith")));
+    }
+
+    @Test
+    void searchStudents_ShouldReturn400ForBlankQuery() throws Exception {
+        when(studentService.searchStudents(" ", 20))
+                .thenThrow(new IllegalArgumentException("Search query cannot be empty"));
+
+        mockMvc.perform(get("/api/students/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Search query cannot be empty")));
+    }
+
     @Test
     void getAllStudents_ShouldReturnStudentsList() throws Exception {
         Student student = new Student("Bob", "Smith", "bob@example.com", "password456", "Springfield High");
@@ -103,7 +182,7 @@ class StudentControllerTest {
         Student savedStudent = new Student("Charlie", "Brown", "charlie@example.com", "password789", "Springfield High");
         savedStudent.setId(3L);
 
-        when(studentService.addStudent(any(Student.class))).thenReturn(savedStudent);
+        when(studentService.addStudent(any(Student.class))).thenReturn(Optional.of(savedStudent));
 
         mockMvc.perform(post("/api/students")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -115,12 +194,25 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.student.nameOfSchool", is("Springfield High")));
     }
 
+    @Test
+    void addStudent_ShouldReturn409WhenEmailIsTaken() throws Exception {
+        Student duplicate = new Student("Charlie", "Brown", "charlie@example.com", "password789", "Springfield High");
+
+        when(studentService.addStudent(any(Student.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Student with this email already exists")));
+    }
+
     @Test
     void updateStudent_ShouldUpdateExistingStudent() throws Exception {
         Student updatedStudent = new Student("Alice", "Johnson-Smith", "alice.smith@example.com", "newpassword", "Updated School");
         updatedStudent.setId(1L);
 
-        when(studentService.updateStudent(eq(1L), any(Student.class)))
+        when(studentService.updateStudent(eq(1L), any(Student.class), any()))
                 .thenReturn(Optional.of(updatedStudent));
 
         mockMvc.perform(put("/api/students/1")
@@ -137,7 +229,7 @@ class StudentControllerTest {
         Student nonExistingStudent = new Student("Non", "Existing", "none@example.com", "password", "No School");
         nonExistingStudent.setId(99L);
 
-        when(studentService.updateStudent(eq(99L), any(Student.class)))
+        when(studentService.updateStudent(eq(99L), any(Student.class), any()))
                 .thenReturn(Optional.empty());
 
         mockMvc.perform(put("/api/students/99")
@@ -148,6 +240,50 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.error", is("Student not found")));
     }
 
+    @Test
+    void updateStudent_ShouldCheckIfMatchVersionAndReturnNewETag() throws Exception {
+        Student updatedStudent = new Student("Alice", "Johnson", "alice@example.com", "newpassword", "School");
+        updatedStudent.setId(1L);
+        updatedStudent.setVersion(4L);
+
+        when(studentService.updateStudent(eq(1L), any(Student.class), eq(3L)))
+                .thenReturn(Optional.of(updatedStudent));
+
+        mockMvc.perform(put("/api/students/1")
+                        .header(HttpHeaders.IF_MATCH, "\"s1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedStudent)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"s1-4\""));
+    }
+
+    @Test
+    void updateStudent_ShouldReturn412WhenVersionIsStale() throws Exception {
+        Student updatedStudent = new Student("Alice", "Johnson", "alice@example.com", "newpassword", "School");
+
+        when(studentService.updateStudent(eq(1L), any(Student.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Student 1 has been modified since version 2"));
+
+        mockMvc.perform(put("/api/students/1")
+                        .header(HttpHeaders.IF_MATCH, "\"s1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedStudent)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status", is(412)))
+                .andExpect(jsonPath("$.error", is("Student 1 has been modified since version 2")));
+    }
+
+    @Test
+    void updateStudent_ShouldReturn412WhenIfMatchNamesAnotherStudent() throws Exception {
+        Student updatedStudent = new Student("Alice", "Johnson", "alice@example.com", "newpassword", "School");
+
+        mockMvc.perform(put("/api/students/1")
+                        .header(HttpHeaders.IF_MATCH, "\"s2-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedStudent)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void deleteStudent_ShouldDeleteStudent() throws Exception {
         when(studentService.deleteStudent(1L)).thenReturn(true);
@@ -211,4 +347,24 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.errors.password", is("Password must be at least 8 characters long")));
     }
 
+    @Test
+    void addStudent_ShouldReturn400ForEmptyBody() throws Exception {
+        mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("   "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.error", is("Request body cannot be empty")));
+    }
+
+    @Test
+    void addStudent_ShouldReturn400ForMalformedJson() throws Exception {
+        mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Alice\","))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.error", is("Invalid JSON format")));
+    }
+
 }
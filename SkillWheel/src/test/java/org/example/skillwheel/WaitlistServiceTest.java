@@ -0,0 +1,87 @@
+package org.example.skillwheel;
+
+import org.example.skillwheel.event.ReservationChangedEvent;
+import org.example.skillwheel.exception.ReservationConflictException;
+import org.example.skillwheel.model.Reservation;
+import org.example.skillwheel.service.PlaceDictionary;
+import org.example.skillwheel.service.ReservationService;
+import org.example.skillwheel.service.SlotOccupancyIndex;
+import org.example.skillwheel.service.WaitlistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WaitlistServiceTest {
+
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+
+    private final ReservationService reservationService = mock(ReservationService.class);
+    private final SlotOccupancyIndex occupancyIndex = mock(SlotOccupancyIndex.class);
+    private final PlaceDictionary placeDictionary = mock(PlaceDictionary.class);
+    private final WaitlistService waitlistService = new WaitlistService(reservationService, occupancyIndex,
+            placeDictionary, 1000, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        waitlistService.shutdown();
+    }
+
+    @Test
+    void bookOrEnqueue_ShouldRethrowWhenStudentIsBusy() {
+        Reservation reservation = reservation(10L, LocalTime.of(14, 30));
+        when(reservationService.addReservation(any(Reservation.class)))
+                .thenThrow(new ReservationConflictException("Student already has a reservation at this time"));
+        when(occupancyIndex.isInstructorSlotTaken(5L, TOMORROW, LocalTime.of(14, 30))).thenReturn(false);
+
+        assertThrows(ReservationConflictException.class, () -> waitlistService.bookOrEnqueue(reservation));
+        assertEquals(0, waitlistService.waitingCount());
+    }
+
+    @Test
+    void onReservationChanged_ShouldBookFirstWaiterWhenSlotIsFreed() {
+        LocalTime time = LocalTime.of(14, 45);
+        Reservation reservation = reservation(10L, time);
+        when(placeDictionary.idOf("Plac Manewrowy")).thenReturn(3);
+        when(placeDictionary.nameOf(3)).thenReturn("Plac Manewrowy");
+        when(occupancyIndex.isInstructorSlotTaken(eq(5L), eq(TOMORROW), any(LocalTime.class))).thenReturn(true);
+        when(reservationService.addReservation(any(Reservation.class)))
+                .thenThrow(new ReservationConflictException("Instructor already has a reservation at this time"))
+                .thenReturn(reservation);
+
+        WaitlistService.Outcome outcome = waitlistService.bookOrEnqueue(reservation);
+        assertNull(outcome.booked());
+        assertEquals(1, outcome.position());
+
+        when(occupancyIndex.isInstructorSlotTaken(eq(5L), eq(TOMORROW), any(LocalTime.class))).thenReturn(false);
+        waitlistService.onReservationChanged(ReservationChangedEvent.deleted(
+                new Reservation(7L, true, 11L, 5L, TOMORROW, LocalTime.of(14, 30), "Rondo")));
+
+        ArgumentCaptor<Reservation> booked = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationService, timeout(2000).times(2)).addReservation(booked.capture());
+        Reservation promoted = booked.getValue();
+        assertEquals(10L, promoted.getStudentID());
+        assertEquals(time, promoted.getReservationTime());
+        assertEquals("Plac Manewrowy", promoted.getReservationPlace());
+    }
+
+    @Test
+    void leave_ShouldReturnFalseWhenStudentIsNotQueued() {
+        assertFalse(waitlistService.leave(10L, 5L, TOMORROW, LocalTime.of(14, 30)));
+    }
+
+    private static Reservation reservation(Long studentId, LocalTime time) {
+        return new Reservation(null, true, studentId, 5L, TOMORROW, time, "Plac Manewrowy");
+    }
+}